@@ -0,0 +1,94 @@
+package com.vladproduction.fewster.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe Count-Min sketch over strings: approximate counts in fixed memory (depth x width counters).
+ * Estimates never undercount, and exceed the true count by at most epsilon * total
+ * with probability 1 - delta. Counters are incremented lock-free, the row positions are derived
+ * from the same 64-bit hash as {@link BloomFilter} by double hashing.
+ * Counts can be decayed (halved) to favour recent traffic.
+ */
+public class CountMinSketch {
+
+    private final AtomicLongArray counters;
+    private final int width;
+    private final int depth;
+    private final double epsilon;
+    private final LongAdder total = new LongAdder();
+
+    public CountMinSketch(double epsilon, double delta) {
+        if (epsilon <= 0 || epsilon >= 1) {
+            throw new IllegalArgumentException("Epsilon should be between 0 and 1: " + epsilon);
+        }
+        if (delta <= 0 || delta >= 1) {
+            throw new IllegalArgumentException("Delta should be between 0 and 1: " + delta);
+        }
+
+        // w = e / epsilon (rounded up to a power of two for masking), d = ln(1 / delta)
+        int minWidth = (int) Math.ceil(Math.E / epsilon);
+        this.width = Integer.highestOneBit(minWidth - 1) << 1;
+        this.depth = Math.max(1, (int) Math.ceil(Math.log(1 / delta)));
+        this.epsilon = Math.E / width;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    /**
+     * Count one occurrence of the value, returns its new estimate
+     */
+    public long add(String value) {
+        long h1 = BloomFilter.hash64(value);
+        long h2 = BloomFilter.secondHash(h1);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, h1, h2)));
+        }
+        total.increment();
+        return estimate;
+    }
+
+    public long estimate(String value) {
+        long h1 = BloomFilter.hash64(value);
+        long h2 = BloomFilter.secondHash(h1);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halve every counter, increments racing with it may lose a count
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+        long sum = total.sumThenReset();
+        total.add(sum >>> 1);
+    }
+
+    // Sum of all counts (after decay), the error bound is relative to it
+    public long getTotal() {
+        return total.sum();
+    }
+
+    // Upper bound of the overestimate (with probability 1 - delta) at the current total
+    public long getMaxOverestimate() {
+        return (long) Math.ceil(epsilon * total.sum());
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    private int index(int row, long h1, long h2) {
+        return row * width + (int) ((h1 + (row + 1) * h2) & (width - 1));
+    }
+
+}
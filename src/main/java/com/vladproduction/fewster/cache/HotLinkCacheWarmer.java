@@ -0,0 +1,56 @@
+package com.vladproduction.fewster.cache;
+
+import com.vladproduction.fewster.dto.HotLinkDTO;
+import com.vladproduction.fewster.repository.UrlRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the hottest links of {@link HotLinkTracker} loaded in the {@link RedirectCache}:
+ * every hot.links.warmup.intervalMillis (well below redirect.cache.expireAfterWriteSeconds)
+ * the top hot.links.warmup.topN codes are reloaded, so they never expire and never miss,
+ * and changes made on other nodes reach them within one interval.
+ */
+@Slf4j
+@Component
+public class HotLinkCacheWarmer {
+
+    @Value("${hot.links.warmup.enabled}")
+    private boolean enabled;
+
+    @Value("${hot.links.warmup.topN}")
+    private int topN;
+
+    private final HotLinkTracker hotLinkTracker;
+    private final RedirectCache redirectCache;
+    private final UrlRepository urlRepository;
+
+    public HotLinkCacheWarmer(HotLinkTracker hotLinkTracker, RedirectCache redirectCache, UrlRepository urlRepository) {
+        this.hotLinkTracker = hotLinkTracker;
+        this.redirectCache = redirectCache;
+        this.urlRepository = urlRepository;
+    }
+
+    @Scheduled(fixedDelayString = "${hot.links.warmup.intervalMillis}")
+    public void warmUp() {
+        if (!enabled) {
+            return;
+        }
+
+        List<HotLinkDTO> hotLinks = hotLinkTracker.top(topN);
+        try {
+            for (HotLinkDTO hotLink : hotLinks) {
+                redirectCache.refresh(hotLink.getShortCode(), urlRepository::findRedirectTargetByShortCode);
+            }
+            log.debug("Refreshed {} hot links in the redirect cache", hotLinks.size());
+        } catch (DataAccessException e) {
+            log.error("Failed to refresh hot links in the redirect cache, will retry on next run", e);
+        }
+    }
+
+}
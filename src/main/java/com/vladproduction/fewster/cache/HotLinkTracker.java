@@ -0,0 +1,122 @@
+package com.vladproduction.fewster.cache;
+
+import com.vladproduction.fewster.dto.HotLinkDTO;
+import com.vladproduction.fewster.dto.HotLinksDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Streaming top-K of the short codes redirected on this node: a {@link CountMinSketch} estimates
+ * every code's clicks in fixed memory, codes whose estimate passes the smallest one of the current
+ * top-K become candidates, and the candidate set is trimmed back to hot.links.capacity codes
+ * whenever it doubles. Counts are halved every hot.links.decayIntervalMillis, so the ranking
+ * follows what is hot now rather than all-time totals.
+ * Recording is lock-free: a few atomic increments and a set lookup.
+ */
+@Slf4j
+@Component
+public class HotLinkTracker implements MeterBinder {
+
+    private final boolean enabled;
+    private final int capacity;
+    private final CountMinSketch sketch;
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock trimLock = new ReentrantLock();
+    // Smallest estimate of the top-K at the last trim, codes below it are not worth tracking
+    private volatile long admissionThreshold;
+
+    public HotLinkTracker(@Value("${hot.links.enabled}") boolean enabled,
+                          @Value("${hot.links.capacity}") int capacity,
+                          @Value("${hot.links.sketch.epsilon}") double epsilon,
+                          @Value("${hot.links.sketch.delta}") double delta) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.sketch = new CountMinSketch(epsilon, delta);
+    }
+
+    public void record(String shortCode) {
+        if (!enabled) {
+            return;
+        }
+        long estimate = sketch.add(shortCode);
+        if (estimate > admissionThreshold && !candidates.contains(shortCode)) {
+            candidates.add(shortCode);
+            if (candidates.size() > 2 * capacity && trimLock.tryLock()) {
+                try {
+                    trim();
+                } finally {
+                    trimLock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Hottest codes first, at most hot.links.capacity of them
+     */
+    public List<HotLinkDTO> top(int limit) {
+        List<HotLinkDTO> ranked = ranked();
+        return ranked.subList(0, Math.min(Math.min(limit, capacity), ranked.size()));
+    }
+
+    @Scheduled(fixedDelayString = "${hot.links.decayIntervalMillis}")
+    public void decay() {
+        if (!enabled) {
+            return;
+        }
+        trimLock.lock();
+        try {
+            sketch.decay();
+            trim();
+        } finally {
+            trimLock.unlock();
+        }
+    }
+
+    public HotLinksDTO getHotLinks(int limit) {
+        HotLinksDTO dto = new HotLinksDTO();
+        dto.setLinks(top(limit));
+        dto.setTotalClicks(sketch.getTotal());
+        dto.setMaxOverestimate(sketch.getMaxOverestimate());
+        return dto;
+    }
+
+    // Keep the top capacity candidates by their current estimate, callers hold trimLock
+    private void trim() {
+        List<HotLinkDTO> ranked = ranked();
+        if (ranked.size() < capacity) {
+            admissionThreshold = 0;
+            return;
+        }
+        ranked.subList(capacity, ranked.size()).forEach(hotLink -> candidates.remove(hotLink.getShortCode()));
+        admissionThreshold = ranked.get(capacity - 1).getEstimatedClicks();
+        log.debug("Trimmed hot link candidates to {}, admission threshold {}", capacity, admissionThreshold);
+    }
+
+    // Candidates by their current estimate, hottest first
+    private List<HotLinkDTO> ranked() {
+        return candidates.stream()
+                .map(shortCode -> new HotLinkDTO(shortCode, sketch.estimate(shortCode)))
+                .sorted(Comparator.comparingLong(HotLinkDTO::getEstimatedClicks).reversed())
+                .toList();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("fewster.hot.links.threshold", this, tracker -> tracker.admissionThreshold)
+                .description("Smallest decayed click estimate in the hot link top-K")
+                .register(registry);
+    }
+
+}
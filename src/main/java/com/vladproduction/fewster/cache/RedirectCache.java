@@ -0,0 +1,205 @@
+package com.vladproduction.fewster.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vladproduction.fewster.dto.CacheStatsDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded in-process cache for short code -> original url resolution used by the public redirect path.
+ * Known short codes are kept in the main cache, unknown ones are remembered in a smaller negative cache
+ * so repeated probes of non-existing codes do not reach the database either.
+ * Entries are local to this node: changes made through the service invalidate them immediately,
+ * changes made elsewhere become visible once the entry expires.
+ * A load that overlaps an invalidation of its key (seen through a striped version counter) answers its caller
+ * but caches nothing, so a value read before a change can not outlive the invalidation of that change.
+ */
+@Slf4j
+@Component
+public class RedirectCache implements MeterBinder {
+
+    private static final int VERSION_STRIPES = 1024;
+
+    // Async cache only so loads run outside the map's bin lock, see get()
+    private final AsyncCache<String, RedirectTarget> targets;
+    private final Cache<String, Boolean> misses;
+    // Bumped by invalidate(), a few keys share a stripe (a spurious bump only skips caching one load)
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    public RedirectCache(@Value("${redirect.cache.maxSize}") long maxSize,
+                         @Value("${redirect.cache.expireAfterWriteSeconds}") long expireAfterWriteSeconds,
+                         @Value("${redirect.cache.negative.maxSize}") long negativeMaxSize,
+                         @Value("${redirect.cache.negative.expireAfterWriteSeconds}") long negativeExpireAfterWriteSeconds) {
+        this.targets = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .buildAsync();
+        this.misses = Caffeine.newBuilder()
+                .maximumSize(negativeMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(negativeExpireAfterWriteSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Resolve short code from cache, calling loader only on a miss.
+     * Concurrent misses for the same key share a single loader call.
+     * The loader runs on the calling thread after the entry was claimed, not inside the map's lock,
+     * so a virtual thread waiting on the database never pins its carrier thread.
+     */
+    public Optional<RedirectTarget> get(String shortCode, Function<String, Optional<RedirectTarget>> loader) {
+        if (misses.getIfPresent(shortCode) != null) {
+            return Optional.empty();
+        }
+
+        long version = version(shortCode);
+        CompletableFuture<RedirectTarget> claimed = new CompletableFuture<>();
+        CompletableFuture<RedirectTarget> target = targets.get(shortCode, (key, executor) -> claimed);
+        if (target == claimed) {
+            try {
+                Optional<RedirectTarget> loaded = loader.apply(shortCode);
+                if (version(shortCode) != version) {
+                    // Invalidated while loading, the value may predate the change
+                    targets.asMap().remove(shortCode, claimed);
+                } else if (loaded.isEmpty()) {
+                    misses.put(shortCode, Boolean.TRUE);
+                }
+                // a null value removes the entry
+                claimed.complete(loaded.orElse(null));
+            } catch (RuntimeException e) {
+                claimed.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return Optional.ofNullable(target.join());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #get} for the reactive redirect tier:
+     * the loader only starts the lookup and completes the returned future later.
+     * Concurrent misses for the same key share a single loader call.
+     */
+    public CompletableFuture<Optional<RedirectTarget>> getAsync(String shortCode,
+                                                                Function<String, CompletableFuture<Optional<RedirectTarget>>> loader) {
+        if (misses.getIfPresent(shortCode) != null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        long version = version(shortCode);
+        CompletableFuture<RedirectTarget> target = targets.get(shortCode, (key, executor) -> loader.apply(key).thenApply(loaded -> {
+            if (loaded.isEmpty() && version(key) == version) {
+                misses.put(key, Boolean.TRUE);
+            }
+            // a null value removes the entry
+            return loaded.orElse(null);
+        }));
+        return target.thenApply(loaded -> {
+            if (version(shortCode) != version) {
+                // Invalidated while loading, the value may predate the change
+                targets.asMap().remove(shortCode, target);
+            }
+            return Optional.ofNullable(loaded);
+        });
+    }
+
+    /**
+     * Reload the short code ahead of expiry, keeps hot links from ever missing (see HotLinkCacheWarmer)
+     * An entry invalidated or replaced while the reload runs is left as it is
+     */
+    public void refresh(String shortCode, Function<String, Optional<RedirectTarget>> loader) {
+        CompletableFuture<RedirectTarget> current = targets.getIfPresent(shortCode);
+        if (current == null) {
+            get(shortCode, loader);
+            return;
+        }
+        if (!current.isDone()) {
+            // a load is already running
+            return;
+        }
+
+        long version = version(shortCode);
+        Optional<RedirectTarget> loaded = loader.apply(shortCode);
+        if (version(shortCode) != version) {
+            // invalidated meanwhile, the next get loads the current value
+            return;
+        }
+        if (loaded.isEmpty()) {
+            targets.asMap().remove(shortCode, current);
+        } else {
+            targets.asMap().replace(shortCode, current, CompletableFuture.completedFuture(loaded.get()));
+        }
+    }
+
+    /**
+     * Drop any cached state (positive or negative) for the short code
+     * Must be called whenever the mapping is created, changed or removed
+     */
+    public void invalidate(String shortCode) {
+        // Before removing: a load finishing after this point sees the bump and caches nothing
+        versions.incrementAndGet(stripe(shortCode));
+        targets.synchronous().invalidate(shortCode);
+        misses.invalidate(shortCode);
+        log.debug("Invalidated redirect cache entry for: {}", shortCode);
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        targets.synchronous().invalidateAll();
+        misses.invalidateAll();
+    }
+
+    private long version(String shortCode) {
+        return versions.get(stripe(shortCode));
+    }
+
+    private static int stripe(String shortCode) {
+        return shortCode.hashCode() & (VERSION_STRIPES - 1);
+    }
+
+    public CacheStatsDTO getStats() {
+        Cache<String, RedirectTarget> targetCache = targets.synchronous();
+        CacheStats stats = targetCache.stats();
+        CacheStats negativeStats = misses.stats();
+
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.setSize(targetCache.estimatedSize());
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setEvictionCount(stats.evictionCount());
+        dto.setHitRate(stats.hitRate());
+        dto.setNegativeSize(misses.estimatedSize());
+        dto.setNegativeHitCount(negativeStats.hitCount());
+        dto.setNegativeEvictionCount(negativeStats.evictionCount());
+        return dto;
+    }
+
+    // cache.gets{cache=redirect|redirect-negative, result=hit|miss}, cache.size, cache.evictions
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, targets.synchronous(), "redirect");
+        CaffeineCacheMetrics.monitor(registry, misses, "redirect-negative");
+    }
+
+}
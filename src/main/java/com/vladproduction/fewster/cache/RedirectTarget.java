@@ -0,0 +1,20 @@
+package com.vladproduction.fewster.cache;
+
+import java.time.LocalDateTime;
+
+/**
+ * Minimal view of a url row needed to serve a redirect:
+ * the row id (for click counting), the original url to send the client to
+ * and when the link expires (null for never), checked on every redirect so cached targets expire too.
+ */
+public record RedirectTarget(Long id, String originalUrl, LocalDateTime expiresAt) {
+
+    public RedirectTarget(Long id, String originalUrl) {
+        this(id, originalUrl, null);
+    }
+
+    public boolean isExpired() {
+        return expiresAt != null && !expiresAt.isAfter(LocalDateTime.now());
+    }
+
+}
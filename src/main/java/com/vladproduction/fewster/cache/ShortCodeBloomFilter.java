@@ -0,0 +1,250 @@
+package com.vladproduction.fewster.cache;
+
+import com.vladproduction.fewster.dto.BloomFilterStatsDTO;
+import com.vladproduction.fewster.repository.IssuedShortCode;
+import com.vladproduction.fewster.repository.UrlRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Bloom filter over all issued short codes: create-time collision checks of fresh candidates skip the query
+ * for codes that were never issued, and the redirect path answers codes that were never issued (scanners probing
+ * random codes) without a query.
+ * Built by streaming the url table on startup and rebuilt periodically; new codes are added on create, and every
+ * bloom.filter.syncIntervalMillis the rows created since the last sync (on any node) are read by id and added too.
+ * A Bloom filter cannot remove values, deleted codes stay "might be present" (costing one query)
+ * until the next rebuild.
+ * Rows commit out of id order, so a sync reads from the highest id that had been seen
+ * bloom.filter.sync.commitMarginMillis before the previous read started: an insert committing within that margin
+ * of getting its id is never skipped. After the first build, rows in flight during its snapshot are only below
+ * such a mark once, so the first sync waits out the margin and reads the table from the start.
+ * A miss is trusted on the redirect path ({@link #isDefinitelyAbsent}) only after that first sync and while syncs
+ * keep succeeding; until then, and whenever the filter is disabled, the database answers.
+ * A code created on another node is known here after the next sync: for up to bloom.filter.syncIntervalMillis
+ * it can be answered 404 by this node (such answers are not kept in the negative cache).
+ */
+@Slf4j
+@Component
+public class ShortCodeBloomFilter {
+
+    // Misses are not trusted once this many sync intervals passed without a successful read
+    private static final int STALE_AFTER_SYNCS = 5;
+
+    @Value("${bloom.filter.enabled}")
+    private boolean enabled;
+
+    @Value("${bloom.filter.expectedInsertions}")
+    private long expectedInsertions;
+
+    @Value("${bloom.filter.falsePositiveRate}")
+    private double falsePositiveRate;
+
+    @Value("${bloom.filter.redirect.enabled}")
+    private boolean redirectEnabled;
+
+    @Value("${bloom.filter.syncIntervalMillis}")
+    private long syncIntervalMillis;
+
+    @Value("${bloom.filter.sync.commitMarginMillis}")
+    private long commitMarginMillis;
+
+    @Value("${bloom.filter.sync.batchSize}")
+    private int syncBatchSize;
+
+    private final UrlRepository urlRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // null until the first build completed, until then every code "might be present"
+    private volatile BloomFilter current;
+    // non-null while a rebuild is streaming, receives the codes created meanwhile
+    private volatile BloomFilter building;
+
+    // {time a read ended, highest id seen by then}, oldest first, guarded by this
+    private final Deque<long[]> readMarks = new ArrayDeque<>();
+    // a sync read the whole table since the first build, every committed code is in the filter
+    private volatile boolean covered;
+    private volatile long lastReadStartMillis;
+    private long builtAtMillis;
+
+    private final AtomicLong deletesSinceRebuild = new AtomicLong();
+    private volatile long lastRebuildMillis;
+    private volatile LocalDateTime lastRebuildAt;
+
+    public ShortCodeBloomFilter(UrlRepository urlRepository, PlatformTransactionManager transactionManager) {
+        this.urlRepository = urlRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * false means the code was definitely never issued,
+     * true means it might have been (or the filter is not built yet / disabled)
+     */
+    public boolean mightContain(String shortCode) {
+        BloomFilter filter = current;
+        return filter == null || filter.mightContain(shortCode);
+    }
+
+    /**
+     * true when the code was definitely never issued and the redirect path may answer 404 without a query:
+     * the filter is enabled for redirects, covers every row up to its sync floor and was synced recently
+     */
+    public boolean isDefinitelyAbsent(String shortCode) {
+        BloomFilter filter = current;
+        return redirectEnabled
+                && filter != null
+                && covered
+                && System.currentTimeMillis() - lastReadStartMillis <= STALE_AFTER_SYNCS * syncIntervalMillis
+                && !filter.mightContain(shortCode);
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    public void put(String shortCode) {
+        // building before current, rebuild publishes in the opposite order: a put racing the swap reaches the new filter
+        BloomFilter rebuilding = building;
+        if (rebuilding != null) {
+            rebuilding.put(shortCode);
+        }
+        BloomFilter filter = current;
+        if (filter != null) {
+            filter.put(shortCode);
+        }
+    }
+
+    /**
+     * Code was deleted: it cannot be removed from the filter, only counted until the next rebuild
+     */
+    public void recordDelete() {
+        deletesSinceRebuild.incrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${bloom.filter.rebuildIntervalMillis}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long maxIdAtStart = urlRepository.findMaxId();
+        long maxIdReadAt = System.currentTimeMillis();
+        long rows = urlRepository.count();
+        // leave room for growth until the next rebuild
+        BloomFilter filter = new BloomFilter(Math.max(expectedInsertions, rows * 2), falsePositiveRate);
+        building = filter;
+        long deletesBefore = deletesSinceRebuild.get();
+
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> shortCodes = urlRepository.streamAllShortCodes()) {
+                    shortCodes.forEach(filter::put);
+                }
+            });
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild short code bloom filter, keeping previous one", e);
+            building = null;
+            return;
+        }
+
+        // Published before building is cleared, so no put lands in neither filter
+        current = filter;
+        building = null;
+        markRead(start, maxIdReadAt, maxIdAtStart);
+        builtAtMillis = System.currentTimeMillis();
+        deletesSinceRebuild.addAndGet(-deletesBefore);
+        lastRebuildMillis = System.currentTimeMillis() - start;
+        lastRebuildAt = LocalDateTime.now();
+        log.info("Rebuilt short code bloom filter: {} codes, {} bytes, estimated false positive rate {} in {} ms",
+                filter.getInsertions(), filter.getMemoryBytes(), filter.estimatedFalsePositiveRate(), lastRebuildMillis);
+    }
+
+    /**
+     * Add the codes created since the last sync, on this node or any other
+     */
+    @Scheduled(fixedDelayString = "${bloom.filter.syncIntervalMillis}")
+    public synchronized void sync() {
+        if (!enabled || current == null) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        long[] floor = syncFloor();
+        if (floor == null && start - builtAtMillis < commitMarginMillis) {
+            // rows in flight during the first build have not all committed yet
+            return;
+        }
+
+        long afterId = floor == null ? 0 : floor[1];
+        try {
+            List<IssuedShortCode> issued;
+            do {
+                issued = urlRepository.findShortCodesAfter(afterId, Limit.of(syncBatchSize));
+                for (IssuedShortCode code : issued) {
+                    put(code.getShortCode());
+                    afterId = code.getId();
+                }
+            } while (issued.size() == syncBatchSize);
+        } catch (DataAccessException e) {
+            log.error("Failed to sync short code bloom filter, will retry on next run", e);
+            return;
+        }
+        markRead(start, System.currentTimeMillis(), afterId);
+        covered = true;
+    }
+
+    // Newest mark taken at least the commit margin before the previous read started, older ones are dropped.
+    // Every id up to its id was given out before then, so those rows committed before the previous read and are
+    // in the filter; null until such a mark exists.
+    private long[] syncFloor() {
+        long threshold = lastReadStartMillis - commitMarginMillis;
+        long[] floor = null;
+        while (!readMarks.isEmpty() && readMarks.peekFirst()[0] <= threshold) {
+            floor = readMarks.removeFirst();
+        }
+        if (floor != null) {
+            readMarks.addFirst(floor);
+        }
+        return floor;
+    }
+
+    private void markRead(long startMillis, long endMillis, long maxId) {
+        long[] last = readMarks.peekLast();
+        readMarks.addLast(new long[]{endMillis, last == null ? maxId : Math.max(maxId, last[1])});
+        lastReadStartMillis = startMillis;
+    }
+
+    public BloomFilterStatsDTO getStats() {
+        BloomFilterStatsDTO dto = new BloomFilterStatsDTO();
+        dto.setEnabled(enabled);
+        dto.setDeletesSinceRebuild(deletesSinceRebuild.get());
+        dto.setLastRebuildMillis(lastRebuildMillis);
+        dto.setLastRebuildAt(lastRebuildAt);
+
+        BloomFilter filter = current;
+        dto.setReady(filter != null);
+        if (filter != null) {
+            dto.setBitSize(filter.getBitSize());
+            dto.setHashFunctions(filter.getHashFunctions());
+            dto.setMemoryBytes(filter.getMemoryBytes());
+            dto.setInsertions(filter.getInsertions());
+            dto.setEstimatedFalsePositiveRate(filter.estimatedFalsePositiveRate());
+        }
+        return dto;
+    }
+
+}
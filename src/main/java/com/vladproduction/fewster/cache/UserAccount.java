@@ -0,0 +1,26 @@
+package com.vladproduction.fewster.cache;
+
+import com.vladproduction.fewster.entity.User;
+
+/**
+ * Immutable copy of a users row, enough to authenticate and to act on behalf of the user
+ * without loading the entity (and its lazy url collection).
+ */
+public record UserAccount(Long id, String username, String password, String role) {
+
+    public static UserAccount of(User user) {
+        return new UserAccount(user.getId(), user.getUsername(), user.getPassword(), user.getRole());
+    }
+
+    /**
+     * Detached user carrying id, username and role, usable as the owner reference of new urls
+     */
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setRole(role);
+        return user;
+    }
+
+}
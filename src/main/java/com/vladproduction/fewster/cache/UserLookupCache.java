@@ -0,0 +1,78 @@
+package com.vladproduction.fewster.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.vladproduction.fewster.dto.CacheStatsDTO;
+import com.vladproduction.fewster.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded in-process cache of username -> {@link UserAccount}, shared by HTTP Basic authentication
+ * (which loads the user on every API request) and {@link com.vladproduction.fewster.security.AuthService}.
+ * Unknown usernames are not cached, so a user registered a moment ago is found on first use.
+ * Changes made through {@link com.vladproduction.fewster.service.UserService} invalidate the entry,
+ * changes made elsewhere become visible once the entry expires.
+ */
+@Slf4j
+@Component
+public class UserLookupCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserAccount> accounts;
+
+    public UserLookupCache(UserRepository userRepository,
+                           @Value("${user.cache.maxSize}") long maxSize,
+                           @Value("${user.cache.expireAfterWriteSeconds}") long expireAfterWriteSeconds) {
+        this.userRepository = userRepository;
+        this.accounts = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Find the user by username, querying the database only on a miss
+     */
+    public Optional<UserAccount> get(String username) {
+        UserAccount account = accounts.get(username, key -> userRepository.findByUsername(key)
+                .map(UserAccount::of)
+                .orElse(null));
+        return Optional.ofNullable(account);
+    }
+
+    /**
+     * Must be called whenever the user is created, changed or removed
+     */
+    public void invalidate(String username) {
+        accounts.invalidate(username);
+        log.debug("Invalidated user cache entry for: {}", username);
+    }
+
+    public CacheStatsDTO getStats() {
+        CacheStats stats = accounts.stats();
+
+        CacheStatsDTO dto = new CacheStatsDTO();
+        dto.setSize(accounts.estimatedSize());
+        dto.setHitCount(stats.hitCount());
+        dto.setMissCount(stats.missCount());
+        dto.setEvictionCount(stats.evictionCount());
+        dto.setHitRate(stats.hitRate());
+        return dto;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, accounts, "users");
+    }
+
+}
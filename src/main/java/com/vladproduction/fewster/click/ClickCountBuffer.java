@@ -0,0 +1,153 @@
+package com.vladproduction.fewster.click;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory buffer of clicks that have not been written to the database yet.
+ * Every url id gets its own striped counter (LongAdder), so concurrent redirects of the same link
+ * never contend on a lock and never lose increments. The buffer is drained periodically by
+ * {@link ClickCountFlusher}, which turns the pending deltas into batched relative updates.
+ * A drain swaps in a fresh generation of counters and reads the old one only once no click is still
+ * being added to it, so a click is counted exactly once however long the recording thread was paused.
+ */
+@Component
+public class ClickCountBuffer implements MeterBinder {
+
+    // Threads announce a click in progress on their own padded slot (one cache line each)
+    private static final int STRIPES = 64;
+    private static final int SLOT_WIDTH = 8;
+
+    /**
+     * Current generation, the generation being drained (null outside of drain)
+     * and the deltas taken by the last drain but not committed yet.
+     * Replaced as a whole, so {@link #pending(Long)} never misses nor double counts a click.
+     */
+    private record State(Generation current, Generation draining, Map<Long, Long> inFlight) {
+    }
+
+    private volatile State state = new State(new Generation(), null, Collections.emptyMap());
+
+    /**
+     * Record one click for the url, never blocks on I/O
+     */
+    public void increment(Long urlId) {
+        int slot = slot();
+        while (true) {
+            Generation generation = state.current;
+            generation.active.incrementAndGet(slot);
+            try {
+                // Announced before the re-check: a drain that swapped meanwhile either sees this click
+                // in progress and waits for it, or this thread sees the swap and moves on to the new generation
+                if (state.current == generation) {
+                    generation.counters.computeIfAbsent(urlId, id -> new LongAdder()).increment();
+                    return;
+                }
+            } finally {
+                generation.active.decrementAndGet(slot);
+            }
+        }
+    }
+
+    /**
+     * Clicks recorded for the url that are not persisted yet (buffered + being flushed)
+     */
+    public long pending(Long urlId) {
+        State current = state;
+        return current.current.sum(urlId)
+                + (current.draining == null ? 0 : current.draining.sum(urlId))
+                + current.inFlight.getOrDefault(urlId, 0L);
+    }
+
+    /**
+     * Number of urls with buffered clicks
+     */
+    public int depth() {
+        return state.current.counters.size();
+    }
+
+    /**
+     * Take all buffered deltas, resetting the counters.
+     * The returned deltas stay visible through {@link #pending(Long)} until {@link #commit()} is called,
+     * every drain must be followed by {@link #commit()} or {@link #restore(Map)}.
+     */
+    public synchronized Map<Long, Long> drain() {
+        Generation drained = state.current;
+        state = new State(new Generation(), drained, state.inFlight);
+        drained.awaitQuiescence();
+
+        // Deltas of a failed flush are retried together with the new ones
+        Map<Long, Long> deltas = new HashMap<>(state.inFlight);
+        drained.counters.forEach((urlId, clicks) -> {
+            long delta = clicks.sum();
+            if (delta > 0) {
+                deltas.merge(urlId, delta, Long::sum);
+            }
+        });
+        state = new State(state.current, null, Collections.unmodifiableMap(deltas));
+        return state.inFlight;
+    }
+
+    /**
+     * Drained deltas were persisted
+     */
+    public synchronized void commit() {
+        state = new State(state.current, null, Collections.emptyMap());
+    }
+
+    /**
+     * Drained deltas could not be persisted, keep them pending to be retried on next flush
+     */
+    public synchronized void restore(Map<Long, Long> deltas) {
+        state = new State(state.current, null, deltas);
+    }
+
+    /**
+     * Forget buffered clicks of a url that no longer exists
+     */
+    public void discard(Long urlId) {
+        state.current.counters.remove(urlId);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("fewster.click.buffer.depth", this, ClickCountBuffer::depth)
+                .description("Urls with clicks not written to the database yet")
+                .register(registry);
+    }
+
+    private static int slot() {
+        return (int) (Thread.currentThread().threadId() & (STRIPES - 1)) * SLOT_WIDTH;
+    }
+
+    private static final class Generation {
+        private final ConcurrentHashMap<Long, LongAdder> counters = new ConcurrentHashMap<>();
+        // clicks being added to this generation right now, per thread slot
+        private final AtomicLongArray active = new AtomicLongArray(STRIPES * SLOT_WIDTH);
+
+        private long sum(Long urlId) {
+            LongAdder clicks = counters.get(urlId);
+            return clicks == null ? 0 : clicks.sum();
+        }
+
+        // Generation is no longer current, wait for the clicks still being added to it
+        private void awaitQuiescence() {
+            for (int slot = 0; slot < STRIPES * SLOT_WIDTH; slot += SLOT_WIDTH) {
+                while (active.get(slot) != 0) {
+                    // the thread adding the click may be descheduled, let it run
+                    Thread.yield();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,8 @@
+package com.vladproduction.fewster.click;
+
+/**
+ * One redirect as recorded on the redirect thread: raw header values only,
+ * referrer host and user agent family are derived by {@link ClickEventWriter} off the hot path
+ */
+public record ClickEvent(long urlId, long clickedAtMillis, String referrer, String userAgent) {
+}
@@ -0,0 +1,144 @@
+package com.vladproduction.fewster.click;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded lock-free ring buffer of click events between the redirect threads (many producers)
+ * and {@link ClickEventWriter} (a single consumer).
+ * A producer claims a sequence with one CAS on the tail and publishes the event into its slot,
+ * the consumer takes published slots in sequence order and frees them by advancing the head.
+ * {@link #offer} never blocks and never allocates beyond the event: when the writer falls behind
+ * events are shed according to click.events.overflowPolicy.
+ */
+@Component
+public class ClickEventBuffer implements MeterBinder {
+
+    private final boolean enabled;
+    private final ClickEventOverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final int capacity;
+    private final int mask;
+    private final long highWatermark;
+
+    private final AtomicReferenceArray<ClickEvent> slots;
+    // next sequence to claim, advanced by producers
+    private final AtomicLong tail = new AtomicLong();
+    // next sequence to consume, advanced by the consumer only
+    private final AtomicLong head = new AtomicLong();
+
+    private final LongAdder droppedFull = new LongAdder();
+    private final LongAdder droppedSampled = new LongAdder();
+
+    public ClickEventBuffer(@Value("${click.events.enabled}") boolean enabled,
+                            @Value("${click.events.capacity}") int capacity,
+                            @Value("${click.events.overflowPolicy}") ClickEventOverflowPolicy overflowPolicy,
+                            @Value("${click.events.highWatermark}") double highWatermark,
+                            @Value("${click.events.sampleRate}") int sampleRate) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("click.events.capacity must be a power of two, got " + capacity);
+        }
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("click.events.sampleRate must be at least 1, got " + sampleRate);
+        }
+        this.enabled = enabled;
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = sampleRate;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.highWatermark = (long) (capacity * highWatermark);
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Hand the event to the writer, false when it was shed (buffer full or sampled out) or events are disabled
+     */
+    public boolean offer(ClickEvent event) {
+        if (!enabled) {
+            return false;
+        }
+
+        long sequence;
+        do {
+            sequence = tail.get();
+            long depth = sequence - head.get();
+            if (depth >= capacity) {
+                droppedFull.increment();
+                return false;
+            }
+            if (overflowPolicy == ClickEventOverflowPolicy.SAMPLE && depth >= highWatermark
+                    && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+                droppedSampled.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        // Slot is free: the consumer cleared it before moving the head past it
+        slots.setRelease((int) sequence & mask, event);
+        return true;
+    }
+
+    /**
+     * Move up to max published events into the target, in the order they were claimed.
+     * Must only be called by one thread at a time (the writer).
+     * Stops early at a slot that was claimed but not published yet, it is picked up by the next call.
+     */
+    public int drainTo(List<ClickEvent> target, int max) {
+        long sequence = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) sequence & mask;
+            ClickEvent event = slots.getAcquire(index);
+            if (event == null) {
+                break;
+            }
+            target.add(event);
+            slots.setPlain(index, null);
+            // release: the cleared slot is visible before producers can claim it again
+            head.setRelease(++sequence);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Events claimed and not taken by the writer yet
+     */
+    public int depth() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public long getDroppedFull() {
+        return droppedFull.sum();
+    }
+
+    public long getDroppedSampled() {
+        return droppedSampled.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("fewster.click.events.buffer.depth", this, ClickEventBuffer::depth)
+                .description("Click events waiting for the writer")
+                .register(registry);
+        FunctionCounter.builder("fewster.click.events.dropped", droppedFull, LongAdder::sum)
+                .description("Click events shed before reaching the writer")
+                .tag("reason", "full")
+                .register(registry);
+        FunctionCounter.builder("fewster.click.events.dropped", droppedSampled, LongAdder::sum)
+                .description("Click events shed before reaching the writer")
+                .tag("reason", "sampled")
+                .register(registry);
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.vladproduction.fewster.click;
+
+/**
+ * What {@link ClickEventBuffer} does with new events when the writer falls behind.
+ * Click counts (url.click_count) are not affected, they are buffered separately.
+ */
+public enum ClickEventOverflowPolicy {
+
+    /**
+     * Accept everything while there is room, drop new events once the buffer is full:
+     * no event is lost below capacity, a long burst loses a contiguous stretch of events
+     */
+    DROP_NEWEST,
+
+    /**
+     * Above the high watermark keep only one event in click.events.sampleRate, drop the rest:
+     * the buffer rarely fills up and every period keeps a uniform sample (referrer and agent shares
+     * stay representative), at the price of thinning out events earlier
+     */
+    SAMPLE
+
+}
@@ -0,0 +1,101 @@
+package com.vladproduction.fewster.click;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Keeps the daily partitions of click_event (MySQL RANGE partitioning on TO_DAYS(clicked_at)):
+ * creates the partitions for the next click.events.partitionsAhead days by splitting them off p_future,
+ * and applies retention by dropping partitions older than click.events.retentionDays,
+ * a metadata operation instead of deleting millions of rows.
+ * Rows that land in p_future (maintenance did not run for days) stay there until it is split.
+ */
+@Slf4j
+@Component
+public class ClickEventPartitionManager {
+
+    private static final String PREFIX = "p";
+    private static final String FUTURE = "p_future";
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE; // yyyyMMdd
+
+    @Value("${click.events.partitioning.enabled}")
+    private boolean enabled;
+
+    @Value("${click.events.retentionDays}")
+    private int retentionDays;
+
+    @Value("${click.events.partitionsAhead}")
+    private int partitionsAhead;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClickEventPartitionManager(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${click.events.partitionMaintenanceIntervalMillis}")
+    public synchronized void maintain() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            LocalDate today = LocalDate.now();
+            List<LocalDate> days = partitionDays();
+            createPartitions(today, days.isEmpty() ? Optional.empty() : Optional.of(days.get(days.size() - 1)));
+            dropPartitions(today, days);
+        } catch (DataAccessException e) {
+            log.error("Failed to maintain click_event partitions, will retry on next run", e);
+        }
+    }
+
+    // Partitions can only be added after the last one, so days in between are never skipped
+    private void createPartitions(LocalDate today, Optional<LocalDate> lastDay) {
+        LocalDate from = lastDay.map(day -> day.plusDays(1)).filter(day -> day.isAfter(today)).orElse(today);
+        LocalDate until = today.plusDays(partitionsAhead);
+        for (LocalDate day = from; !day.isAfter(until); day = day.plusDays(1)) {
+            jdbcTemplate.execute("ALTER TABLE click_event REORGANIZE PARTITION " + FUTURE + " INTO ("
+                    + "PARTITION " + name(day) + " VALUES LESS THAN (TO_DAYS('" + day.plusDays(1) + "')), "
+                    + "PARTITION " + FUTURE + " VALUES LESS THAN MAXVALUE)");
+            log.info("Created click_event partition {}", name(day));
+        }
+    }
+
+    private void dropPartitions(LocalDate today, List<LocalDate> days) {
+        LocalDate oldestKept = today.minusDays(retentionDays);
+        List<String> expired = days.stream()
+                .filter(day -> day.isBefore(oldestKept))
+                .map(ClickEventPartitionManager::name)
+                .toList();
+        if (expired.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE click_event DROP PARTITION " + String.join(", ", expired));
+        log.info("Dropped expired click_event partitions {}", expired);
+    }
+
+    // Days of the existing daily partitions, oldest first
+    private List<LocalDate> partitionDays() {
+        return jdbcTemplate.queryForList("select partition_name from information_schema.partitions "
+                        + "where table_schema = database() and table_name = 'click_event' and partition_name is not null",
+                        String.class).stream()
+                .filter(partition -> !FUTURE.equals(partition) && partition.startsWith(PREFIX))
+                .map(partition -> LocalDate.parse(partition.substring(PREFIX.length()), DAY))
+                .sorted()
+                .toList();
+    }
+
+    private static String name(LocalDate day) {
+        return PREFIX + day.format(DAY);
+    }
+
+}
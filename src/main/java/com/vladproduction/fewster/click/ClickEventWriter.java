@@ -0,0 +1,138 @@
+package com.vladproduction.fewster.click;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Single consumer of {@link ClickEventBuffer}: drains it periodically into the click_event table,
+ * click.events.batchSize rows per JDBC batch (one multi-row INSERT with rewriteBatchedStatements=true).
+ * Events are analytics, a batch that fails to insert is dropped and counted rather than retried,
+ * so a database outage can not back up into the redirect path.
+ * A run writes at most click.events.maxBatchesPerRun batches and leaves the rest to the next run,
+ * so a burst never holds a shared scheduler thread for long.
+ */
+@Slf4j
+@Component
+public class ClickEventWriter implements MeterBinder {
+
+    private static final String INSERT_SQL = "INSERT INTO click_event (url_id, clicked_at, referrer_host, "
+            + "user_agent_family) VALUES (?, ?, ?, ?)";
+    private static final int REFERRER_HOST_MAX_LENGTH = 255;
+
+    @Value("${click.events.batchSize}")
+    private int batchSize;
+
+    @Value("${click.events.maxBatchesPerRun}")
+    private int maxBatchesPerRun;
+
+    private final ClickEventBuffer clickEventBuffer;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writeFailed = new LongAdder();
+
+    public ClickEventWriter(ClickEventBuffer clickEventBuffer, JdbcTemplate jdbcTemplate) {
+        this.clickEventBuffer = clickEventBuffer;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${click.events.flushIntervalMillis}")
+    public void flush() {
+        write(maxBatchesPerRun);
+    }
+
+    private synchronized void write(int maxBatches) {
+        List<ClickEvent> batch = new ArrayList<>(batchSize);
+        for (int batches = 0; batches < maxBatches && clickEventBuffer.drainTo(batch, batchSize) > 0; batches++) {
+            insert(batch);
+            batch.clear();
+        }
+    }
+
+    private void insert(List<ClickEvent> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setLong(1, event.urlId());
+                ps.setTimestamp(2, new Timestamp(event.clickedAtMillis()));
+                String referrerHost = referrerHost(event.referrer());
+                if (referrerHost == null) {
+                    ps.setNull(3, Types.VARCHAR);
+                } else {
+                    ps.setString(3, referrerHost);
+                }
+                ps.setString(4, UserAgentFamily.of(event.userAgent()).name());
+            });
+            written.add(batch.size());
+        } catch (DataAccessException e) {
+            writeFailed.add(batch.size());
+            log.error("Failed to write {} click events, dropping them", batch.size(), e);
+        }
+    }
+
+    /**
+     * Host part of a Referer header ("https://www.example.com:8443/page?q" -> "www.example.com"),
+     * null when there is none
+     */
+    static String referrerHost(String referrer) {
+        if (referrer == null) {
+            return null;
+        }
+        int schemeEnd = referrer.indexOf("://");
+        if (schemeEnd < 0) {
+            return null;
+        }
+        int start = schemeEnd + 3;
+        int end = start;
+        while (end < referrer.length() && "/?#".indexOf(referrer.charAt(end)) < 0) {
+            end++;
+        }
+        // drop credentials (user:password@host) and port
+        int at = referrer.lastIndexOf('@', end - 1);
+        if (at >= start) {
+            start = at + 1;
+        }
+        int colon = referrer.indexOf(':', start);
+        if (colon >= 0 && colon < end) {
+            end = colon;
+        }
+        if (end == start) {
+            return null;
+        }
+        String host = referrer.substring(start, Math.min(end, start + REFERRER_HOST_MAX_LENGTH));
+        return host.toLowerCase(Locale.ROOT);
+    }
+
+    // Write whatever is still buffered when the application shuts down
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Writing buffered click events before shutdown");
+        write(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("fewster.click.events.written", written, LongAdder::sum)
+                .description("Click events inserted into click_event")
+                .register(registry);
+        FunctionCounter.builder("fewster.click.events.dropped", writeFailed, LongAdder::sum)
+                .description("Click events shed before reaching the writer")
+                .tag("reason", "write_failed")
+                .register(registry);
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.vladproduction.fewster.click;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Clicks of one link per minute over the last 24 hours, a circular array of 1440 primitive slots
+ * (fixed 11.5 KB per link, nothing allocated per click).
+ * Each slot packs the minute it counts (high 32 bits, minutes since the epoch) with the count (low 32 bits):
+ * the first click of a minute takes its slot over from the same minute one day earlier with a CAS,
+ * later clicks are a single atomic add, so increments are lock-free and stale slots never need clearing.
+ */
+public final class ClickHistogram {
+
+    public static final int MINUTES = 24 * 60;
+
+    private static final long COUNT_MASK = 0xFFFFFFFFL;
+
+    private final AtomicLongArray slots = new AtomicLongArray(MINUTES);
+
+    public void increment(long epochMinute) {
+        int index = index(epochMinute);
+        long current = slots.get(index);
+        while ((current >>> 32) != epochMinute) {
+            // Slot still counts an older minute, reset it to one click of this minute
+            if (slots.compareAndSet(index, current, (epochMinute << 32) | 1)) {
+                return;
+            }
+            current = slots.get(index);
+        }
+        slots.getAndIncrement(index);
+    }
+
+    /**
+     * Clicks in the given minute, 0 once it is more than 24 hours old
+     */
+    public long count(long epochMinute) {
+        long slot = slots.get(index(epochMinute));
+        return (slot >>> 32) == epochMinute ? slot & COUNT_MASK : 0;
+    }
+
+    private static int index(long epochMinute) {
+        return (int) (epochMinute % MINUTES);
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.vladproduction.fewster.click;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live per-minute click histograms of the links clicked on this node, kept in memory only.
+ * A {@link ClickHistogram} is allocated on the first click of a link, links without clicks for
+ * click.live.idleMinutes are evicted, and at most click.live.maxLinks are tracked
+ * (the cache admits by frequency, so hot links win over one-off clicks).
+ * Every node counts its own redirects.
+ */
+@Component
+public class ClickHistogramRegistry implements MeterBinder {
+
+    private final boolean enabled;
+    // url id -> histogram
+    private final Cache<Long, ClickHistogram> histograms;
+
+    public ClickHistogramRegistry(@Value("${click.live.enabled}") boolean enabled,
+                                  @Value("${click.live.maxLinks}") long maxLinks,
+                                  @Value("${click.live.idleMinutes}") long idleMinutes) {
+        this.enabled = enabled;
+        this.histograms = Caffeine.newBuilder()
+                .maximumSize(maxLinks)
+                .expireAfterAccess(Duration.ofMinutes(idleMinutes))
+                .recordStats()
+                .build();
+    }
+
+    public void record(Long urlId) {
+        if (!enabled) {
+            return;
+        }
+        histograms.get(urlId, id -> new ClickHistogram())
+                .increment(TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis()));
+    }
+
+    /**
+     * Histogram of the url, empty when it had no recent clicks on this node
+     * Reading does not count as access, a link that is only watched still expires
+     */
+    public Optional<ClickHistogram> find(Long urlId) {
+        return Optional.ofNullable(histograms.policy().getIfPresentQuietly(urlId));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, histograms, "live_clicks");
+    }
+
+}
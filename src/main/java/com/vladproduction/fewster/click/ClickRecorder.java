@@ -0,0 +1,50 @@
+package com.vladproduction.fewster.click;
+
+import com.vladproduction.fewster.cache.BloomFilter;
+import com.vladproduction.fewster.cache.HotLinkTracker;
+import org.springframework.stereotype.Component;
+
+/**
+ * Everything a redirect records about a click, shared by the servlet redirect path
+ * and the reactive redirect tier so both feed the same counters and trackers.
+ * Memory only and never blocking: the count, the event and the visitor sketch are persisted
+ * in batches by their flushers, the live histogram and the hot link ranking stay on this node.
+ * A tier without a writer for events or sketches disables them (click.events.enabled, visitors.enabled).
+ */
+@Component
+public class ClickRecorder {
+
+    private final ClickCountBuffer clickCountBuffer;
+    private final ClickEventBuffer clickEventBuffer;
+    private final ClickHistogramRegistry clickHistogramRegistry;
+    private final HotLinkTracker hotLinkTracker;
+    private final VisitorSketchBuffer visitorSketchBuffer;
+
+    public ClickRecorder(ClickCountBuffer clickCountBuffer, ClickEventBuffer clickEventBuffer,
+                         ClickHistogramRegistry clickHistogramRegistry, HotLinkTracker hotLinkTracker,
+                         VisitorSketchBuffer visitorSketchBuffer) {
+        this.clickCountBuffer = clickCountBuffer;
+        this.clickEventBuffer = clickEventBuffer;
+        this.clickHistogramRegistry = clickHistogramRegistry;
+        this.hotLinkTracker = hotLinkTracker;
+        this.visitorSketchBuffer = visitorSketchBuffer;
+    }
+
+    /**
+     * Record one click on the url, referrer, user agent and client address may be null
+     */
+    public void record(Long urlId, String shortCode, String referrer, String userAgent, String clientAddress) {
+        // Count the click in memory, it is persisted in batches by ClickCountFlusher
+        clickCountBuffer.increment(urlId);
+        // Never blocks, the event is shed when the writer falls behind
+        clickEventBuffer.offer(new ClickEvent(urlId, System.currentTimeMillis(), referrer, userAgent));
+        // Live per-minute view, memory only
+        clickHistogramRegistry.record(urlId);
+        hotLinkTracker.record(shortCode);
+        // Only the hash of the visitor key reaches the sketch, the address itself is never kept
+        if (clientAddress != null) {
+            visitorSketchBuffer.record(urlId, BloomFilter.hash64(clientAddress + '|' + (userAgent != null ? userAgent : "")));
+        }
+    }
+
+}
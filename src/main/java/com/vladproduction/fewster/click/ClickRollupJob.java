@@ -0,0 +1,142 @@
+package com.vladproduction.fewster.click;
+
+import com.vladproduction.fewster.dto.StatsGranularity;
+import com.vladproduction.fewster.repository.ClickRollupRepository;
+import com.vladproduction.fewster.repository.ClickRollupRepository.Bucket;
+import com.vladproduction.fewster.repository.ClickRollupRepository.Scope;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Folds new click_event rows into the hourly and daily rollups per url and per user.
+ * Progress is the click_rollup_checkpoint row: every run locks it, aggregates the events after
+ * last_event_id with one GROUP BY query, adds the counts to the rollups and advances the checkpoint,
+ * all in one transaction, so a crash or restart never counts an event twice or skips one,
+ * and runs on several nodes take turns.
+ * A run folds events up to the highest id seen by the previous run (not the current one):
+ * event batches commit out of id order across nodes, the lag gives them one interval to land.
+ * Events of urls deleted meanwhile are skipped (the rollups of a url are deleted with it).
+ */
+@Slf4j
+@Component
+public class ClickRollupJob {
+
+    private static final String CHECKPOINT = "click_event";
+
+    private static final String LOCK_CHECKPOINT_SQL = "SELECT last_event_id, seen_event_id FROM click_rollup_checkpoint "
+            + "WHERE name = ? FOR UPDATE";
+    private static final String UPDATE_CHECKPOINT_SQL = "UPDATE click_rollup_checkpoint "
+            + "SET last_event_id = ?, seen_event_id = ? WHERE name = ?";
+    private static final String MAX_EVENT_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM click_event";
+    // Hour buckets in SQL that MySQL and H2 both understand, the url join picks up the owner
+    private static final String AGGREGATE_SQL = "SELECT e.url_id, u.user_id, CAST(e.clicked_at AS DATE) AS click_day, "
+            + "EXTRACT(HOUR FROM e.clicked_at) AS click_hour, COUNT(*) AS clicks "
+            + "FROM click_event e JOIN url u ON u.id = e.url_id "
+            + "WHERE e.id > ? AND e.id <= ? "
+            + "GROUP BY e.url_id, u.user_id, CAST(e.clicked_at AS DATE), EXTRACT(HOUR FROM e.clicked_at)";
+
+    @Value("${click.rollup.enabled}")
+    private boolean enabled;
+
+    @Value("${click.rollup.maxEventsPerRun}")
+    private long maxEventsPerRun;
+
+    private final ClickRollupRepository clickRollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ClickRollupJob(ClickRollupRepository clickRollupRepository, JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate) {
+        this.clickRollupRepository = clickRollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Fold everything the checkpoint allows, in runs of at most click.rollup.maxEventsPerRun event ids
+     */
+    @Scheduled(fixedDelayString = "${click.rollup.intervalMillis}")
+    public synchronized void rollUp() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            RunResult result;
+            do {
+                result = transactionTemplate.execute(status -> rollUpNext());
+                if (result.events() > 0) {
+                    log.debug("Rolled up {} click events up to id {}", result.events(), result.lastEventId());
+                }
+            } while (result.capped());
+        } catch (DataAccessException e) {
+            log.error("Failed to roll up click events, will retry on next run", e);
+        }
+    }
+
+    private RunResult rollUpNext() {
+        Checkpoint checkpoint = jdbcTemplate.queryForObject(LOCK_CHECKPOINT_SQL,
+                (rs, rowNum) -> new Checkpoint(rs.getLong("last_event_id"), rs.getLong("seen_event_id")), CHECKPOINT);
+        long upTo = Math.min(checkpoint.seenEventId(), checkpoint.lastEventId() + maxEventsPerRun);
+
+        long events = 0;
+        if (upTo > checkpoint.lastEventId()) {
+            events = addClicks(checkpoint.lastEventId(), upTo);
+        }
+
+        Long maxEventId = jdbcTemplate.queryForObject(MAX_EVENT_ID_SQL, Long.class);
+        long seenEventId = Math.max(checkpoint.seenEventId(), maxEventId == null ? 0 : maxEventId);
+        jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, upTo, seenEventId, CHECKPOINT);
+        return new RunResult(events, upTo, upTo < checkpoint.seenEventId());
+    }
+
+    // Aggregate the events in (afterId, upToId] and add them to the four rollups, returns the number of events
+    private long addClicks(long afterId, long upToId) {
+        Map<Bucket, Long> urlHours = new HashMap<>();
+        Map<Bucket, Long> urlDays = new HashMap<>();
+        Map<Bucket, Long> userHours = new HashMap<>();
+        Map<Bucket, Long> userDays = new HashMap<>();
+
+        List<HourClicks> hours = jdbcTemplate.query(AGGREGATE_SQL, (rs, rowNum) -> new HourClicks(
+                rs.getLong("url_id"), rs.getLong("user_id"),
+                rs.getDate("click_day").toLocalDate().atTime(rs.getInt("click_hour"), 0),
+                rs.getLong("clicks")), afterId, upToId);
+
+        long events = 0;
+        for (HourClicks hour : hours) {
+            LocalDateTime day = StatsGranularity.DAY.bucketStart(hour.hourStart());
+            urlHours.merge(new Bucket(hour.urlId(), hour.hourStart()), hour.clicks(), Long::sum);
+            urlDays.merge(new Bucket(hour.urlId(), day), hour.clicks(), Long::sum);
+            userHours.merge(new Bucket(hour.userId(), hour.hourStart()), hour.clicks(), Long::sum);
+            userDays.merge(new Bucket(hour.userId(), day), hour.clicks(), Long::sum);
+            events += hour.clicks();
+        }
+
+        clickRollupRepository.addClicks(Scope.URL, StatsGranularity.HOUR, urlHours);
+        clickRollupRepository.addClicks(Scope.URL, StatsGranularity.DAY, urlDays);
+        clickRollupRepository.addClicks(Scope.USER, StatsGranularity.HOUR, userHours);
+        clickRollupRepository.addClicks(Scope.USER, StatsGranularity.DAY, userDays);
+        return events;
+    }
+
+    private record Checkpoint(long lastEventId, long seenEventId) {
+    }
+
+    private record HourClicks(long urlId, long userId, LocalDateTime hourStart, long clicks) {
+    }
+
+    // capped: the run stopped at maxEventsPerRun, more events are ready
+    private record RunResult(long events, long lastEventId, boolean capped) {
+    }
+
+}
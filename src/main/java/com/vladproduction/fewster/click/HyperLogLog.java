@@ -0,0 +1,143 @@
+package com.vladproduction.fewster.click;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * HyperLogLog distinct counter over 64-bit hashes with 2^11 = 2048 one-byte registers:
+ * 2 KB per sketch whatever the cardinality, relative standard error 1.04 / sqrt(2048) = 2.3%
+ * (estimates are within 4.6% of the true count about 95% of the time).
+ * Registers are packed four per int and raised with a CAS, so adds are lock-free,
+ * and a hash that does not raise its register (every repeat visitor) is a plain read.
+ * Sketches merge by taking the register maximum, so merging is idempotent and any number of
+ * sketches (days, nodes) combine into the sketch of their union.
+ */
+public final class HyperLogLog {
+
+    public static final int PRECISION = 11;
+    public static final int REGISTERS = 1 << PRECISION;
+    public static final double RELATIVE_STANDARD_ERROR = 1.04 / Math.sqrt(REGISTERS);
+
+    // Serialized forms: dense is every register, sparse is (index, value) of the non-zero ones
+    private static final byte DENSE = 0;
+    private static final byte SPARSE = 1;
+    private static final int SPARSE_ENTRY_BYTES = 3;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final AtomicIntegerArray words = new AtomicIntegerArray(REGISTERS / 4);
+
+    /**
+     * Add a well mixed 64-bit hash, returns true when a register was raised (the sketch changed)
+     */
+    public boolean add(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // position of the first 1 bit in the remaining bits, the sentinel bit caps it at 64 - PRECISION + 1
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        return raise(index, rank);
+    }
+
+    /**
+     * Fold the other sketch into this one, this becomes the sketch of the union
+     */
+    public void merge(HyperLogLog other) {
+        for (int index = 0; index < REGISTERS; index++) {
+            int value = other.register(index);
+            if (value > 0) {
+                raise(index, value);
+            }
+        }
+    }
+
+    /**
+     * Estimated number of distinct hashes added
+     */
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int index = 0; index < REGISTERS; index++) {
+            int value = register(index);
+            sum += 1.0 / (1L << value);
+            if (value == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        // Small cardinalities: linear counting over the empty registers is more accurate
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Compact binary form, sparse while few registers are set: at most 1 + REGISTERS bytes
+     */
+    public byte[] toBytes() {
+        int nonZero = 0;
+        for (int index = 0; index < REGISTERS; index++) {
+            if (register(index) > 0) {
+                nonZero++;
+            }
+        }
+
+        if (nonZero * SPARSE_ENTRY_BYTES < REGISTERS) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 + nonZero * SPARSE_ENTRY_BYTES).put(SPARSE);
+            for (int index = 0; index < REGISTERS; index++) {
+                int value = register(index);
+                if (value > 0) {
+                    buffer.putShort((short) index).put((byte) value);
+                }
+            }
+            return buffer.array();
+        }
+
+        byte[] bytes = new byte[1 + REGISTERS];
+        bytes[0] = DENSE;
+        for (int index = 0; index < REGISTERS; index++) {
+            bytes[1 + index] = (byte) register(index);
+        }
+        return bytes;
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte format = buffer.get();
+        if (format == SPARSE) {
+            while (buffer.hasRemaining()) {
+                sketch.raise(buffer.getShort(), buffer.get());
+            }
+        } else if (format == DENSE && bytes.length == 1 + REGISTERS) {
+            for (int index = 0; index < REGISTERS; index++) {
+                sketch.raise(index, bytes[1 + index]);
+            }
+        } else {
+            throw new IllegalArgumentException("Not a serialized sketch of " + REGISTERS + " registers");
+        }
+        return sketch;
+    }
+
+    int register(int index) {
+        return (words.get(index >>> 2) >>> shift(index)) & 0xFF;
+    }
+
+    private boolean raise(int index, int value) {
+        int wordIndex = index >>> 2;
+        int shift = shift(index);
+        int word = words.get(wordIndex);
+        while (((word >>> shift) & 0xFF) < value) {
+            int raised = (word & ~(0xFF << shift)) | (value << shift);
+            if (words.compareAndSet(wordIndex, word, raised)) {
+                return true;
+            }
+            word = words.get(wordIndex);
+        }
+        return false;
+    }
+
+    private static int shift(int index) {
+        return (index & 3) * 8;
+    }
+
+}
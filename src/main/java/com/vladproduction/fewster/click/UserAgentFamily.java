@@ -0,0 +1,44 @@
+package com.vladproduction.fewster.click;
+
+/**
+ * Coarse user agent classification stored with click events, a small fixed set of values
+ * instead of the raw header (which is unbounded and close to unique per client)
+ */
+public enum UserAgentFamily {
+
+    BOT, EDGE, OPERA, CHROME, FIREFOX, SAFARI, CLI, OTHER, UNKNOWN;
+
+    /**
+     * Family of the User-Agent header value, order matters since most browsers also claim to be others
+     * (Edge and Opera send "Chrome/", Chrome sends "Safari/")
+     */
+    public static UserAgentFamily of(String userAgent) {
+        if (userAgent == null || userAgent.isBlank()) {
+            return UNKNOWN;
+        }
+        String agent = userAgent.toLowerCase();
+        if (agent.contains("bot") || agent.contains("crawler") || agent.contains("spider") || agent.contains("preview")) {
+            return BOT;
+        }
+        if (agent.contains("edg/")) {
+            return EDGE;
+        }
+        if (agent.contains("opr/")) {
+            return OPERA;
+        }
+        if (agent.contains("chrome/") || agent.contains("crios/")) {
+            return CHROME;
+        }
+        if (agent.contains("firefox/") || agent.contains("fxios/")) {
+            return FIREFOX;
+        }
+        if (agent.contains("safari/")) {
+            return SAFARI;
+        }
+        if (agent.startsWith("curl/") || agent.startsWith("wget/") || agent.startsWith("python") || agent.startsWith("java")) {
+            return CLI;
+        }
+        return OTHER;
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.vladproduction.fewster.click;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Unique visitor sketches ({@link HyperLogLog}) per url and day that have not been merged into
+ * url_visitor_sketch yet, drained periodically by {@link VisitorSketchFlusher}.
+ * A sketch is only flushed when a new visitor changed it, and removed after it stayed unchanged
+ * for a few flushes, so memory holds the links clicked recently: at most
+ * visitors.buffer.maxSketches sketches of 2 KB, new links are not tracked until a flush frees room.
+ * Merging is idempotent, a sketch written twice counts its visitors once.
+ */
+@Component
+public class VisitorSketchBuffer implements MeterBinder {
+
+    // Sketch must stay unchanged for this many flushes before it is removed from the map
+    private static final int IDLE_FLUSHES_BEFORE_REMOVAL = 2;
+
+    /**
+     * Sketch of the url's visitors on one day, as drained for writing
+     */
+    public record Pending(long urlId, LocalDate day, HyperLogLog sketch) {
+    }
+
+    private record Key(long urlId, LocalDate day) {
+    }
+
+    private final boolean enabled;
+    private final int maxSketches;
+    private final ConcurrentHashMap<Key, Sketch> sketches = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    // Sketches removed by the previous drain, a visitor that raced with the removal is picked up by the next one
+    private List<Map.Entry<Key, Sketch>> retired = new ArrayList<>();
+
+    public VisitorSketchBuffer(@Value("${visitors.enabled}") boolean enabled,
+                               @Value("${visitors.buffer.maxSketches}") int maxSketches) {
+        this.enabled = enabled;
+        this.maxSketches = maxSketches;
+    }
+
+    /**
+     * Record a visit of the url today, visitorHash is a 64-bit hash of what identifies the visitor
+     */
+    public void record(Long urlId, long visitorHash) {
+        if (!enabled) {
+            return;
+        }
+        Key key = new Key(urlId, LocalDate.now());
+        Sketch sketch = sketches.get(key);
+        if (sketch == null) {
+            if (sketches.size() >= maxSketches) {
+                dropped.increment();
+                return;
+            }
+            sketch = sketches.computeIfAbsent(key, k -> new Sketch());
+        }
+        if (sketch.registers.add(visitorHash)) {
+            sketch.changed = true;
+        }
+    }
+
+    /**
+     * Sketches changed since the previous drain, to be merged into the stored ones
+     * The same sketch objects stay in the buffer, {@link #restore(List)} is only needed when writing failed
+     */
+    public synchronized List<Pending> drain() {
+        List<Pending> pending = new ArrayList<>();
+        for (Map.Entry<Key, Sketch> entry : retired) {
+            if (entry.getValue().changed) {
+                pending.add(new Pending(entry.getKey().urlId(), entry.getKey().day(), entry.getValue().registers));
+            }
+        }
+        retired = new ArrayList<>();
+
+        for (Map.Entry<Key, Sketch> entry : sketches.entrySet()) {
+            Sketch sketch = entry.getValue();
+            // Cleared before reading, a visitor added meanwhile marks it again for the next drain
+            if (sketch.changed) {
+                sketch.changed = false;
+                sketch.idleFlushes = 0;
+                pending.add(new Pending(entry.getKey().urlId(), entry.getKey().day(), sketch.registers));
+            } else if (++sketch.idleFlushes >= IDLE_FLUSHES_BEFORE_REMOVAL && sketches.remove(entry.getKey(), sketch)) {
+                retired.add(entry);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Drained sketches could not be written, mark them to be written again on next flush
+     */
+    public synchronized void restore(List<Pending> pending) {
+        for (Pending sketch : pending) {
+            sketches.computeIfAbsent(new Key(sketch.urlId(), sketch.day()), key -> new Sketch())
+                    .restore(sketch.sketch());
+        }
+    }
+
+    /**
+     * Number of url days with a sketch in memory
+     */
+    public int depth() {
+        return sketches.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("fewster.visitors.buffer.depth", this, VisitorSketchBuffer::depth)
+                .description("Url days with a unique visitor sketch in memory")
+                .register(registry);
+        FunctionCounter.builder("fewster.visitors.dropped", dropped, LongAdder::sum)
+                .description("Visits not counted as unique visitors because the buffer was full")
+                .register(registry);
+    }
+
+    private static final class Sketch {
+        private final HyperLogLog registers = new HyperLogLog();
+        // a visitor raised a register since the last drain
+        private volatile boolean changed;
+        // only touched by drain() which is synchronized
+        private int idleFlushes;
+
+        private void restore(HyperLogLog drained) {
+            if (drained != registers) {
+                registers.merge(drained);
+            }
+            changed = true;
+        }
+    }
+
+}
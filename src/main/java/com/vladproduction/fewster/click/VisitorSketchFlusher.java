@@ -0,0 +1,105 @@
+package com.vladproduction.fewster.click;
+
+import com.vladproduction.fewster.click.VisitorSketchBuffer.Pending;
+import com.vladproduction.fewster.repository.VisitorSketchRepository;
+import com.vladproduction.fewster.repository.VisitorSketchRepository.UrlDay;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Merges the sketches of {@link VisitorSketchBuffer} into url_visitor_sketch: per chunk of
+ * visitors.flush.batchSize url days, the stored rows are read and locked with one query, merged with
+ * the buffered sketches in memory and written back with one update batch and one insert batch.
+ * Merging takes register maxima, so a retry after a failure, or the same url day flushed by
+ * several nodes, never counts a visitor twice.
+ */
+@Slf4j
+@Component
+public class VisitorSketchFlusher {
+
+    @Value("${visitors.flush.batchSize}")
+    private int batchSize;
+
+    private final VisitorSketchBuffer visitorSketchBuffer;
+    private final VisitorSketchRepository visitorSketchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public VisitorSketchFlusher(VisitorSketchBuffer visitorSketchBuffer, VisitorSketchRepository visitorSketchRepository,
+                                TransactionTemplate transactionTemplate) {
+        this.visitorSketchBuffer = visitorSketchBuffer;
+        this.visitorSketchRepository = visitorSketchRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${visitors.flush.intervalMillis}")
+    public synchronized void flush() {
+        List<Pending> pending = visitorSketchBuffer.drain();
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Ordered by key so concurrent flushes from several nodes lock rows in the same order
+        pending.sort((a, b) -> a.urlId() != b.urlId() ? Long.compare(a.urlId(), b.urlId()) : a.day().compareTo(b.day()));
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<Pending> chunk = pending.subList(from, Math.min(from + batchSize, pending.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> merge(chunk));
+            } catch (DataAccessException e) {
+                visitorSketchBuffer.restore(chunk);
+                log.error("Failed to write {} visitor sketches, will retry on next flush", chunk.size(), e);
+            }
+        }
+        log.debug("Flushed visitor sketches for {} url days", pending.size());
+    }
+
+    private void merge(List<Pending> chunk) {
+        Set<Long> urlIds = new TreeSet<>();
+        Set<LocalDate> days = new TreeSet<>();
+        chunk.forEach(sketch -> {
+            urlIds.add(sketch.urlId());
+            days.add(sketch.day());
+        });
+        Map<UrlDay, byte[]> stored = visitorSketchRepository.lockSketches(urlIds, days);
+
+        List<Map.Entry<UrlDay, byte[]>> updates = new ArrayList<>();
+        List<Map.Entry<UrlDay, byte[]>> inserts = new ArrayList<>();
+        for (Pending sketch : chunk) {
+            UrlDay key = new UrlDay(sketch.urlId(), sketch.day());
+            byte[] storedRegisters = stored.get(key);
+            if (storedRegisters == null) {
+                inserts.add(Map.entry(key, sketch.sketch().toBytes()));
+            } else {
+                // Merge into a copy, the buffered sketch keeps counting only this node's visitors
+                HyperLogLog merged = HyperLogLog.fromBytes(storedRegisters);
+                merged.merge(sketch.sketch());
+                updates.add(Map.entry(key, merged.toBytes()));
+            }
+        }
+        if (!updates.isEmpty()) {
+            visitorSketchRepository.updateAll(updates);
+        }
+        if (!inserts.isEmpty()) {
+            visitorSketchRepository.insertAll(inserts);
+        }
+    }
+
+    // Write whatever is still buffered when the application shuts down
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Writing buffered visitor sketches before shutdown");
+        flush();
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.vladproduction.fewster.controller.rest;
+
+import com.vladproduction.fewster.cache.HotLinkTracker;
+import com.vladproduction.fewster.cache.RedirectCache;
+import com.vladproduction.fewster.cache.ShortCodeBloomFilter;
+import com.vladproduction.fewster.cache.UserLookupCache;
+import com.vladproduction.fewster.dto.BloomFilterStatsDTO;
+import com.vladproduction.fewster.dto.CacheStatsDTO;
+import com.vladproduction.fewster.dto.HotLinksDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin")
+public class AdminRestController {
+
+    private final RedirectCache redirectCache;
+    private final ShortCodeBloomFilter shortCodeBloomFilter;
+    private final UserLookupCache userLookupCache;
+    private final HotLinkTracker hotLinkTracker;
+
+    public AdminRestController(RedirectCache redirectCache, ShortCodeBloomFilter shortCodeBloomFilter,
+                               UserLookupCache userLookupCache, HotLinkTracker hotLinkTracker) {
+        this.redirectCache = redirectCache;
+        this.shortCodeBloomFilter = shortCodeBloomFilter;
+        this.userLookupCache = userLookupCache;
+        this.hotLinkTracker = hotLinkTracker;
+    }
+
+    /**
+     * Get hit/miss/eviction statistics of the redirect cache
+     * GET: <a href="http://localhost:8080/api/v1/admin/redirect-cache">...</a>
+     */
+    @GetMapping("/redirect-cache")
+    public ResponseEntity<CacheStatsDTO> getRedirectCacheStats() {
+        log.info("Received request to get redirect cache statistics");
+        return ResponseEntity.ok(redirectCache.getStats());
+    }
+
+    /**
+     * Get memory use and estimated false positive rate of the short code bloom filter
+     * GET: <a href="http://localhost:8080/api/v1/admin/bloom-filter">...</a>
+     */
+    @GetMapping("/bloom-filter")
+    public ResponseEntity<BloomFilterStatsDTO> getBloomFilterStats() {
+        log.info("Received request to get bloom filter statistics");
+        return ResponseEntity.ok(shortCodeBloomFilter.getStats());
+    }
+
+    /**
+     * Get hit/miss/eviction statistics of the user lookup cache (negative fields are unused)
+     * GET: <a href="http://localhost:8080/api/v1/admin/user-cache">...</a>
+     */
+    @GetMapping("/user-cache")
+    public ResponseEntity<CacheStatsDTO> getUserCacheStats() {
+        log.info("Received request to get user cache statistics");
+        return ResponseEntity.ok(userLookupCache.getStats());
+    }
+
+    /**
+     * Get the short codes redirected most on this node recently, with decayed click estimates
+     * GET: <a href="http://localhost:8080/api/v1/admin/hot-links?limit=20">...</a>
+     */
+    @GetMapping("/hot-links")
+    public ResponseEntity<HotLinksDTO> getHotLinks(@RequestParam(defaultValue = "20") int limit) {
+        log.info("Received request to get hot links");
+        return ResponseEntity.ok(hotLinkTracker.getHotLinks(limit));
+    }
+
+}
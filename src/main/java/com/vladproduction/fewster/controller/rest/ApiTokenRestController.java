@@ -0,0 +1,62 @@
+package com.vladproduction.fewster.controller.rest;
+
+import com.vladproduction.fewster.dto.ApiTokenDTO;
+import com.vladproduction.fewster.dto.ApiTokenRequestDTO;
+import com.vladproduction.fewster.service.ApiTokenService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/token")
+public class ApiTokenRestController {
+
+    private final ApiTokenService apiTokenService;
+
+    public ApiTokenRestController(ApiTokenService apiTokenService) {
+        this.apiTokenService = apiTokenService;
+    }
+
+    /**
+     * Issue a personal API token, use it as "Authorization: Bearer {token}" on /api/v1/url/**
+     * The token is only shown in this response
+     * POST: <a href="http://localhost:8080/api/v1/token">...</a> body: {"name": "ci"}
+     */
+    @PostMapping
+    public ResponseEntity<ApiTokenDTO> issueToken(@RequestBody ApiTokenRequestDTO request) {
+        log.info("Received request to issue API token: {}", request.getName());
+        ApiTokenDTO token = apiTokenService.issueToken(request.getName());
+        return ResponseEntity.status(HttpStatus.CREATED).body(token);
+    }
+
+    /**
+     * Get API tokens of the current user (without the token values)
+     * GET: <a href="http://localhost:8080/api/v1/token">...</a>
+     */
+    @GetMapping
+    public ResponseEntity<List<ApiTokenDTO>> getTokens() {
+        return ResponseEntity.ok(apiTokenService.getTokensForCurrentUser());
+    }
+
+    /**
+     * Revoke an API token of the current user
+     * DELETE: <a href="http://localhost:8080/api/v1/token/{id}">...</a>
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> revokeToken(@PathVariable Long id) {
+        log.info("Received request to revoke API token with ID: {}", id);
+        apiTokenService.revokeToken(id);
+        return ResponseEntity.noContent().build();
+    }
+
+}
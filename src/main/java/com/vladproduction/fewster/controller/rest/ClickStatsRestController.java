@@ -0,0 +1,73 @@
+package com.vladproduction.fewster.controller.rest;
+
+import com.vladproduction.fewster.dto.ClickStatsDTO;
+import com.vladproduction.fewster.dto.StatsGranularity;
+import com.vladproduction.fewster.dto.UniqueVisitorsDTO;
+import com.vladproduction.fewster.service.ClickStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/url")
+public class ClickStatsRestController {
+
+    private final ClickStatsService clickStatsService;
+
+    public ClickStatsRestController(ClickStatsService clickStatsService) {
+        this.clickStatsService = clickStatsService;
+    }
+
+    /**
+     * Clicks of all URLs of the current user per day (default) or hour, over the last days (default 30)
+     * GET: <a href="http://localhost:8080/api/v1/url/stats?granularity=day|hour&days=30">...</a>
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ClickStatsDTO> getMyStats(@RequestParam(required = false) String granularity,
+                                                    @RequestParam(required = false) Integer days) {
+        log.info("Received request to get click stats of current user");
+        return ResponseEntity.ok(clickStatsService.getStatsForCurrentUser(StatsGranularity.fromParam(granularity), days));
+    }
+
+    /**
+     * Clicks of a URL (only if it belongs to current user) per day (default) or hour, over the last days (default 30)
+     * GET: <a href="http://localhost:8080/api/v1/url/{urlID}/stats?granularity=day|hour&days=30">...</a>
+     */
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<ClickStatsDTO> getUrlStats(@PathVariable Long id,
+                                                     @RequestParam(required = false) String granularity,
+                                                     @RequestParam(required = false) Integer days) {
+        log.info("Received request to get click stats of URL with ID: {}", id);
+        return ResponseEntity.ok(clickStatsService.getUrlStats(id, StatsGranularity.fromParam(granularity), days));
+    }
+
+    /**
+     * Live clicks of a URL (only if it belongs to current user) per minute over the last minutes (default 60, at most 1440),
+     * counted in memory by the node serving the request
+     * GET: <a href="http://localhost:8080/api/v1/url/{urlID}/stats/live?minutes=60">...</a>
+     */
+    @GetMapping("/{id}/stats/live")
+    public ResponseEntity<ClickStatsDTO> getLiveUrlStats(@PathVariable Long id,
+                                                         @RequestParam(required = false) Integer minutes) {
+        log.info("Received request to get live click stats of URL with ID: {}", id);
+        return ResponseEntity.ok(clickStatsService.getLiveUrlStats(id, minutes));
+    }
+
+    /**
+     * Estimated distinct visitors of a URL (only if it belongs to current user) over the last days (default 30, at most 366),
+     * a visitor being a client address and User-Agent pair
+     * GET: <a href="http://localhost:8080/api/v1/url/{urlID}/stats/unique?days=30">...</a>
+     */
+    @GetMapping("/{id}/stats/unique")
+    public ResponseEntity<UniqueVisitorsDTO> getUniqueVisitors(@PathVariable Long id,
+                                                               @RequestParam(required = false) Integer days) {
+        log.info("Received request to get unique visitors of URL with ID: {}", id);
+        return ResponseEntity.ok(clickStatsService.getUniqueVisitors(id, days));
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.vladproduction.fewster.controller.rest;
+
+import com.vladproduction.fewster.dto.ExportFormat;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.security.AuthService;
+import com.vladproduction.fewster.service.UrlExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/url/export")
+public class UrlExportRestController {
+
+    private final UrlExportService urlExportService;
+    private final AuthService authService;
+
+    public UrlExportRestController(UrlExportService urlExportService, AuthService authService) {
+        this.urlExportService = urlExportService;
+        this.authService = authService;
+    }
+
+    /**
+     * Download all URLs of the current user with click counts, streamed row by row
+     * GET: <a href="http://localhost:8080/api/v1/url/export?format=ndjson|csv&gzip=true">...</a>
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(required = false) String format,
+                                                        @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        // Resolved on the request thread, the body is written later by an async dispatch
+        User currentUser = authService.getCurrentUser();
+        log.info("Received request to export URLs of user: {} as {}, gzip: {}", currentUser.getUsername(), exportFormat, gzip);
+
+        String filename = "urls." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024);
+                urlExportService.exportUrls(currentUser.getId(), exportFormat, gzipOut);
+                gzipOut.finish();
+            } else {
+                urlExportService.exportUrls(currentUser.getId(), exportFormat, out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.vladproduction.fewster.controller.rest;
+
+import com.vladproduction.fewster.dto.ImportJobDTO;
+import com.vladproduction.fewster.service.UrlImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/url/import")
+public class UrlImportRestController {
+
+    private final UrlImportService urlImportService;
+
+    public UrlImportRestController(UrlImportService urlImportService) {
+        this.urlImportService = urlImportService;
+    }
+
+    /**
+     * Start importing a CSV file of "original_url[,custom_code]" lines, runs in the background
+     * Pass resumeJobId with the same file to continue an interrupted or failed import after its last committed line
+     * POST: <a href="http://localhost:8080/api/v1/url/import">...</a> multipart: file, resumeJobId (optional)
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> startImport(@RequestParam("file") MultipartFile file,
+                                                    @RequestParam(required = false) Long resumeJobId) {
+        log.info("Received request to import file: {} ({} bytes), resume job: {}", file.getOriginalFilename(), file.getSize(), resumeJobId);
+        ImportJobDTO job = urlImportService.startImport(file, resumeJobId);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    /**
+     * Get progress of an import job of the current user
+     * GET: <a href="http://localhost:8080/api/v1/url/import/{id}">...</a>
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportJobDTO> getImportJob(@PathVariable Long id) {
+        ImportJobDTO job = urlImportService.getImportJob(id);
+        return ResponseEntity.ok(job);
+    }
+
+}
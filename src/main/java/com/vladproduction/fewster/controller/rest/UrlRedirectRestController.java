@@ -1,11 +1,13 @@
 package com.vladproduction.fewster.controller.rest;
 
 import com.vladproduction.fewster.service.UrlService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -16,9 +18,6 @@ import java.io.IOException;
 @RequestMapping("/r")
 public class UrlRedirectRestController {
 
-    @Value("${base.url.prefix}")
-    private String baseUrl;
-
     private final UrlService urlService;
 
     public UrlRedirectRestController(UrlService urlService) {
@@ -30,9 +29,13 @@ public class UrlRedirectRestController {
      * GET: <a href="http://localhost:8080/r/{shortCode}">...</a>
      */
     @GetMapping("/{shortCode}")
-    public void redirect(@PathVariable String shortCode, HttpServletResponse response) throws IOException {
+    public void redirect(@PathVariable String shortCode,
+                         @RequestHeader(value = HttpHeaders.REFERER, required = false) String referrer,
+                         @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
         log.info("Received request to redirect for short code: {}", shortCode);
-        String originalUrl = urlService.getOriginalByShortUrl(baseUrl + shortCode);
+        String originalUrl = urlService.resolveRedirect(shortCode, referrer, userAgent, request.getRemoteAddr())
+                .orElseThrow(() -> new RuntimeException("Original URL not found by short: " + shortCode));
         log.info("Redirecting to original URL: {} from this short code: {}", originalUrl, shortCode);
         response.sendRedirect(originalUrl);
     }
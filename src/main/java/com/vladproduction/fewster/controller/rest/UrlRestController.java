@@ -1,12 +1,18 @@
 package com.vladproduction.fewster.controller.rest;
 
+import com.vladproduction.fewster.dto.BatchCreateResultDTO;
 import com.vladproduction.fewster.dto.UrlDTO;
+import com.vladproduction.fewster.dto.UrlPageDTO;
+import com.vladproduction.fewster.dto.UrlSort;
 import com.vladproduction.fewster.service.UrlService;
+import com.vladproduction.fewster.utility.GlobalUtility;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -15,30 +21,48 @@ import java.util.List;
 public class UrlRestController {
 
     private final UrlService urlService;
+    private final GlobalUtility globalUtility;
 
-    public UrlRestController(UrlService urlService) {
+    public UrlRestController(UrlService urlService, GlobalUtility globalUtility) {
         this.urlService = urlService;
+        this.globalUtility = globalUtility;
     }
 
     /**
-     * Create a new short URL for the current user
-     * POST: <a href="http://localhost:8080/api/v1/url?urlText={provide potential url for create and save}">...</a>
+     * Create a new short URL for the current user, optionally expiring at the given local date-time (ISO-8601)
+     * POST: <a href="http://localhost:8080/api/v1/url?urlText={provide potential url for create and save}&expiresAt=2030-01-01T00:00:00">...</a>
      */
     @PostMapping
-    public ResponseEntity<UrlDTO> create(@RequestParam String urlText) {
+    public ResponseEntity<UrlDTO> create(@RequestParam String urlText,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime expiresAt) {
         log.info("Received request to create short URL for: {}", urlText);
-        UrlDTO createdUrl = urlService.create(urlText, false);
+        UrlDTO createdUrl = urlService.create(urlText, false, expiresAt);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdUrl);
     }
 
     /**
-     * Get all URLs for the current authenticated user
-     * GET: <a href="http://localhost:8080/api/v1/url/my-urls">...</a>
+     * Create short URLs for a JSON array of urls in one request (per-item results, duplicates resolved to existing links)
+     * POST: <a href="http://localhost:8080/api/v1/url/batch">...</a> body: ["https://a.com", "https://b.com"]
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchCreateResultDTO> createBatch(@RequestBody List<String> urlTexts) {
+        log.info("Received request to create batch of {} short URLs", urlTexts.size());
+        BatchCreateResultDTO result = urlService.createBatch(urlTexts);
+        return ResponseEntity.ok(result);
+    }
+
+    /**
+     * Get a page of URLs for the current authenticated user, sorted by created (default) or clicks, newest/most first
+     * Next page is requested with the nextCursor of the previous response
+     * GET: <a href="http://localhost:8080/api/v1/url/my-urls?sort=created&size=20&cursor={nextCursor}">...</a>
      */
     @GetMapping("/my-urls")
-    public ResponseEntity<List<UrlDTO>> getMyUrls() {
-        log.info("Received request to get all URLs for current user");
-        List<UrlDTO> userUrls = urlService.getAllUrlsForCurrentUser();
+    public ResponseEntity<UrlPageDTO> getMyUrls(@RequestParam(required = false) String sort,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer size) {
+        log.info("Received request to get URLs page for current user");
+        UrlPageDTO userUrls = urlService.getUrlsForCurrentUser(UrlSort.fromParam(sort), cursor, size);
         return ResponseEntity.ok(userUrls);
     }
 
@@ -64,6 +88,19 @@ public class UrlRestController {
         return ResponseEntity.ok(updatedUrl);
     }
 
+    /**
+     * Set when a URL (only if it belongs to current user) expires, without expiresAt it never expires
+     * PUT: <a href="http://localhost:8080/api/v1/url/{urlID}/expiry?expiresAt=2030-01-01T00:00:00">...</a>
+     */
+    @PutMapping("/{id}/expiry")
+    public ResponseEntity<UrlDTO> updateExpiry(@PathVariable Long id,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime expiresAt) {
+        log.info("Received request to set expiry of URL with ID: {} to {}", id, expiresAt);
+        UrlDTO updatedUrl = urlService.updateExpiry(id, expiresAt);
+        return ResponseEntity.ok(updatedUrl);
+    }
+
     /**
      * Delete a URL (only if it belongs to current user)
      * DELETE: <a href="http://localhost:8080/api/v1/url/{urlID}">...</a>
@@ -83,7 +120,7 @@ public class UrlRestController {
     public ResponseEntity<String> getOriginalByShortUrl(@RequestParam String shortUrl){
 
         log.info("Received request to get URL by short URL: {}", shortUrl);
-        String originalUrl = urlService.getOriginalByShortUrl(shortUrl);
+        String originalUrl = urlService.getOriginalByShortCode(globalUtility.extractShortCode(shortUrl));
         return ResponseEntity.ok(originalUrl);
 
     }
@@ -1,6 +1,10 @@
 package com.vladproduction.fewster.controller.web;
 
+import com.vladproduction.fewster.dto.StatsGranularity;
 import com.vladproduction.fewster.dto.UrlDTO;
+import com.vladproduction.fewster.dto.UrlPageDTO;
+import com.vladproduction.fewster.dto.UrlSort;
+import com.vladproduction.fewster.service.ClickStatsService;
 import com.vladproduction.fewster.service.UrlService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -10,24 +14,27 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
-
 @Slf4j
 @Controller
 @RequestMapping("/dashboard")
 public class DashboardController {
 
+    private static final int CLICK_STATS_DAYS = 30;
+
     private final UrlService urlService;
+    private final ClickStatsService clickStatsService;
 
-    public DashboardController(UrlService urlService) {
+    public DashboardController(UrlService urlService, ClickStatsService clickStatsService) {
         this.urlService = urlService;
+        this.clickStatsService = clickStatsService;
     }
 
     @GetMapping
-    public String dashboard(Model model) {
+    public String dashboard(@RequestParam(required = false) String sort,
+                            @RequestParam(required = false) String cursor,
+                            Model model) {
         try {
-            List<UrlDTO> userUrls = urlService.getAllUrlsForCurrentUser();
-            model.addAttribute("urls", userUrls);
+            addUrlsPage(model, UrlSort.fromParam(sort), cursor);
             model.addAttribute("urlDTO", new UrlDTO());
             return "dashboard/profile";
         } catch (Exception e) {
@@ -44,8 +51,7 @@ public class DashboardController {
                             Model model) {
 
         if (bindingResult.hasErrors()) {
-            List<UrlDTO> userUrls = urlService.getAllUrlsForCurrentUser();
-            model.addAttribute("urls", userUrls);
+            addUrlsPage(model, UrlSort.CREATED, null);
             return "dashboard/profile";
         }
 
@@ -88,4 +94,18 @@ public class DashboardController {
         return "redirect:/dashboard";
     }
 
+    // One keyset page of the user's urls plus what the template needs to link the next page
+    private void addUrlsPage(Model model, UrlSort sort, String cursor) {
+        UrlPageDTO page = urlService.getUrlsForCurrentUser(sort, cursor, null);
+        model.addAttribute("urls", page.getItems());
+        model.addAttribute("sort", page.getSort());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
+        model.addAttribute("totalUrls", urlService.countUrlsForCurrentUser());
+        // From the daily rollups, not from the click_count of every url
+        model.addAttribute("recentClicks", clickStatsService
+                .getStatsForCurrentUser(StatsGranularity.DAY, CLICK_STATS_DAYS).getTotalClicks());
+        model.addAttribute("recentClicksDays", CLICK_STATS_DAYS);
+    }
+
 }
@@ -0,0 +1,18 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class ApiTokenDTO {
+
+    private Long id;
+    private String name;
+    // Raw token, only returned once when the token is created
+    private String token;
+    private LocalDateTime createdAt;
+
+}
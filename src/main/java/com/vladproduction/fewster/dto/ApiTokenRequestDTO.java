@@ -0,0 +1,12 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ApiTokenRequestDTO {
+
+    private String name;
+
+}
@@ -0,0 +1,23 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchCreateResultDTO {
+
+    private int total;
+    private int created;
+    private int existing;
+    private int failed;
+
+    private long elapsedMillis;
+    private double linksPerSecond;
+
+    // One entry per url of the request, in request order
+    private List<BatchItemResultDTO> items;
+
+}
@@ -0,0 +1,29 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BatchItemResultDTO {
+
+    public enum Status {
+        CREATED,
+        EXISTING,
+        FAILED
+    }
+
+    // Position of the url in the request array
+    private int index;
+
+    private String urlText;
+
+    private Status status;
+
+    // Set for CREATED and EXISTING
+    private UrlDTO url;
+
+    // Set for FAILED
+    private String error;
+
+}
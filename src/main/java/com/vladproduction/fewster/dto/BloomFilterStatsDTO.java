@@ -0,0 +1,23 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class BloomFilterStatsDTO {
+
+    private boolean enabled;
+    private boolean ready;
+    private long bitSize;
+    private int hashFunctions;
+    private long memoryBytes;
+    private long insertions;
+    private double estimatedFalsePositiveRate;
+    private long deletesSinceRebuild;
+    private long lastRebuildMillis;
+    private LocalDateTime lastRebuildAt;
+
+}
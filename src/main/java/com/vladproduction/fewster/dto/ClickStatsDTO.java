@@ -0,0 +1,26 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+public class ClickStatsDTO {
+
+    private String granularity;
+
+    // Start of the first bucket, inclusive
+    private LocalDateTime from;
+
+    // End of the last bucket (the current one), exclusive
+    private LocalDateTime to;
+
+    private long totalClicks;
+
+    // One point per bucket from oldest to newest, buckets without clicks included
+    private List<ClickStatsPointDTO> points;
+
+}
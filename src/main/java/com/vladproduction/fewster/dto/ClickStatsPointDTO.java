@@ -0,0 +1,21 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClickStatsPointDTO {
+
+    // Start of the hour or day
+    private LocalDateTime bucketStart;
+
+    private long clicks;
+
+}
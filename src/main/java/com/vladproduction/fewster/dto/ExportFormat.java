@@ -0,0 +1,38 @@
+package com.vladproduction.fewster.dto;
+
+/**
+ * Formats of the links export, one row per line
+ */
+public enum ExportFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat fromParam(String param) {
+        if (param == null || param.isBlank()) {
+            return NDJSON;
+        }
+        try {
+            return valueOf(param.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export format: " + param + ", expected ndjson or csv");
+        }
+    }
+
+}
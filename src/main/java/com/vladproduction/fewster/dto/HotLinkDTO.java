@@ -0,0 +1,19 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotLinkDTO {
+
+    private String shortCode;
+
+    // Decayed count, never below the true decayed count
+    private long estimatedClicks;
+
+}
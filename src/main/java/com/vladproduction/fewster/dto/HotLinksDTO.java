@@ -0,0 +1,20 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class HotLinksDTO {
+
+    private List<HotLinkDTO> links;
+
+    // Decayed clicks of all links, estimates are relative to it
+    private long totalClicks;
+
+    // Estimates exceed the true count by at most this much (with the configured probability)
+    private long maxOverestimate;
+
+}
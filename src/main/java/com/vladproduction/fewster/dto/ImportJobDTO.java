@@ -0,0 +1,28 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class ImportJobDTO {
+
+    private Long id;
+    private String filename;
+    private String status;
+
+    private long linesRead;
+    // Pass as resumeJobId with the same file to continue after this line
+    private long lastCommittedLine;
+
+    private long created;
+    private long existing;
+    private long failed;
+    private String lastError;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+}
@@ -0,0 +1,47 @@
+package com.vladproduction.fewster.dto;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket size of click statistics, each one is backed by its own rollup tables
+ */
+public enum StatsGranularity {
+
+    HOUR(ChronoUnit.HOURS, 31),
+    DAY(ChronoUnit.DAYS, 366);
+
+    private final ChronoUnit unit;
+    // Longest range one request may ask for, keeps the number of points bounded
+    private final int maxDays;
+
+    StatsGranularity(ChronoUnit unit, int maxDays) {
+        this.unit = unit;
+        this.maxDays = maxDays;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+
+    public int getMaxDays() {
+        return maxDays;
+    }
+
+    // Start of the bucket the time falls into
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public static StatsGranularity fromParam(String param) {
+        if (param == null || param.isBlank()) {
+            return DAY;
+        }
+        try {
+            return valueOf(param.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown granularity: " + param + ", expected hour or day");
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+public class UniqueVisitorsDTO {
+
+    // First day, inclusive
+    private LocalDate from;
+
+    // Last day (today), inclusive
+    private LocalDate to;
+
+    // Distinct visitors over the whole range, a visitor coming back on several days counts once
+    private long uniqueVisitors;
+
+    // Relative standard error of the estimate, about 95% of estimates are within twice of it
+    private double relativeStandardError;
+
+}
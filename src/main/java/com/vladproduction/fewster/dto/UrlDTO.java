@@ -5,6 +5,8 @@ import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 public class UrlDTO {
@@ -15,7 +17,13 @@ public class UrlDTO {
     @Size(max = 2048, message = "URL is too long")
     private String originalUrl;
 
+    private String shortCode;
+
     private String shortUrl;
 
+    private Long clickCount;
+
+    // Null when the link never expires
+    private LocalDateTime expiresAt;
 
 }
@@ -0,0 +1,24 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class UrlExportDTO {
+
+    private Long id;
+
+    private String originalUrl;
+
+    private String shortCode;
+
+    private String shortUrl;
+
+    private Long clickCount;
+
+    private LocalDateTime createdAt;
+
+}
@@ -0,0 +1,21 @@
+package com.vladproduction.fewster.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class UrlPageDTO {
+
+    private List<UrlDTO> items;
+
+    private String sort;
+
+    private int size;
+
+    // Opaque cursor of the next page, null on the last page
+    private String nextCursor;
+
+}
@@ -0,0 +1,22 @@
+package com.vladproduction.fewster.dto;
+
+/**
+ * Sort orders of the "my urls" listing, both descending with id as tie-breaker
+ */
+public enum UrlSort {
+
+    CREATED,
+    CLICKS;
+
+    public static UrlSort fromParam(String param) {
+        if (param == null || param.isBlank()) {
+            return CREATED;
+        }
+        try {
+            return valueOf(param.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort: " + param + ", expected created or clicks");
+        }
+    }
+
+}
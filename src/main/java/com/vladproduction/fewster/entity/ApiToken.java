@@ -0,0 +1,41 @@
+package com.vladproduction.fewster.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "api_token", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_api_token_hash", columnNames = "token_hash")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class ApiToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "name", nullable = false, length = 64)
+    private String name;
+
+    // HMAC-SHA256 of the raw token (see ApiTokenServiceImpl), the token itself is never stored
+    @Column(name = "token_hash", nullable = false, columnDefinition = "BINARY(32)")
+    private byte[] tokenHash;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,84 @@
+package com.vladproduction.fewster.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "import_job")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportJob {
+
+    public enum Status {
+        // accepted, waiting for a free job thread
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        // stopped by shutdown, can be resumed
+        INTERRUPTED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "filename")
+    private String filename;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @Column(name = "lines_read", nullable = false)
+    private long linesRead;
+
+    // Every line up to this one (1 based, header included) is persisted
+    @Column(name = "last_committed_line", nullable = false)
+    private long lastCommittedLine;
+
+    @Column(name = "created_count", nullable = false)
+    private long createdCount;
+
+    @Column(name = "existing_count", nullable = false)
+    private long existingCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private long failedCount;
+
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+
+    // Size and SHA-256 of the uploaded file, a resume must upload the same file
+    @Column(name = "file_size")
+    private Long fileSize;
+
+    @Column(name = "file_sha256", columnDefinition = "BINARY(32)")
+    private byte[] fileSha256;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    public void preUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,28 @@
+package com.vladproduction.fewster.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "short_code_sequence")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShortCodeSequence {
+
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    // First value of the next block to be leased
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+}
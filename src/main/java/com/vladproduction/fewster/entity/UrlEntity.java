@@ -8,14 +8,20 @@ import java.time.LocalDateTime;
 
 
 @Entity
-@Table(name = "url", indexes = {
-        @Index(name = "idx_original_url", columnList = "originalUrl"),
-        @Index(name = "idx_short_url", columnList = "shortUrl")
+@Table(name = "url", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_url_short_code", columnNames = "short_code"),
+        @UniqueConstraint(name = "uk_url_user_hash", columnNames = {"user_id", "url_hash"})
+}, indexes = {
+        @Index(name = "idx_url_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_url_user_clicks", columnList = "user_id, click_count, id"),
+        @Index(name = "idx_url_expires", columnList = "expires_at, id")
 })
 @Setter
 @Getter
 public class UrlEntity {
 
+    public static final int SHORT_CODE_MAX_LENGTH = 16;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -23,10 +29,17 @@ public class UrlEntity {
     @Column(name = "original_url", nullable = false, length = 2048)
     private String originalUrl;
 
-    @Column(name = "short_url", nullable = false, unique = true)
-    private String shortUrl;
+    // SHA-256 of the normalized original url, unique per user (see GlobalUtility.hashUrl);
+    // always written by the application, null only on duplicates retired by the V11 migration
+    @Column(name = "url_hash", columnDefinition = "BINARY(32)")
+    private byte[] urlHash;
+
+    // Bare code only (ascii, case-sensitive), the public url is built from base.url.prefix when needed
+    @Column(name = "short_code", nullable = false, length = SHORT_CODE_MAX_LENGTH)
+    private String shortCode;
 
-    @Column(name = "click_count", nullable = false)
+    // Only ever changed by relative updates from ClickCountFlusher, never written back from a loaded entity
+    @Column(name = "click_count", nullable = false, updatable = false)
     private Long clickCount;
 
     @Column(name = "created_at", nullable = false)
@@ -35,6 +48,10 @@ public class UrlEntity {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Null when the link never expires, past values stop redirects until UrlExpiryReaper deletes the row
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
     // Add relationship to User
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
@@ -51,10 +68,4 @@ public class UrlEntity {
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
     }
-
-    // Utility method to increment click count
-    public void incrementClickCount() {
-        this.clickCount++;
-        this.updatedAt = LocalDateTime.now();
-    }
 }
\ No newline at end of file
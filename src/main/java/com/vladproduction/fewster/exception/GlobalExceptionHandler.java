@@ -76,6 +76,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
 
+    @ExceptionHandler(ImportQueueFullException.class)
+    public ResponseEntity<Map<String, Object>> handleImportQueueFullException(ImportQueueFullException ex) {
+        log.warn("Import rejected: {}", ex.getMessage());
+
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put(TIMESTAMP, LocalDateTime.now());
+        errorResponse.put(STATUS, HttpStatus.TOO_MANY_REQUESTS.value());
+        errorResponse.put(ERROR, "Too Many Requests");
+        errorResponse.put(MESSAGE, ex.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
+    }
+
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(DataIntegrityViolationException ex) {
         log.error("Unexpected error occurred", ex);
@@ -0,0 +1,9 @@
+package com.vladproduction.fewster.exception;
+
+public class ImportQueueFullException extends RuntimeException{
+
+    public ImportQueueFullException(String message) {
+        super(message);
+    }
+
+}
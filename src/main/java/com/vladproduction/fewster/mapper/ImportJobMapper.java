@@ -0,0 +1,28 @@
+package com.vladproduction.fewster.mapper;
+
+import com.vladproduction.fewster.dto.ImportJobDTO;
+import com.vladproduction.fewster.entity.ImportJob;
+
+public class ImportJobMapper {
+
+    //Entity -> DTO
+    public static ImportJobDTO toDTO(ImportJob entity){
+        if(entity == null){
+            return null;
+        }
+        ImportJobDTO dto = new ImportJobDTO();
+        dto.setId(entity.getId());
+        dto.setFilename(entity.getFilename());
+        dto.setStatus(entity.getStatus().name());
+        dto.setLinesRead(entity.getLinesRead());
+        dto.setLastCommittedLine(entity.getLastCommittedLine());
+        dto.setCreated(entity.getCreatedCount());
+        dto.setExisting(entity.getExistingCount());
+        dto.setFailed(entity.getFailedCount());
+        dto.setLastError(entity.getLastError());
+        dto.setCreatedAt(entity.getCreatedAt());
+        dto.setUpdatedAt(entity.getUpdatedAt());
+        return dto;
+    }
+
+}
@@ -2,18 +2,46 @@ package com.vladproduction.fewster.mapper;
 
 import com.vladproduction.fewster.dto.UrlDTO;
 import com.vladproduction.fewster.entity.UrlEntity;
+import com.vladproduction.fewster.repository.UrlSummary;
 
 public class UrlMapper {
 
-    //Entity -> DTO
-    public static UrlDTO toDTO(UrlEntity entity){
+    //Entity -> DTO, public short url is built from the stored short code
+    public static UrlDTO toDTO(UrlEntity entity, String baseUrl){
         if(entity == null){
             return null;
         }
         UrlDTO urlDTO = new UrlDTO();
         urlDTO.setId(entity.getId());
         urlDTO.setOriginalUrl(entity.getOriginalUrl());
-        urlDTO.setShortUrl(entity.getShortUrl());
+        urlDTO.setShortCode(entity.getShortCode());
+        urlDTO.setShortUrl(baseUrl + entity.getShortCode());
+        urlDTO.setClickCount(entity.getClickCount());
+        urlDTO.setExpiresAt(entity.getExpiresAt());
+        return urlDTO;
+    }
+
+    //Entity -> DTO, adding clicks that are not persisted yet
+    public static UrlDTO toDTO(UrlEntity entity, String baseUrl, long pendingClicks){
+        UrlDTO urlDTO = toDTO(entity, baseUrl);
+        if(urlDTO != null){
+            urlDTO.setClickCount(entity.getClickCount() + pendingClicks);
+        }
+        return urlDTO;
+    }
+
+    //Projection -> DTO, adding clicks that are not persisted yet
+    public static UrlDTO toDTO(UrlSummary summary, String baseUrl, long pendingClicks){
+        if(summary == null){
+            return null;
+        }
+        UrlDTO urlDTO = new UrlDTO();
+        urlDTO.setId(summary.getId());
+        urlDTO.setOriginalUrl(summary.getOriginalUrl());
+        urlDTO.setShortCode(summary.getShortCode());
+        urlDTO.setShortUrl(baseUrl + summary.getShortCode());
+        urlDTO.setClickCount(summary.getClickCount() + pendingClicks);
+        urlDTO.setExpiresAt(summary.getExpiresAt());
         return urlDTO;
     }
 
@@ -25,7 +53,7 @@ public class UrlMapper {
         UrlEntity entity = new UrlEntity();
         entity.setId(dto.getId());
         entity.setOriginalUrl(dto.getOriginalUrl());
-        entity.setShortUrl(dto.getShortUrl());
+        entity.setShortCode(dto.getShortCode());
         return entity;
     }
 
@@ -0,0 +1,117 @@
+package com.vladproduction.fewster.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Application meters of the hot paths, exposed through /actuator/prometheus.
+ * Every meter is registered up front, recording is a field read plus the update itself (no registry lookup).
+ * Tags only take values from small fixed sets, never short codes, urls or usernames.
+ * Cache hit rates (cache.gets), click buffer depth and Hikari pool usage (hikaricp.connections.*)
+ * are bound by the components themselves and by Spring Boot.
+ */
+@Component
+public class FewsterMetrics {
+
+    public static final String REDIRECT = "fewster.redirect";
+    public static final String CREATE = "fewster.url.create";
+    public static final String SHORT_CODE_COLLISIONS = "fewster.shortcode.collisions";
+    public static final String SHORT_CODE_GENERATION_FAILURES = "fewster.shortcode.generation.failures";
+
+    private final Timer redirectFound;
+    private final Timer redirectNotFound;
+    private final Timer createUser;
+    private final Timer createDemo;
+    private final Timer createUserFailed;
+    private final Timer createDemoFailed;
+    private final Counter collisionsBloomFilter;
+    private final Counter collisionsUniqueKey;
+    private final Counter collisionsLookup;
+    private final Counter generationFailuresSingle;
+    private final Counter generationFailuresBatch;
+
+    public FewsterMetrics(MeterRegistry registry) {
+        this.redirectFound = redirectTimer(registry, "found");
+        this.redirectNotFound = redirectTimer(registry, "not_found");
+        this.createUser = createTimer(registry, "user", "success");
+        this.createDemo = createTimer(registry, "demo", "success");
+        this.createUserFailed = createTimer(registry, "user", "error");
+        this.createDemoFailed = createTimer(registry, "demo", "error");
+        this.collisionsBloomFilter = collisionCounter(registry, "bloom_filter");
+        this.collisionsUniqueKey = collisionCounter(registry, "unique_key");
+        this.collisionsLookup = collisionCounter(registry, "lookup");
+        this.generationFailuresSingle = generationFailureCounter(registry, "single");
+        this.generationFailuresBatch = generationFailureCounter(registry, "batch");
+    }
+
+    /**
+     * Short code resolution (cache, database on a miss), started at startNanos (System.nanoTime())
+     */
+    public void recordRedirect(long startNanos, boolean found) {
+        (found ? redirectFound : redirectNotFound).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCreate(long startNanos, boolean demo, boolean success) {
+        Timer timer = demo
+                ? (success ? createDemo : createDemoFailed)
+                : (success ? createUser : createUserFailed);
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Generated short code candidate was taken, as told by the bloom filter, the unique key on insert
+     * or the IN lookup of batch creates, and another candidate is tried
+     */
+    public void shortCodeCollision(CollisionSource source, long collisions) {
+        switch (source) {
+            case BLOOM_FILTER -> collisionsBloomFilter.increment(collisions);
+            case UNIQUE_KEY -> collisionsUniqueKey.increment(collisions);
+            case LOOKUP -> collisionsLookup.increment(collisions);
+        }
+    }
+
+    /**
+     * No free short code within the attempts (ShortUrlGenerationException, or a failed batch item)
+     */
+    public void shortCodeGenerationFailed(boolean batch) {
+        (batch ? generationFailuresBatch : generationFailuresSingle).increment();
+    }
+
+    public enum CollisionSource {
+        BLOOM_FILTER, UNIQUE_KEY, LOOKUP
+    }
+
+    private static Timer redirectTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder(REDIRECT)
+                .description("Short code resolution for redirects")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Timer createTimer(MeterRegistry registry, String type, String outcome) {
+        return Timer.builder(CREATE)
+                .description("Creation of a single short url")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Counter collisionCounter(MeterRegistry registry, String detectedBy) {
+        return Counter.builder(SHORT_CODE_COLLISIONS)
+                .description("Short code candidates that were already taken")
+                .tag("detected_by", detectedBy)
+                .register(registry);
+    }
+
+    private static Counter generationFailureCounter(MeterRegistry registry, String mode) {
+        return Counter.builder(SHORT_CODE_GENERATION_FAILURES)
+                .description("Urls for which no free short code was found")
+                .tag("mode", mode)
+                .register(registry);
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.vladproduction.fewster.redirect;
+
+import com.vladproduction.fewster.service.UrlService;
+import com.vladproduction.fewster.utility.GlobalUtility;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Fast path for public redirects: answers GET/HEAD /r/{shortCode} directly, ahead of the
+ * Spring Security filter chain and the DispatcherServlet (no handler mapping, argument binding,
+ * exception handling or info logging per click). Anything else under /r/ continues down the chain
+ * to {@link com.vladproduction.fewster.controller.rest.UrlRedirectRestController}.
+ * HEAD gets the same answer without counting a click (link checkers and previews are not visits).
+ */
+public class RedirectFilter extends HttpFilter {
+
+    private static final String PREFIX = "/r/";
+    private static final byte[] NOT_FOUND_BODY = "Short URL not found".getBytes(StandardCharsets.UTF_8);
+
+    private final UrlService urlService;
+    private final GlobalUtility globalUtility;
+
+    public RedirectFilter(UrlService urlService, GlobalUtility globalUtility) {
+        this.urlService = urlService;
+        this.globalUtility = globalUtility;
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        String method = request.getMethod();
+        String uri = request.getRequestURI();
+        int start = request.getContextPath().length() + PREFIX.length();
+        if (!("GET".equals(method) || "HEAD".equals(method)) || uri.length() <= start || uri.indexOf('/', start) >= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // Codes are plain ascii, anything else (including percent-encoded input) can not exist
+        String shortCode = uri.substring(start);
+        boolean head = "HEAD".equals(method);
+        Optional<String> originalUrl;
+        if (!globalUtility.isValidShortCode(shortCode)) {
+            originalUrl = Optional.empty();
+        } else if (head) {
+            originalUrl = urlService.peekRedirect(shortCode);
+        } else {
+            originalUrl = urlService.resolveRedirect(shortCode, request.getHeader("Referer"), request.getHeader("User-Agent"),
+                    request.getRemoteAddr());
+        }
+
+        if (originalUrl.isPresent()) {
+            response.setStatus(HttpServletResponse.SC_FOUND);
+            response.setHeader("Location", originalUrl.get());
+        } else {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            response.setContentType("text/plain;charset=UTF-8");
+            response.setContentLength(NOT_FOUND_BODY.length);
+            if (!head) {
+                response.getOutputStream().write(NOT_FOUND_BODY);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.vladproduction.fewster.redirect;
+
+import com.vladproduction.fewster.service.UrlService;
+import com.vladproduction.fewster.utility.GlobalUtility;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RedirectFilterConfig {
+
+    // Set redirect.fastPath.enabled=false to serve redirects through the MVC controller again
+    @Bean
+    @ConditionalOnProperty(name = "redirect.fastPath.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<RedirectFilter> redirectFilter(UrlService urlService, GlobalUtility globalUtility) {
+        FilterRegistrationBean<RedirectFilter> registration =
+                new FilterRegistrationBean<>(new RedirectFilter(urlService, globalUtility));
+        registration.addUrlPatterns("/r/*");
+        // Before the security filter chain
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 10);
+        return registration;
+    }
+
+}
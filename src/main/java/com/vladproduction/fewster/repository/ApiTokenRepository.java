@@ -0,0 +1,25 @@
+package com.vladproduction.fewster.repository;
+
+import com.vladproduction.fewster.entity.ApiToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ApiTokenRepository extends JpaRepository<ApiToken, Long> {
+
+    // Token with its owner in one query, used to authenticate requests
+    @Query("SELECT t FROM ApiToken t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+    Optional<ApiToken> findByTokenHashWithUser(@Param("tokenHash") byte[] tokenHash);
+
+    List<ApiToken> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    Optional<ApiToken> findByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+}
@@ -0,0 +1,120 @@
+package com.vladproduction.fewster.repository;
+
+import com.vladproduction.fewster.dto.ClickStatsPointDTO;
+import com.vladproduction.fewster.dto.StatsGranularity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Plain JDBC access to the click rollup tables (click_rollup_{url|user}_{hour|day}), keyed by
+ * (url_id or user_id, bucket_start): reads are a single primary key range, so their cost depends
+ * on the requested range only, not on the traffic behind it.
+ */
+@Repository
+public class ClickRollupRepository {
+
+    /**
+     * Whose clicks a rollup table counts
+     */
+    public enum Scope {
+
+        URL("url_id"),
+        USER("user_id");
+
+        private final String keyColumn;
+
+        Scope(String keyColumn) {
+            this.keyColumn = keyColumn;
+        }
+
+    }
+
+    /**
+     * One row of a rollup table, id is the url or user id depending on the scope
+     */
+    public record Bucket(long id, LocalDateTime bucketStart) {
+    }
+
+    private static final Comparator<Bucket> PRIMARY_KEY_ORDER =
+            Comparator.comparingLong(Bucket::id).thenComparing(Bucket::bucketStart);
+
+    @Value("${click.rollup.jdbcBatchSize}")
+    private int jdbcBatchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ClickRollupRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Add the clicks to their buckets: relative updates of the existing rows, inserts for the rest
+     * Callers must serialize writers (ClickRollupJob holds the checkpoint row lock),
+     * otherwise two of them could insert the same new bucket
+     */
+    public void addClicks(Scope scope, StatsGranularity granularity, Map<Bucket, Long> clicks) {
+        if (clicks.isEmpty()) {
+            return;
+        }
+        String table = table(scope, granularity);
+        // Ordered like the primary key, rows are locked and inserted in index order
+        List<Map.Entry<Bucket, Long>> rows = new ArrayList<>(clicks.entrySet());
+        rows.sort(Map.Entry.comparingByKey(PRIMARY_KEY_ORDER));
+
+        int[][] updated = jdbcTemplate.batchUpdate("UPDATE " + table + " SET clicks = clicks + ? WHERE "
+                        + scope.keyColumn + " = ? AND bucket_start = ?", rows, jdbcBatchSize,
+                (ps, row) -> {
+                    ps.setLong(1, row.getValue());
+                    ps.setLong(2, row.getKey().id());
+                    ps.setTimestamp(3, Timestamp.valueOf(row.getKey().bucketStart()));
+                });
+
+        List<Map.Entry<Bucket, Long>> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updated) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(rows.get(index));
+                }
+                index++;
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + table + " (" + scope.keyColumn + ", bucket_start, clicks) "
+                        + "VALUES (?, ?, ?)", missing, jdbcBatchSize,
+                (ps, row) -> {
+                    ps.setLong(1, row.getKey().id());
+                    ps.setTimestamp(2, Timestamp.valueOf(row.getKey().bucketStart()));
+                    ps.setLong(3, row.getValue());
+                });
+    }
+
+    /**
+     * Buckets with clicks in [from, to), oldest first
+     */
+    public List<ClickStatsPointDTO> findClicks(Scope scope, StatsGranularity granularity, long id,
+                                               LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("SELECT bucket_start, clicks FROM " + table(scope, granularity)
+                        + " WHERE " + scope.keyColumn + " = ? AND bucket_start >= ? AND bucket_start < ?"
+                        + " ORDER BY bucket_start",
+                (rs, rowNum) -> new ClickStatsPointDTO(rs.getTimestamp("bucket_start").toLocalDateTime(),
+                        rs.getLong("clicks")),
+                id, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    private static String table(Scope scope, StatsGranularity granularity) {
+        return "click_rollup_" + scope.name().toLowerCase(Locale.ROOT) + "_" + granularity.name().toLowerCase(Locale.ROOT);
+    }
+
+}
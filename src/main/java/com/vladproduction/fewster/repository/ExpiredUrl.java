@@ -0,0 +1,16 @@
+package com.vladproduction.fewster.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of an expired url row, what the reaper needs to delete it and walk on
+ */
+public interface ExpiredUrl {
+
+    Long getId();
+
+    String getShortCode();
+
+    LocalDateTime getExpiresAt();
+
+}
@@ -0,0 +1,15 @@
+package com.vladproduction.fewster.repository;
+
+import com.vladproduction.fewster.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    // Check if import job belongs to specific user by ID
+    Optional<ImportJob> findByIdAndUserId(Long id, Long userId);
+
+}
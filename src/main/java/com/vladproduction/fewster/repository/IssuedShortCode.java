@@ -0,0 +1,12 @@
+package com.vladproduction.fewster.repository;
+
+/**
+ * Read-only projection of a url row's id and short code, what the bloom filter sync needs
+ */
+public interface IssuedShortCode {
+
+    Long getId();
+
+    String getShortCode();
+
+}
@@ -0,0 +1,18 @@
+package com.vladproduction.fewster.repository;
+
+import com.vladproduction.fewster.entity.ShortCodeSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ShortCodeSequenceRepository extends JpaRepository<ShortCodeSequence, String> {
+
+    // Find sequence row and lock it until the end of the transaction (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ShortCodeSequence> findByName(String name);
+
+}
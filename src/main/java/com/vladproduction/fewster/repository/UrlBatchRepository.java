@@ -0,0 +1,73 @@
+package com.vladproduction.fewster.repository;
+
+import com.vladproduction.fewster.entity.UrlEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Plain JDBC batch inserts into the url table.
+ * Hibernate does not batch inserts of {@link UrlEntity} (IDENTITY ids are fetched row by row),
+ * here the generated keys of a whole batch are read at once, and with rewriteBatchedStatements=true
+ * the MySQL driver sends every batch as a single multi-row INSERT.
+ */
+@Repository
+public class UrlBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO url (original_url, url_hash, short_code, click_count, "
+            + "created_at, updated_at, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${url.batch.jdbcBatchSize}")
+    private int jdbcBatchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UrlBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert all urls in one transaction (either every row is inserted or none) and set their generated ids
+     * Unique key violations surface as DataIntegrityViolationException (DuplicateKeyException)
+     */
+    @Transactional
+    public void insertAll(List<UrlEntity> urls) {
+        jdbcTemplate.execute(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                (PreparedStatement ps) -> {
+                    for (int from = 0; from < urls.size(); from += jdbcBatchSize) {
+                        List<UrlEntity> batch = urls.subList(from, Math.min(from + jdbcBatchSize, urls.size()));
+                        for (UrlEntity url : batch) {
+                            ps.setString(1, url.getOriginalUrl());
+                            ps.setBytes(2, url.getUrlHash());
+                            ps.setString(3, url.getShortCode());
+                            ps.setLong(4, url.getClickCount());
+                            ps.setTimestamp(5, Timestamp.valueOf(url.getCreatedAt()));
+                            ps.setTimestamp(6, Timestamp.valueOf(url.getUpdatedAt()));
+                            ps.setLong(7, url.getUser().getId());
+                            ps.addBatch();
+                        }
+                        ps.executeBatch();
+
+                        // Keys come back in insertion order
+                        try (ResultSet keys = ps.getGeneratedKeys()) {
+                            for (UrlEntity url : batch) {
+                                if (!keys.next()) {
+                                    throw new IllegalStateException("Missing generated key for url: " + url.getOriginalUrl());
+                                }
+                                url.setId(keys.getLong(1));
+                            }
+                        }
+                    }
+                    return null;
+                });
+    }
+
+}
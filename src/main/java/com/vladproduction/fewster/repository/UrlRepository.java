@@ -1,12 +1,21 @@
 package com.vladproduction.fewster.repository;
 
+import com.vladproduction.fewster.cache.RedirectTarget;
 import com.vladproduction.fewster.entity.UrlEntity;
 import com.vladproduction.fewster.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UrlRepository extends JpaRepository<UrlEntity, Long> {
@@ -14,11 +23,34 @@ public interface UrlRepository extends JpaRepository<UrlEntity, Long> {
     // Find by original URL (for global duplicate checking - keep for backward compatibility)
     Optional<UrlEntity> findByOriginalUrl(String originalUrl);
 
-    // Find by short URL (for redirection)
-    Optional<UrlEntity> findByShortUrl(String shortUrl);
+    // Find by short code
+    Optional<UrlEntity> findByShortCode(String shortCode);
 
-    // Check if short URL exists (for global uniqueness)
-    boolean existsByShortUrl(String shortUrl);
+    // Only what a redirect needs (id for click counting, target url), no entity is loaded
+    @Query("select new com.vladproduction.fewster.cache.RedirectTarget(u.id, u.originalUrl, u.expiresAt) from UrlEntity u where u.shortCode = :shortCode")
+    Optional<RedirectTarget> findRedirectTargetByShortCode(String shortCode);
+
+    // Check if short code exists (for global uniqueness)
+    boolean existsByShortCode(String shortCode);
+
+    // Stream all short codes without loading entities (must be consumed inside a transaction and closed)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.shortCode from UrlEntity u")
+    Stream<String> streamAllShortCodes();
+
+    // Short codes of the rows above the id in id order, the bloom filter sync reads what was created since
+    @Query("select u.id as id, u.shortCode as shortCode from UrlEntity u where u.id > :id order by u.id")
+    List<IssuedShortCode> findShortCodesAfter(Long id, Limit limit);
+
+    @Query("select coalesce(max(u.id), 0) from UrlEntity u")
+    long findMaxId();
+
+    // Stream a user's URLs as projections for export (must be consumed inside a transaction and closed),
+    // with useCursorFetch=true the MySQL driver fetches rows in chunks instead of buffering the whole result
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.id as id, u.originalUrl as originalUrl, u.shortCode as shortCode, u.clickCount as clickCount, "
+            + "u.createdAt as createdAt, u.expiresAt as expiresAt from UrlEntity u where u.user.id = :userId order by u.id")
+    Stream<UrlSummary> streamByUserId(Long userId);
 
     // Find all URLs for a specific user
     List<UrlEntity> findByUser(User user);
@@ -26,16 +58,57 @@ public interface UrlRepository extends JpaRepository<UrlEntity, Long> {
     // Find URLs by user ID
     List<UrlEntity> findByUserId(Long userId);
 
+    // Count URLs of a user (index only)
+    long countByUserId(Long userId);
+
+    // Keyset pages of a user's URLs as projections, newest first (idx_url_user_created)
+    @Query("select u.id as id, u.originalUrl as originalUrl, u.shortCode as shortCode, u.clickCount as clickCount, "
+            + "u.createdAt as createdAt, u.expiresAt as expiresAt from UrlEntity u where u.user.id = :userId "
+            + "order by u.createdAt desc, u.id desc")
+    List<UrlSummary> findPageByCreated(Long userId, Limit limit);
+
+    @Query("select u.id as id, u.originalUrl as originalUrl, u.shortCode as shortCode, u.clickCount as clickCount, "
+            + "u.createdAt as createdAt, u.expiresAt as expiresAt from UrlEntity u where u.user.id = :userId "
+            + "and (u.createdAt < :createdAt or (u.createdAt = :createdAt and u.id < :id)) "
+            + "order by u.createdAt desc, u.id desc")
+    List<UrlSummary> findPageByCreatedAfter(Long userId, LocalDateTime createdAt, Long id, Limit limit);
+
+    // Keyset pages of a user's URLs as projections, most clicked first (idx_url_user_clicks)
+    @Query("select u.id as id, u.originalUrl as originalUrl, u.shortCode as shortCode, u.clickCount as clickCount, "
+            + "u.createdAt as createdAt, u.expiresAt as expiresAt from UrlEntity u where u.user.id = :userId "
+            + "order by u.clickCount desc, u.id desc")
+    List<UrlSummary> findPageByClicks(Long userId, Limit limit);
+
+    @Query("select u.id as id, u.originalUrl as originalUrl, u.shortCode as shortCode, u.clickCount as clickCount, "
+            + "u.createdAt as createdAt, u.expiresAt as expiresAt from UrlEntity u where u.user.id = :userId "
+            + "and (u.clickCount < :clickCount or (u.clickCount = :clickCount and u.id < :id)) "
+            + "order by u.clickCount desc, u.id desc")
+    List<UrlSummary> findPageByClicksAfter(Long userId, Long clickCount, Long id, Limit limit);
+
     // Check if URL belongs to specific user
     Optional<UrlEntity> findByIdAndUser(Long id, User user);
 
     // Check if URL belongs to specific user by ID
     Optional<UrlEntity> findByIdAndUserId(Long id, Long userId);
 
-    // Find by original URL and user (for duplicate checking per user)
-    Optional<UrlEntity> findByOriginalUrlAndUser(String originalUrl, User user);
+    // Find by normalized URL digest and user (for duplicate checking per user, point lookup on uk_url_user_hash)
+    Optional<UrlEntity> findByUserIdAndUrlHash(Long userId, byte[] urlHash);
+
+    // Find by several URL digests of one user at once (batch create, IN list on uk_url_user_hash)
+    List<UrlEntity> findByUserIdAndUrlHashIn(Long userId, Collection<byte[]> urlHashes);
+
+    // Short codes out of the given ones that are already taken (batch create, IN list on uk_url_short_code)
+    @Query("select u.shortCode from UrlEntity u where u.shortCode in :shortCodes")
+    List<String> findExistingShortCodes(Collection<String> shortCodes);
+
+    // Expired urls in (expiresAt, id) order for the reaper, first batch and the ones after the last row seen
+    @Query("select u.id as id, u.shortCode as shortCode, u.expiresAt as expiresAt from UrlEntity u "
+            + "where u.expiresAt <= :now order by u.expiresAt, u.id")
+    List<ExpiredUrl> findExpired(LocalDateTime now, Limit limit);
 
-    // Check if original URL exists for a specific user
-    boolean existsByOriginalUrlAndUser(String originalUrl, User user);
+    @Query("select u.id as id, u.shortCode as shortCode, u.expiresAt as expiresAt from UrlEntity u "
+            + "where u.expiresAt <= :now and (u.expiresAt > :expiresAt or (u.expiresAt = :expiresAt and u.id > :id)) "
+            + "order by u.expiresAt, u.id")
+    List<ExpiredUrl> findExpiredAfter(LocalDateTime now, LocalDateTime expiresAt, Long id, Limit limit);
 
 }
@@ -0,0 +1,22 @@
+package com.vladproduction.fewster.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a url row for listings, no managed entity (and no user proxy) is built
+ */
+public interface UrlSummary {
+
+    Long getId();
+
+    String getOriginalUrl();
+
+    String getShortCode();
+
+    Long getClickCount();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getExpiresAt();
+
+}
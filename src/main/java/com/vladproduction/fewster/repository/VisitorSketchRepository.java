@@ -0,0 +1,90 @@
+package com.vladproduction.fewster.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Plain JDBC access to url_visitor_sketch, one serialized HyperLogLog per (url_id, visit_day)
+ */
+@Repository
+public class VisitorSketchRepository {
+
+    /**
+     * Primary key of a sketch row
+     */
+    public record UrlDay(long urlId, LocalDate day) {
+    }
+
+    @Value("${visitors.flush.jdbcBatchSize}")
+    private int jdbcBatchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VisitorSketchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stored sketches of the given urls on the given days, locked until the end of the transaction
+     * (may include a few more url/day combinations than asked for)
+     */
+    public Map<UrlDay, byte[]> lockSketches(Collection<Long> urlIds, Collection<LocalDate> days) {
+        if (urlIds.isEmpty() || days.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        String sql = "SELECT url_id, visit_day, registers FROM url_visitor_sketch WHERE url_id IN ("
+                + placeholders(urlIds.size()) + ") AND visit_day IN (" + placeholders(days.size()) + ") FOR UPDATE";
+        Object[] args = Stream.concat(urlIds.stream(), days.stream().map(Date::valueOf)).toArray();
+
+        Map<UrlDay, byte[]> sketches = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            sketches.put(new UrlDay(rs.getLong("url_id"), rs.getDate("visit_day").toLocalDate()), rs.getBytes("registers"));
+        }, args);
+        return sketches;
+    }
+
+    public void updateAll(List<Map.Entry<UrlDay, byte[]>> sketches) {
+        jdbcTemplate.batchUpdate("UPDATE url_visitor_sketch SET registers = ? WHERE url_id = ? AND visit_day = ?",
+                sketches, jdbcBatchSize, (ps, sketch) -> {
+                    ps.setBytes(1, sketch.getValue());
+                    ps.setLong(2, sketch.getKey().urlId());
+                    ps.setDate(3, Date.valueOf(sketch.getKey().day()));
+                });
+    }
+
+    /**
+     * Insert new sketch rows, skipping urls deleted meanwhile instead of failing the batch on the foreign key
+     */
+    public void insertAll(List<Map.Entry<UrlDay, byte[]>> sketches) {
+        jdbcTemplate.batchUpdate("INSERT INTO url_visitor_sketch (url_id, visit_day, registers) "
+                        + "SELECT id, ?, ? FROM url WHERE id = ?",
+                sketches, jdbcBatchSize, (ps, sketch) -> {
+                    ps.setDate(1, Date.valueOf(sketch.getKey().day()));
+                    ps.setBytes(2, sketch.getValue());
+                    ps.setLong(3, sketch.getKey().urlId());
+                });
+    }
+
+    /**
+     * Stored sketches of the url from one day to another, both inclusive
+     */
+    public List<byte[]> findSketches(long urlId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("SELECT registers FROM url_visitor_sketch WHERE url_id = ? AND visit_day >= ? AND visit_day <= ?",
+                (rs, rowNum) -> rs.getBytes("registers"), urlId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.vladproduction.fewster.security;
+
+import com.vladproduction.fewster.cache.UserAccount;
+import com.vladproduction.fewster.service.ApiTokenService;
+import com.vladproduction.fewster.service.impl.ApiTokenServiceImpl;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Authenticates /api/v1/url/** requests carrying "Authorization: Bearer fwt_..." with a personal API token,
+ * so automation clients skip the BCrypt check HTTP Basic runs on every request.
+ * Requests without a bearer token fall through to the other mechanisms (session, HTTP Basic).
+ * Token management itself (/api/v1/token) still needs the password, a leaked token cannot mint new ones.
+ */
+@Slf4j
+public class ApiTokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+    private static final String PROTECTED_PATH = "/api/v1/url";
+
+    private final ApiTokenService apiTokenService;
+
+    public ApiTokenAuthenticationFilter(ApiTokenService apiTokenService) {
+        this.apiTokenService = apiTokenService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !(path.equals(PROTECTED_PATH) || path.startsWith(PROTECTED_PATH + "/"));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.startsWith(BEARER + ApiTokenServiceImpl.TOKEN_PREFIX)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Optional<UserAccount> account = apiTokenService.authenticate(header.substring(BEARER.length()).trim());
+        if (account.isEmpty()) {
+            log.debug("Rejected unknown API token for {}", request.getRequestURI());
+            response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid API token");
+            return;
+        }
+
+        // Stateless: the context lives for this request only, no session is created
+        AuthenticatedUser principal = new AuthenticatedUser(account.get());
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities()));
+        SecurityContextHolder.setContext(context);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+}
@@ -1,20 +1,28 @@
 package com.vladproduction.fewster.security;
 
+import com.vladproduction.fewster.cache.UserAccount;
+import com.vladproduction.fewster.cache.UserLookupCache;
 import com.vladproduction.fewster.entity.User;
-import com.vladproduction.fewster.repository.UserRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+/**
+ * Current user of the request, taken from the {@link AuthenticatedUser} principal,
+ * or from {@link UserLookupCache} for other principals (e.g. a plain username)
+ * Returned users are detached copies (id, username, role), not managed entities
+ */
 @Slf4j
 @Service
 public class AuthService {
 
-    private final UserRepository userRepository;
+    private static final String DEMO_USERNAME = "demouser";
 
-    public AuthService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    private final UserLookupCache userLookupCache;
+
+    public AuthService(UserLookupCache userLookupCache) {
+        this.userLookupCache = userLookupCache;
     }
 
     //Get the currently authenticated user
@@ -25,16 +33,22 @@ public class AuthService {
             throw new RuntimeException("User not authenticated");
         }
 
+        if (authentication.getPrincipal() instanceof AuthenticatedUser authenticatedUser) {
+            return authenticatedUser.toUser();
+        }
+
         String username = authentication.getName();
-        return userRepository.findByUsername(username)
+        return userLookupCache.get(username)
+                .map(UserAccount::toUser)
                 .orElseThrow(() -> new RuntimeException("Current user not found: " + username));
     }
 
     //Get the currently not-authenticated  demouser
     public User getDemoUser() {
 
-        return userRepository.findByUsername("demouser")
-                .orElseThrow(() -> new RuntimeException("Current user not found: demouser"));
+        return userLookupCache.get(DEMO_USERNAME)
+                .map(UserAccount::toUser)
+                .orElseThrow(() -> new RuntimeException("Current user not found: " + DEMO_USERNAME));
     }
 
     //Get the current username
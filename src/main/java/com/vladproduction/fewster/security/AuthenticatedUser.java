@@ -0,0 +1,72 @@
+package com.vladproduction.fewster.security;
+
+import com.vladproduction.fewster.cache.UserAccount;
+import com.vladproduction.fewster.entity.User;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Principal of an authenticated request, carries the user id and role
+ * so services can act on behalf of the user without looking it up again
+ */
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String username;
+    private final String role;
+    private final Set<GrantedAuthority> authorities;
+    private String password;
+
+    public AuthenticatedUser(UserAccount account) {
+        this.id = account.id();
+        this.username = account.username();
+        this.role = account.role();
+        this.password = account.password();
+
+        // ROLE_ prefix to match of how Spring handle ROLES
+        String roleWithPrefix = role.startsWith("ROLE_") ? role : "ROLE_" + role;
+        this.authorities = Set.of(new SimpleGrantedAuthority(roleWithPrefix));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Detached user carrying id, username and role, usable as the owner reference of new urls
+     */
+    public User toUser() {
+        return new UserAccount(id, username, null, role).toUser();
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    // Password hash is not kept in the session once authentication is done
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+
+}
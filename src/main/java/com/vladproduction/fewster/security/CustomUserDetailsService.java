@@ -1,18 +1,14 @@
 package com.vladproduction.fewster.security;
 
-import com.vladproduction.fewster.entity.User;
-import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.cache.UserAccount;
+import com.vladproduction.fewster.cache.UserLookupCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Set;
-
 @Slf4j
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
@@ -20,39 +16,30 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Value("${role.name}")
     private String role;
 
-    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
-        this.userRepository = userRepository;
+    public CustomUserDetailsService(UserLookupCache userLookupCache) {
+        this.userLookupCache = userLookupCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(()-> new RuntimeException("User with " + username + " is not found"));
-
-        // ROLE_ prefix to match of how Spring handle ROLES
-        String roleWithPrefix = user.getRole().startsWith("ROLE_") ?
-                user.getRole() : "ROLE_" + user.getRole();
+        // HTTP Basic authenticates every API request, served from the cache after the first one
+        UserAccount account = userLookupCache.get(username)
+                .orElseThrow(()-> new UsernameNotFoundException("User with " + username + " is not found"));
 
-        Set<GrantedAuthority> authorities = Set.of(new SimpleGrantedAuthority(roleWithPrefix));
+        AuthenticatedUser user = new AuthenticatedUser(account);
 
         //debug log
         log.debug("=== DEBUG INFO ===");
         log.debug("Username: {}", username);
-        log.debug("Password starts with: {}", user.getPassword().substring(0, Math.min(10, user.getPassword().length())));
-        log.debug("Role from DB: {}", user.getRole());
-        log.debug("Role with prefix: {}", roleWithPrefix);
-        log.debug("Authorities: {}", authorities);
+        log.debug("Role from DB: {}", account.role());
+        log.debug("Authorities: {}", user.getAuthorities());
         log.debug("Expected role from config: {}", role);
         log.debug("==================");
 
-        return new org.springframework.security.core.userdetails.User(
-                username,
-                user.getPassword(),
-                authorities
-        );
+        return user;
     }
 
 }
@@ -1,5 +1,6 @@
 package com.vladproduction.fewster.security;
 
+import com.vladproduction.fewster.service.ApiTokenService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +13,7 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 public class SecurityConfig {
@@ -24,8 +26,11 @@ public class SecurityConfig {
     @Value("${role.name}")
     private String role;
 
+    @Value("${admin.role.name}")
+    private String adminRole;
+
     @Bean
-    SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    SecurityFilterChain securityFilterChain(HttpSecurity http, ApiTokenService apiTokenService) throws Exception {
 
         http
                 .csrf(AbstractHttpConfigurer::disable) // updated style
@@ -48,6 +53,11 @@ public class SecurityConfig {
                     authorize.requestMatchers(HttpMethod.GET, "/dashboard/**").hasRole(role);
                     authorize.requestMatchers(HttpMethod.POST, "/dashboard/**").hasRole(role);
 
+                    // Operational endpoints (cache statistics, metrics etc.) - admin only, health is public for probes
+                    authorize.requestMatchers("/api/v1/admin/**").hasRole(adminRole);
+                    authorize.requestMatchers(HttpMethod.GET, "/actuator/health").permitAll();
+                    authorize.requestMatchers("/actuator/**").hasRole(adminRole);
+
                     // Protected URL management API endpoints - require authentication
                     authorize.requestMatchers(HttpMethod.POST, "/api/v1/url/**").hasRole(role);
                     authorize.requestMatchers(HttpMethod.GET, "/api/v1/url/**").hasRole(role);
@@ -71,7 +81,9 @@ public class SecurityConfig {
                         .deleteCookies("JSESSIONID") // Delete session cookie
                         .permitAll()
                 )
-                .httpBasic(Customizer.withDefaults()); // Keep HTTP Basic for API access
+                .httpBasic(Customizer.withDefaults()) // Keep HTTP Basic for API access
+                // Bearer API tokens on /api/v1/url/**, checked before HTTP Basic runs BCrypt
+                .addFilterBefore(new ApiTokenAuthenticationFilter(apiTokenService), BasicAuthenticationFilter.class);
 
         return http.build();
     }
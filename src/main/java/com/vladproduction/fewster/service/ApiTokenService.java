@@ -0,0 +1,25 @@
+package com.vladproduction.fewster.service;
+
+import com.vladproduction.fewster.cache.UserAccount;
+import com.vladproduction.fewster.dto.ApiTokenDTO;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ApiTokenService {
+
+    /**
+     * Issue a new token for the current user, the returned DTO is the only place the raw token appears
+     */
+    ApiTokenDTO issueToken(String name);
+
+    List<ApiTokenDTO> getTokensForCurrentUser();
+
+    void revokeToken(Long id);
+
+    /**
+     * Owner of the raw token, empty when the token is unknown or revoked
+     */
+    Optional<UserAccount> authenticate(String rawToken);
+
+}
@@ -0,0 +1,30 @@
+package com.vladproduction.fewster.service;
+
+import com.vladproduction.fewster.dto.ClickStatsDTO;
+import com.vladproduction.fewster.dto.StatsGranularity;
+import com.vladproduction.fewster.dto.UniqueVisitorsDTO;
+
+public interface ClickStatsService {
+
+    /**
+     * Clicks of one url of the current user over the last days, per hour or per day
+     */
+    ClickStatsDTO getUrlStats(Long urlId, StatsGranularity granularity, Integer days);
+
+    /**
+     * Clicks of all urls of the current user over the last days, per hour or per day
+     */
+    ClickStatsDTO getStatsForCurrentUser(StatsGranularity granularity, Integer days);
+
+    /**
+     * Clicks of one url of the current user per minute over the last minutes (at most 24 hours),
+     * from the in-memory histograms of this node
+     */
+    ClickStatsDTO getLiveUrlStats(Long urlId, Integer minutes);
+
+    /**
+     * Estimated distinct visitors of one url of the current user over the last days, today included
+     */
+    UniqueVisitorsDTO getUniqueVisitors(Long urlId, Integer days);
+
+}
@@ -2,6 +2,15 @@ package com.vladproduction.fewster.service;
 
 public interface ShortAlgorithmService {
 
+    // Returns bare short code (without base.url.prefix)
     String makeShort(String text);
 
+    /**
+     * Whether every call of makeShort returns a value never returned before,
+     * so callers may skip checking the database for collisions
+     */
+    default boolean isUniqueByConstruction() {
+        return false;
+    }
+
 }
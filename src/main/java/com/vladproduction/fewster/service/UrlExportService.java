@@ -0,0 +1,13 @@
+package com.vladproduction.fewster.service;
+
+import com.vladproduction.fewster.dto.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UrlExportService {
+
+    // Writes every url of the user to the stream row by row, returns the number of rows written
+    long exportUrls(Long userId, ExportFormat format, OutputStream out) throws IOException;
+
+}
@@ -0,0 +1,11 @@
+package com.vladproduction.fewster.service;
+
+import com.vladproduction.fewster.dto.ImportJobDTO;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface UrlImportService {
+
+    ImportJobDTO startImport(MultipartFile file, Long resumeJobId);
+    ImportJobDTO getImportJob(Long id);
+
+}
@@ -1,16 +1,55 @@
 package com.vladproduction.fewster.service;
 
+import com.vladproduction.fewster.dto.BatchCreateResultDTO;
 import com.vladproduction.fewster.dto.UrlDTO;
+import com.vladproduction.fewster.dto.UrlPageDTO;
+import com.vladproduction.fewster.dto.UrlSort;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface UrlService {
 
     UrlDTO create(String urlText, boolean isDemo);
-    List<UrlDTO> getAllUrlsForCurrentUser();
+
+    /**
+     * Same as {@link #create(String, boolean)}, the new link stops redirecting at expiresAt (null for never)
+     * A link the user already has for the url is reused: it takes the requested expiry, and one that already
+     * expired is revived even with none; without a requested expiry a live link keeps its own
+     */
+    UrlDTO create(String urlText, boolean isDemo, LocalDateTime expiresAt);
+
+    BatchCreateResultDTO createBatch(List<String> urlTexts);
+    UrlPageDTO getUrlsForCurrentUser(UrlSort sort, String cursor, Integer size);
+    long countUrlsForCurrentUser();
     UrlDTO getUrlById(Long id);
     UrlDTO updateUrl(Long id, String newOriginalUrl);
+
+    /**
+     * Set when the link stops redirecting (null for never), only for links of the current user
+     */
+    UrlDTO updateExpiry(Long id, LocalDateTime expiresAt);
+
     void deleteUrl(Long id);
-    String getOriginalByShortUrl(String shortUrl);
+    String getOriginalByShortCode(String shortCode);
+
+    /**
+     * Resolve short code for the public redirect and count the click, empty when the code is unknown
+     */
+    Optional<String> resolveRedirect(String shortCode);
+
+    /**
+     * Same as {@link #resolveRedirect(String)}, recording a click event with the request's
+     * Referer and User-Agent header values and counting a unique visitor by client address
+     * and User-Agent (any of them may be null)
+     */
+    Optional<String> resolveRedirect(String shortCode, String referrer, String userAgent, String clientAddress);
+
+    /**
+     * Resolve short code like {@link #resolveRedirect(String)} without recording anything about the visit,
+     * for HEAD requests (link checkers, unfurlers) that must not count as clicks
+     */
+    Optional<String> peekRedirect(String shortCode);
 
 }
@@ -0,0 +1,179 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vladproduction.fewster.cache.UserAccount;
+import com.vladproduction.fewster.dto.ApiTokenDTO;
+import com.vladproduction.fewster.entity.ApiToken;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.ApiTokenRepository;
+import com.vladproduction.fewster.security.AuthService;
+import com.vladproduction.fewster.service.ApiTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Personal API tokens: 32 random bytes, stored as HMAC-SHA256 keyed with api.token.secret.
+ * Tokens are high-entropy, so a fast keyed hash is enough (no need for a slow password hash like BCrypt):
+ * verifying one costs a few microseconds, and a leaked table is useless without the secret.
+ * Verified tokens are kept in a small cache for api.token.cache.expireAfterWriteSeconds;
+ * revoking invalidates the entry on this node, other nodes stop accepting the token once it expires.
+ * Without a secret (API_TOKEN_SECRET unset, e.g. a local run) token auth is off: nothing authenticates and
+ * issuing is refused, the rest of the application works. Startup fails when the secret is the placeholder.
+ */
+@Slf4j
+@Service
+public class ApiTokenServiceImpl implements ApiTokenService, MeterBinder {
+
+    public static final String TOKEN_PREFIX = "fwt_";
+    private static final int TOKEN_BYTES = 32;
+    // prefix + unpadded base64url of 32 bytes
+    private static final int TOKEN_LENGTH = TOKEN_PREFIX.length() + 43;
+    private static final int MAX_NAME_LENGTH = 64;
+    // documented example value, tokens hashed with a published key are forgeable
+    private static final String PLACEHOLDER_SECRET = "change-me-in-production";
+
+    @Value("${api.token.maxPerUser}")
+    private int maxPerUser;
+
+    private final ApiTokenRepository apiTokenRepository;
+    private final AuthService authService;
+    private final boolean enabled;
+    private final SecureRandom secureRandom = new SecureRandom();
+    // Mac instances are not thread-safe
+    private final ThreadLocal<Mac> hmac;
+    // hex token hash -> owner
+    private final Cache<String, UserAccount> verifiedTokens;
+
+    public ApiTokenServiceImpl(ApiTokenRepository apiTokenRepository, AuthService authService,
+                               @Value("${api.token.secret}") String secret,
+                               @Value("${api.token.cache.maxSize}") long cacheMaxSize,
+                               @Value("${api.token.cache.expireAfterWriteSeconds}") long cacheExpireAfterWriteSeconds) {
+        this.apiTokenRepository = apiTokenRepository;
+        this.authService = authService;
+
+        if (secret != null && PLACEHOLDER_SECRET.equals(secret.trim())) {
+            throw new IllegalStateException("api.token.secret must be set to a private value (API_TOKEN_SECRET)");
+        }
+        this.enabled = secret != null && !secret.isBlank();
+        if (!enabled) {
+            log.warn("api.token.secret is not set (API_TOKEN_SECRET), API token authentication is disabled");
+        }
+        // never used when disabled, any key keeps the fields final
+        SecretKeySpec key = new SecretKeySpec((enabled ? secret : "disabled").getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.hmac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                // every JVM is required to support HmacSHA256
+                throw new IllegalStateException("HmacSHA256 is not available", e);
+            }
+        });
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(cacheExpireAfterWriteSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public ApiTokenDTO issueToken(String name) {
+        if (name == null || name.isBlank() || name.trim().length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Token name must be 1 to " + MAX_NAME_LENGTH + " characters");
+        }
+        if (!enabled) {
+            throw new IllegalArgumentException("API tokens are disabled on this server: api.token.secret is not set");
+        }
+        User currentUser = authService.getCurrentUser();
+        if (apiTokenRepository.countByUserId(currentUser.getId()) >= maxPerUser) {
+            throw new IllegalArgumentException("Token limit of " + maxPerUser + " reached, revoke an unused token first");
+        }
+
+        byte[] random = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(random);
+        String rawToken = TOKEN_PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        ApiToken apiToken = new ApiToken();
+        apiToken.setUser(currentUser);
+        apiToken.setName(name.trim());
+        apiToken.setTokenHash(hash(rawToken));
+        ApiToken saved = apiTokenRepository.save(apiToken);
+        log.info("Issued API token {} ({}) for user: {}", saved.getId(), saved.getName(), currentUser.getUsername());
+
+        ApiTokenDTO dto = toDTO(saved);
+        dto.setToken(rawToken);
+        return dto;
+    }
+
+    @Override
+    public List<ApiTokenDTO> getTokensForCurrentUser() {
+        User currentUser = authService.getCurrentUser();
+        return apiTokenRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId()).stream()
+                .map(ApiTokenServiceImpl::toDTO)
+                .toList();
+    }
+
+    @Override
+    public void revokeToken(Long id) {
+        User currentUser = authService.getCurrentUser();
+        ApiToken apiToken = apiTokenRepository.findByIdAndUserId(id, currentUser.getId())
+                .orElseThrow(() -> new RuntimeException("API token not found or access denied for ID: " + id));
+
+        apiTokenRepository.delete(apiToken);
+        verifiedTokens.invalidate(HexFormat.of().formatHex(apiToken.getTokenHash()));
+        log.info("Revoked API token {} of user: {}", id, currentUser.getUsername());
+    }
+
+    @Override
+    public Optional<UserAccount> authenticate(String rawToken) {
+        if (!enabled || rawToken == null || rawToken.length() != TOKEN_LENGTH || !rawToken.startsWith(TOKEN_PREFIX)) {
+            return Optional.empty();
+        }
+
+        byte[] tokenHash = hash(rawToken);
+        // Unknown tokens are not cached, each attempt costs one indexed lookup
+        UserAccount account = verifiedTokens.get(HexFormat.of().formatHex(tokenHash),
+                key -> apiTokenRepository.findByTokenHashWithUser(tokenHash)
+                        .map(apiToken -> {
+                            User user = apiToken.getUser();
+                            return new UserAccount(user.getId(), user.getUsername(), null, user.getRole());
+                        })
+                        .orElse(null));
+        return Optional.ofNullable(account);
+    }
+
+    private byte[] hash(String rawToken) {
+        return hmac.get().doFinal(rawToken.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static ApiTokenDTO toDTO(ApiToken apiToken) {
+        ApiTokenDTO dto = new ApiTokenDTO();
+        dto.setId(apiToken.getId());
+        dto.setName(apiToken.getName());
+        dto.setCreatedAt(apiToken.getCreatedAt());
+        return dto;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verifiedTokens, "api-tokens");
+    }
+
+}
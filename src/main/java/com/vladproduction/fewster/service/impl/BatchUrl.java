@@ -0,0 +1,46 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.dto.BatchItemResultDTO;
+import com.vladproduction.fewster.entity.UrlEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One distinct url of a bulk create (batch request or CSV import) and its outcome
+ */
+final class BatchUrl {
+
+    final String normalizedUrl;
+    final byte[] urlHash;
+    // Requested short code, null when it should be generated
+    final String customCode;
+    // Positions of the url in a batch request
+    final List<Integer> indexes = new ArrayList<>(1);
+
+    // null while pending
+    BatchItemResultDTO.Status status;
+    UrlEntity entity;
+    String error;
+
+    BatchUrl(String normalizedUrl, byte[] urlHash, String customCode) {
+        this.normalizedUrl = normalizedUrl;
+        this.urlHash = urlHash;
+        this.customCode = customCode;
+    }
+
+    boolean isPending() {
+        return status == null;
+    }
+
+    void resolve(UrlEntity entity, BatchItemResultDTO.Status status) {
+        this.status = status;
+        this.entity = entity;
+    }
+
+    void fail(String error) {
+        this.status = BatchItemResultDTO.Status.FAILED;
+        this.error = error;
+    }
+
+}
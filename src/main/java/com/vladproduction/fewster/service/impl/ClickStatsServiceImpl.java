@@ -0,0 +1,171 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.click.ClickHistogram;
+import com.vladproduction.fewster.click.ClickHistogramRegistry;
+import com.vladproduction.fewster.click.HyperLogLog;
+import com.vladproduction.fewster.dto.ClickStatsDTO;
+import com.vladproduction.fewster.dto.ClickStatsPointDTO;
+import com.vladproduction.fewster.dto.StatsGranularity;
+import com.vladproduction.fewster.dto.UniqueVisitorsDTO;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.ClickRollupRepository;
+import com.vladproduction.fewster.repository.ClickRollupRepository.Scope;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.VisitorSketchRepository;
+import com.vladproduction.fewster.security.AuthService;
+import com.vladproduction.fewster.service.ClickStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Click statistics from the rollup tables only (see ClickRollupJob), never from click_event:
+ * a request reads at most one row per bucket of the requested range.
+ * The current bucket is included, rollups trail the clicks by about two click.rollup.intervalMillis.
+ * Live per-minute stats come from {@link ClickHistogramRegistry} and never touch the database.
+ * Unique visitors merge the stored per-day sketches of the range (see VisitorSketchFlusher),
+ * one row of at most 2 KB per day.
+ */
+@Slf4j
+@Service
+public class ClickStatsServiceImpl implements ClickStatsService {
+
+    private static final int DEFAULT_DAYS = 30;
+    private static final int DEFAULT_LIVE_MINUTES = 60;
+    private static final int MAX_UNIQUE_VISITOR_DAYS = 366;
+
+    private final ClickRollupRepository clickRollupRepository;
+    private final ClickHistogramRegistry clickHistogramRegistry;
+    private final VisitorSketchRepository visitorSketchRepository;
+    private final UrlRepository urlRepository;
+    private final AuthService authService;
+
+    public ClickStatsServiceImpl(ClickRollupRepository clickRollupRepository,
+                                 ClickHistogramRegistry clickHistogramRegistry,
+                                 VisitorSketchRepository visitorSketchRepository, UrlRepository urlRepository,
+                                 AuthService authService) {
+        this.clickRollupRepository = clickRollupRepository;
+        this.clickHistogramRegistry = clickHistogramRegistry;
+        this.visitorSketchRepository = visitorSketchRepository;
+        this.urlRepository = urlRepository;
+        this.authService = authService;
+    }
+
+    @Override
+    public ClickStatsDTO getUrlStats(Long urlId, StatsGranularity granularity, Integer days) {
+        checkOwnedByCurrentUser(urlId);
+        return stats(Scope.URL, urlId, granularity, days);
+    }
+
+    @Override
+    public ClickStatsDTO getStatsForCurrentUser(StatsGranularity granularity, Integer days) {
+        return stats(Scope.USER, authService.getCurrentUser().getId(), granularity, days);
+    }
+
+    @Override
+    public ClickStatsDTO getLiveUrlStats(Long urlId, Integer minutes) {
+        int range = minutes == null ? DEFAULT_LIVE_MINUTES : minutes;
+        if (range < 1 || range > ClickHistogram.MINUTES) {
+            throw new IllegalArgumentException("Minutes must be between 1 and " + ClickHistogram.MINUTES);
+        }
+        checkOwnedByCurrentUser(urlId);
+
+        long currentMinute = TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+        long firstMinute = currentMinute - range + 1;
+        Optional<ClickHistogram> histogram = clickHistogramRegistry.find(urlId);
+
+        List<ClickStatsPointDTO> points = new ArrayList<>(range);
+        long total = 0;
+        for (long minute = firstMinute; minute <= currentMinute; minute++) {
+            long clicks = histogram.isPresent() ? histogram.get().count(minute) : 0;
+            points.add(new ClickStatsPointDTO(toLocalDateTime(minute), clicks));
+            total += clicks;
+        }
+
+        ClickStatsDTO dto = new ClickStatsDTO();
+        dto.setGranularity("minute");
+        dto.setFrom(toLocalDateTime(firstMinute));
+        dto.setTo(toLocalDateTime(currentMinute + 1));
+        dto.setTotalClicks(total);
+        dto.setPoints(points);
+        return dto;
+    }
+
+    @Override
+    public UniqueVisitorsDTO getUniqueVisitors(Long urlId, Integer days) {
+        int range = days == null ? DEFAULT_DAYS : days;
+        if (range < 1 || range > MAX_UNIQUE_VISITOR_DAYS) {
+            throw new IllegalArgumentException("Days must be between 1 and " + MAX_UNIQUE_VISITOR_DAYS);
+        }
+        checkOwnedByCurrentUser(urlId);
+
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(range - 1);
+        // The union of the days is the register maximum, so repeat visitors across days count once
+        HyperLogLog visitors = new HyperLogLog();
+        visitorSketchRepository.findSketches(urlId, from, to)
+                .forEach(registers -> visitors.merge(HyperLogLog.fromBytes(registers)));
+
+        UniqueVisitorsDTO dto = new UniqueVisitorsDTO();
+        dto.setFrom(from);
+        dto.setTo(to);
+        dto.setUniqueVisitors(visitors.estimate());
+        dto.setRelativeStandardError(HyperLogLog.RELATIVE_STANDARD_ERROR);
+        return dto;
+    }
+
+    private void checkOwnedByCurrentUser(Long urlId) {
+        User currentUser = authService.getCurrentUser();
+        urlRepository.findByIdAndUser(urlId, currentUser)
+                .orElseThrow(() -> new RuntimeException("URL not found or access denied for ID: " + urlId));
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMinute) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(TimeUnit.MINUTES.toSeconds(epochMinute)), ZoneId.systemDefault());
+    }
+
+    private ClickStatsDTO stats(Scope scope, long id, StatsGranularity granularity, Integer days) {
+        int range = days == null ? DEFAULT_DAYS : days;
+        if (range < 1 || range > granularity.getMaxDays()) {
+            throw new IllegalArgumentException("Days must be between 1 and " + granularity.getMaxDays()
+                    + " for " + granularity.name().toLowerCase(Locale.ROOT) + " granularity");
+        }
+
+        ChronoUnit unit = granularity.getUnit();
+        LocalDateTime to = granularity.bucketStart(LocalDateTime.now()).plus(1, unit);
+        LocalDateTime from = to.minusDays(range);
+        List<ClickStatsPointDTO> stored = clickRollupRepository.findClicks(scope, granularity, id, from, to);
+
+        // Fill in the buckets without clicks, the rollups only have rows for buckets with clicks
+        List<ClickStatsPointDTO> points = new ArrayList<>();
+        long total = 0;
+        int next = 0;
+        for (LocalDateTime bucket = from; bucket.isBefore(to); bucket = bucket.plus(1, unit)) {
+            long clicks = 0;
+            if (next < stored.size() && stored.get(next).getBucketStart().equals(bucket)) {
+                clicks = stored.get(next++).getClicks();
+            }
+            points.add(new ClickStatsPointDTO(bucket, clicks));
+            total += clicks;
+        }
+
+        ClickStatsDTO dto = new ClickStatsDTO();
+        dto.setGranularity(granularity.name().toLowerCase(Locale.ROOT));
+        dto.setFrom(from);
+        dto.setTo(to);
+        dto.setTotalClicks(total);
+        dto.setPoints(points);
+        return dto;
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.entity.UrlEntity;
+
+/**
+ * Row a create ended with, created is false when the user already had the url
+ */
+record CreateOutcome(UrlEntity entity, boolean created) {
+}
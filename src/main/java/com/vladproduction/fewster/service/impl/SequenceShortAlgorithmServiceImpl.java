@@ -0,0 +1,100 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.entity.ShortCodeSequence;
+import com.vladproduction.fewster.repository.ShortCodeSequenceRepository;
+import com.vladproduction.fewster.service.ShortAlgorithmService;
+import com.vladproduction.fewster.utility.AlgorithmUtility;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sequence based short codes: every node leases a block of numbers from the short_code_sequence table
+ * and encodes them as base62, so codes are unique by construction and need no existence check.
+ * Codes are padded to one character more than short.url.length, which keeps them
+ * disjoint from the codes produced by the hash strategy.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "short.url.strategy", havingValue = "sequence")
+public class SequenceShortAlgorithmServiceImpl implements ShortAlgorithmService {
+
+    public static final String SEQUENCE_NAME = "short_url";
+
+    @Value("${short.url.length}")
+    private int shortUrlLength;
+
+    @Value("${short.url.sequence.blockSize}")
+    private int blockSize;
+
+    private final AlgorithmUtility algorithmUtility;
+    private final ShortCodeSequenceRepository sequenceRepository;
+    private final TransactionTemplate leaseTransaction;
+    private final ReentrantLock leaseLock = new ReentrantLock();
+
+    // Current lease: next value to hand out and first value beyond the lease
+    private long nextValue;
+    private long leaseEnd;
+
+    public SequenceShortAlgorithmServiceImpl(AlgorithmUtility algorithmUtility,
+                                             ShortCodeSequenceRepository sequenceRepository,
+                                             PlatformTransactionManager transactionManager) {
+        this.algorithmUtility = algorithmUtility;
+        this.sequenceRepository = sequenceRepository;
+        this.leaseTransaction = new TransactionTemplate(transactionManager);
+        this.leaseTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public String makeShort(String text) {
+        if (text == null || text.isEmpty()) {
+            throw new IllegalArgumentException("Provided url should be not empty");
+        }
+
+        String shortCode = algorithmUtility.encodeBase62(nextSequenceValue(), shortUrlLength + 1);
+        log.debug("Successfully generated short code: {}", shortCode);
+
+        return shortCode;
+    }
+
+    @Override
+    public boolean isUniqueByConstruction() {
+        return true;
+    }
+
+    // A lock instead of synchronized: virtual threads waiting while a block is leased park instead of pinning their carrier
+    private long nextSequenceValue() {
+        leaseLock.lock();
+        try {
+            if (nextValue >= leaseEnd) {
+                leaseBlock();
+            }
+            return nextValue++;
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    // Advance the shared sequence by one block under a row lock, in its own short transaction
+    private void leaseBlock() {
+        long leaseStart = leaseTransaction.execute(status -> {
+            ShortCodeSequence sequence = sequenceRepository.findByName(SEQUENCE_NAME)
+                    .orElseGet(() -> new ShortCodeSequence(SEQUENCE_NAME, 1L));
+            long start = sequence.getNextValue();
+            sequence.setNextValue(start + blockSize);
+            sequenceRepository.save(sequence);
+            return start;
+        });
+
+        nextValue = leaseStart;
+        leaseEnd = leaseStart + blockSize;
+        log.info("Leased short code sequence block [{}, {})", nextValue, leaseEnd);
+    }
+
+}
@@ -3,16 +3,18 @@ package com.vladproduction.fewster.service.impl;
 import com.vladproduction.fewster.service.ShortAlgorithmService;
 import com.vladproduction.fewster.utility.AlgorithmUtility;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+/**
+ * Hash based short codes (default strategy): derived from the url itself,
+ * so collisions are possible and have to be resolved by the caller
+ */
 @Slf4j
 @Service
+@ConditionalOnProperty(name = "short.url.strategy", havingValue = "hash", matchIfMissing = true)
 public class ShortAlgorithmServiceImpl implements ShortAlgorithmService {
 
-    @Value("${base.url.prefix}")
-    private String baseUrl;
-
     private final AlgorithmUtility algorithmUtility;
 
     public ShortAlgorithmServiceImpl(AlgorithmUtility algorithmUtility) {
@@ -29,12 +31,9 @@ public class ShortAlgorithmServiceImpl implements ShortAlgorithmService {
         log.info("Algorithm started...");
 
         String shortCode = algorithmUtility.generateShortCode(text);
-        log.info("Successfully generated short code: {}", shortCode);
-
-        String shortUrl = baseUrl + shortCode;
-        log.info("Successfully made url shorter: {} -> {}", text, shortUrl);
+        log.info("Successfully made url shorter: {} -> {}", text, shortCode);
 
-        return shortUrl;
+        return shortCode;
     }
 
 
@@ -0,0 +1,264 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.cache.RedirectCache;
+import com.vladproduction.fewster.cache.ShortCodeBloomFilter;
+import com.vladproduction.fewster.dto.BatchItemResultDTO;
+import com.vladproduction.fewster.entity.UrlEntity;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.exception.ShortUrlGenerationException;
+import com.vladproduction.fewster.metrics.FewsterMetrics;
+import com.vladproduction.fewster.metrics.FewsterMetrics.CollisionSource;
+import com.vladproduction.fewster.repository.UrlBatchRepository;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.utility.GlobalUtility;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Inserts urls of one user, relying on the unique keys instead of check-then-insert:
+ * single creates go through {@link #insertFirst}, bulk creates (batch requests, CSV import)
+ * through {@link #createChunk} with a few IN queries and one JDBC batch per chunk.
+ */
+@Slf4j
+@Component
+public class UrlBatchCreator {
+
+    private final UrlRepository urlRepository;
+    private final UrlBatchRepository urlBatchRepository;
+    private final GlobalUtility globalUtility;
+    private final RedirectCache redirectCache;
+    private final ShortCodeBloomFilter shortCodeBloomFilter;
+    private final FewsterMetrics fewsterMetrics;
+
+    public UrlBatchCreator(UrlRepository urlRepository, UrlBatchRepository urlBatchRepository,
+                           GlobalUtility globalUtility, RedirectCache redirectCache,
+                           ShortCodeBloomFilter shortCodeBloomFilter, FewsterMetrics fewsterMetrics) {
+        this.urlRepository = urlRepository;
+        this.urlBatchRepository = urlBatchRepository;
+        this.globalUtility = globalUtility;
+        this.redirectCache = redirectCache;
+        this.shortCodeBloomFilter = shortCodeBloomFilter;
+        this.fewsterMetrics = fewsterMetrics;
+    }
+
+    /**
+     * Create all pending urls of the chunk for the user, each one ends up CREATED, EXISTING or FAILED
+     * Urls must be distinct by digest within the chunk
+     */
+    void createChunk(User user, List<BatchUrl> chunk) {
+        // 1. Urls the user already has, one IN query
+        resolveExisting(user, chunk);
+
+        Set<String> usedInChunk = new HashSet<>();
+        Map<BatchUrl, UrlEntity> toInsert = new LinkedHashMap<>();
+
+        // 2. Requested custom codes: free of each other and of the table, one IN query
+        List<BatchUrl> custom = chunk.stream()
+                .filter(batchUrl -> batchUrl.isPending() && batchUrl.customCode != null)
+                .toList();
+        if (!custom.isEmpty()) {
+            Set<String> taken = globalUtility.findIssuedShortCodes(custom.stream().map(batchUrl -> batchUrl.customCode).toList());
+            for (BatchUrl batchUrl : custom) {
+                if (taken.contains(batchUrl.customCode) || !usedInChunk.add(batchUrl.customCode)) {
+                    batchUrl.fail("Short code already taken: " + batchUrl.customCode);
+                } else {
+                    toInsert.put(batchUrl, newEntity(user, batchUrl, batchUrl.customCode));
+                }
+            }
+        }
+
+        // 3. Generated codes for the rest: free of each other and of the table, one IN query per attempt
+        List<BatchUrl> pending = chunk.stream()
+                .filter(batchUrl -> batchUrl.isPending() && batchUrl.customCode == null)
+                .toList();
+        for (int attempt = 0; attempt <= globalUtility.getMaxAttempt() && !pending.isEmpty(); attempt++) {
+            Map<String, BatchUrl> candidates = new LinkedHashMap<>();
+            for (BatchUrl batchUrl : pending) {
+                String shortCode = globalUtility.shortCodeCandidate(batchUrl.normalizedUrl, attempt);
+                if (!usedInChunk.contains(shortCode)) {
+                    candidates.putIfAbsent(shortCode, batchUrl);
+                }
+            }
+            Set<String> taken = globalUtility.findTakenShortCodes(candidates.keySet());
+            if (!taken.isEmpty()) {
+                fewsterMetrics.shortCodeCollision(CollisionSource.LOOKUP, taken.size());
+            }
+
+            Set<BatchUrl> assigned = new HashSet<>();
+            candidates.forEach((shortCode, batchUrl) -> {
+                if (taken.contains(shortCode)) {
+                    return;
+                }
+                toInsert.put(batchUrl, newEntity(user, batchUrl, shortCode));
+                usedInChunk.add(shortCode);
+                assigned.add(batchUrl);
+            });
+            pending = pending.stream().filter(batchUrl -> !assigned.contains(batchUrl)).toList();
+        }
+        pending.forEach(batchUrl -> {
+            fewsterMetrics.shortCodeGenerationFailed(true);
+            batchUrl.fail("Unable to generate unique short URL after "
+                    + globalUtility.getMaxAttempt() + " attempts for URL: " + batchUrl.normalizedUrl);
+        });
+
+        if (toInsert.isEmpty()) {
+            return;
+        }
+
+        // 4. Insert all new rows with JDBC batching, generated ids are set on the entities
+        try {
+            urlBatchRepository.insertAll(new ArrayList<>(toInsert.values()));
+            toInsert.forEach((batchUrl, urlEntity) -> {
+                publishShortCode(urlEntity.getShortCode());
+                batchUrl.resolve(urlEntity, BatchItemResultDTO.Status.CREATED);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent writer took one of the urls or codes meanwhile, the whole chunk was rolled back
+            log.warn("Batch insert of {} urls conflicted, falling back to one by one: {}", toInsert.size(), e.getMessage());
+            for (BatchUrl batchUrl : toInsert.keySet()) {
+                try {
+                    CreateOutcome outcome = batchUrl.customCode != null
+                            ? insertWithCode(user, batchUrl.normalizedUrl, batchUrl.urlHash, batchUrl.customCode)
+                            : insertFirst(user, batchUrl.normalizedUrl, batchUrl.urlHash, null);
+                    batchUrl.resolve(outcome.entity(), outcome.created()
+                            ? BatchItemResultDTO.Status.CREATED : BatchItemResultDTO.Status.EXISTING);
+                } catch (RuntimeException itemException) {
+                    batchUrl.fail(itemException.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Insert the url with generated short code candidates until one is free,
+     * returns the existing row (with its own expiry) when the user already has the url
+     */
+    CreateOutcome insertFirst(User currentUser, String normalizedUrl, byte[] urlHash, LocalDateTime expiresAt) {
+        int maxAttempt = globalUtility.getMaxAttempt();
+
+        // Insert first and let the unique keys decide: (user_id, url_hash) catches duplicates for this user,
+        // short_code catches collisions with other urls. Common case is a single INSERT,
+        // concurrent creates of the same url end up returning the same row.
+        for (int attempt = 0; attempt <= maxAttempt; attempt++) {
+            String shortCode = globalUtility.shortCodeCandidate(normalizedUrl, attempt);
+            if (attempt < maxAttempt && !globalUtility.isShortCodeLikelyFree(shortCode)) {
+                log.warn("Short code {} is most likely taken, skipping it (attempt {})", shortCode, attempt + 1);
+                fewsterMetrics.shortCodeCollision(CollisionSource.BLOOM_FILTER, 1);
+                continue;
+            }
+
+            UrlEntity urlEntity = new UrlEntity();
+            urlEntity.setOriginalUrl(normalizedUrl);
+            urlEntity.setUrlHash(urlHash);
+            urlEntity.setShortCode(shortCode);
+            urlEntity.setUser(currentUser); // Associate with current user
+            urlEntity.setExpiresAt(expiresAt);
+
+            try {
+                UrlEntity entity = urlRepository.save(urlEntity);
+                log.info("Saved url for user: {} where original Url: {} and short code: {}",
+                        currentUser.getUsername(), normalizedUrl, shortCode);
+
+                publishShortCode(entity.getShortCode());
+                return new CreateOutcome(entity, true);
+            } catch (DataIntegrityViolationException e) {
+                Optional<UrlEntity> existingUrl = urlRepository.findByUserIdAndUrlHash(currentUser.getId(), urlHash);
+                if (existingUrl.isPresent()) {
+                    log.info("URL already exists for user {}, returning existing short URL", currentUser.getUsername());
+                    return new CreateOutcome(existingUrl.get(), false);
+                }
+                if (!isShortCodeConflict(e)) {
+                    throw e;
+                }
+                log.warn("Short code collision detected: {}, regenerating... (attempt {})", shortCode, attempt + 1);
+                fewsterMetrics.shortCodeCollision(CollisionSource.UNIQUE_KEY, 1);
+            }
+        }
+
+        fewsterMetrics.shortCodeGenerationFailed(false);
+        throw new ShortUrlGenerationException("Unable to generate unique short URL after " + maxAttempt + " attempts for URL: " + normalizedUrl);
+    }
+
+    /**
+     * Insert the url with the requested short code,
+     * returns the existing row (with its own code) when the user already has the url
+     */
+    CreateOutcome insertWithCode(User user, String normalizedUrl, byte[] urlHash, String shortCode) {
+        UrlEntity urlEntity = new UrlEntity();
+        urlEntity.setOriginalUrl(normalizedUrl);
+        urlEntity.setUrlHash(urlHash);
+        urlEntity.setShortCode(shortCode);
+        urlEntity.setUser(user);
+
+        try {
+            UrlEntity entity = urlRepository.save(urlEntity);
+            publishShortCode(entity.getShortCode());
+            return new CreateOutcome(entity, true);
+        } catch (DataIntegrityViolationException e) {
+            Optional<UrlEntity> existingUrl = urlRepository.findByUserIdAndUrlHash(user.getId(), urlHash);
+            if (existingUrl.isPresent()) {
+                return new CreateOutcome(existingUrl.get(), false);
+            }
+            if (isShortCodeConflict(e)) {
+                throw new IllegalArgumentException("Short code already taken: " + shortCode);
+            }
+            throw e;
+        }
+    }
+
+    // Mark urls of the chunk the user already has (found by digest) as existing
+    private void resolveExisting(User user, List<BatchUrl> chunk) {
+        List<byte[]> urlHashes = chunk.stream()
+                .filter(BatchUrl::isPending)
+                .map(batchUrl -> batchUrl.urlHash)
+                .toList();
+        if (urlHashes.isEmpty()) {
+            return;
+        }
+
+        Map<ByteBuffer, UrlEntity> found = new HashMap<>();
+        urlRepository.findByUserIdAndUrlHashIn(user.getId(), urlHashes)
+                .forEach(urlEntity -> found.put(ByteBuffer.wrap(urlEntity.getUrlHash()), urlEntity));
+        for (BatchUrl batchUrl : chunk) {
+            UrlEntity urlEntity = found.get(ByteBuffer.wrap(batchUrl.urlHash));
+            if (batchUrl.isPending() && urlEntity != null) {
+                batchUrl.resolve(urlEntity, BatchItemResultDTO.Status.EXISTING);
+            }
+        }
+    }
+
+    private static UrlEntity newEntity(User user, BatchUrl batchUrl, String shortCode) {
+        UrlEntity urlEntity = new UrlEntity();
+        urlEntity.setOriginalUrl(batchUrl.normalizedUrl);
+        urlEntity.setUrlHash(batchUrl.urlHash);
+        urlEntity.setShortCode(shortCode);
+        urlEntity.setUser(user);
+        return urlEntity;
+    }
+
+    // Short code may have been probed before it existed and sit in the negative cache
+    private void publishShortCode(String shortCode) {
+        shortCodeBloomFilter.put(shortCode);
+        redirectCache.invalidate(shortCode);
+    }
+
+    private static boolean isShortCodeConflict(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase().contains("uk_url_short_code");
+    }
+
+}
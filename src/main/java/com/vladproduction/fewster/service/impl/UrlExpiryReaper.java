@@ -0,0 +1,126 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.cache.RedirectCache;
+import com.vladproduction.fewster.cache.ShortCodeBloomFilter;
+import com.vladproduction.fewster.repository.ExpiredUrl;
+import com.vladproduction.fewster.repository.UrlRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Deletes expired urls in small batches: expired rows are read in (expires_at, id) order from
+ * idx_url_expires, a batch at a time after the last row seen, and each batch is deleted by id in its own
+ * short transaction, so no run holds locks on more than url.expiry.reaper.batchSize rows.
+ * The delete re-checks expires_at, a link extended meanwhile is kept.
+ * Expired links already stop redirecting before they are reaped (see RedirectTarget.isExpired).
+ */
+@Slf4j
+@Component
+public class UrlExpiryReaper implements MeterBinder {
+
+    @Value("${url.expiry.reaper.enabled}")
+    private boolean enabled;
+
+    @Value("${url.expiry.reaper.batchSize}")
+    private int batchSize;
+
+    @Value("${url.expiry.reaper.maxBatchesPerRun}")
+    private int maxBatchesPerRun;
+
+    private final UrlRepository urlRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final RedirectCache redirectCache;
+    private final ShortCodeBloomFilter shortCodeBloomFilter;
+    private final LongAdder purged = new LongAdder();
+    private volatile long lastRunPurged;
+
+    public UrlExpiryReaper(UrlRepository urlRepository, JdbcTemplate jdbcTemplate, RedirectCache redirectCache,
+                           ShortCodeBloomFilter shortCodeBloomFilter) {
+        this.urlRepository = urlRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.redirectCache = redirectCache;
+        this.shortCodeBloomFilter = shortCodeBloomFilter;
+    }
+
+    @Scheduled(fixedDelayString = "${url.expiry.reaper.intervalMillis}")
+    public void scheduledReap() {
+        try {
+            reap();
+        } catch (DataAccessException e) {
+            log.error("Failed to purge expired urls, will retry on next run", e);
+        }
+    }
+
+    /**
+     * Delete urls expired by now, at most maxBatchesPerRun batches, returns the number of rows purged
+     */
+    public synchronized long reap() {
+        if (!enabled) {
+            return 0;
+        }
+
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        long runPurged = 0;
+        int batches = 0;
+        List<ExpiredUrl> batch = urlRepository.findExpired(now, Limit.of(batchSize));
+        while (!batch.isEmpty()) {
+            runPurged += delete(batch, now);
+            batches++;
+            if (batch.size() < batchSize || batches >= maxBatchesPerRun) {
+                break;
+            }
+            ExpiredUrl last = batch.get(batch.size() - 1);
+            batch = urlRepository.findExpiredAfter(now, last.getExpiresAt(), last.getId(), Limit.of(batchSize));
+        }
+
+        purged.add(runPurged);
+        lastRunPurged = runPurged;
+        if (runPurged > 0) {
+            log.info("Purged {} expired urls in {} batches in {} ms", runPurged, batches, System.currentTimeMillis() - start);
+        }
+        return runPurged;
+    }
+
+    private int delete(List<ExpiredUrl> batch, LocalDateTime now) {
+        String sql = "DELETE FROM url WHERE id IN (" + String.join(", ", Collections.nCopies(batch.size(), "?"))
+                + ") AND expires_at <= ?";
+        Object[] args = Stream.concat(batch.stream().map(ExpiredUrl::getId), Stream.of(Timestamp.valueOf(now))).toArray();
+        int deleted = jdbcTemplate.update(sql, args);
+
+        for (ExpiredUrl url : batch) {
+            redirectCache.invalidate(url.getShortCode());
+        }
+        for (int i = 0; i < deleted; i++) {
+            shortCodeBloomFilter.recordDelete();
+        }
+        return deleted;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("fewster.urls.expired.purged", purged, LongAdder::sum)
+                .description("Expired urls deleted by the reaper")
+                .register(registry);
+        Gauge.builder("fewster.urls.expired.lastRun", this, reaper -> reaper.lastRunPurged)
+                .description("Expired urls deleted by the last reaper run")
+                .register(registry);
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vladproduction.fewster.click.ClickCountBuffer;
+import com.vladproduction.fewster.dto.ExportFormat;
+import com.vladproduction.fewster.dto.UrlExportDTO;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UrlSummary;
+import com.vladproduction.fewster.service.UrlExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a user's links straight from a database cursor to the output:
+ * rows are read as projections with a fetch size and written one by one,
+ * so memory use does not depend on the number of links.
+ */
+@Slf4j
+@Service
+public class UrlExportServiceImpl implements UrlExportService {
+
+    private static final String CSV_HEADER = "id,originalUrl,shortCode,shortUrl,clickCount,createdAt";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final UrlRepository urlRepository;
+    private final ClickCountBuffer clickCountBuffer;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${base.url.prefix}")
+    private String baseUrl;
+
+    public UrlExportServiceImpl(UrlRepository urlRepository, ClickCountBuffer clickCountBuffer,
+                                ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.urlRepository = urlRepository;
+        this.clickCountBuffer = clickCountBuffer;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public long exportUrls(Long userId, ExportFormat format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+
+        Long rows;
+        try {
+            rows = readOnlyTransaction.execute(status -> {
+                try (Stream<UrlSummary> urls = urlRepository.streamByUserId(userId)) {
+                    return format == ExportFormat.CSV ? writeCsv(urls.iterator(), writer) : writeNdjson(urls.iterator(), writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away, the cursor is closed with the transaction
+            throw e.getCause();
+        }
+        writer.flush();
+
+        log.info("Exported {} urls of user id: {} as {} in {} ms", rows, userId, format, System.currentTimeMillis() - start);
+        return rows == null ? 0 : rows;
+    }
+
+    private long writeNdjson(Iterator<UrlSummary> urls, Writer writer) throws IOException {
+        long rows = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        while (urls.hasNext()) {
+            generator.writeObject(toExportDTO(urls.next()));
+            generator.writeRaw('\n');
+            rows++;
+        }
+        generator.flush();
+        return rows;
+    }
+
+    private long writeCsv(Iterator<UrlSummary> urls, Writer writer) throws IOException {
+        long rows = 0;
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (urls.hasNext()) {
+            UrlExportDTO url = toExportDTO(urls.next());
+            writer.write(String.valueOf(url.getId()));
+            writer.write(',');
+            writer.write(csvValue(url.getOriginalUrl()));
+            writer.write(',');
+            writer.write(csvValue(url.getShortCode()));
+            writer.write(',');
+            writer.write(csvValue(url.getShortUrl()));
+            writer.write(',');
+            writer.write(String.valueOf(url.getClickCount()));
+            writer.write(',');
+            writer.write(String.valueOf(url.getCreatedAt()));
+            writer.write('\n');
+            rows++;
+        }
+        return rows;
+    }
+
+    private UrlExportDTO toExportDTO(UrlSummary summary) {
+        UrlExportDTO dto = new UrlExportDTO();
+        dto.setId(summary.getId());
+        dto.setOriginalUrl(summary.getOriginalUrl());
+        dto.setShortCode(summary.getShortCode());
+        dto.setShortUrl(baseUrl + summary.getShortCode());
+        // Click count as persisted plus clicks still waiting in the write-behind buffer
+        dto.setClickCount(summary.getClickCount() + clickCountBuffer.pending(summary.getId()));
+        dto.setCreatedAt(summary.getCreatedAt());
+        return dto;
+    }
+
+    // RFC 4180: quote values containing separators, quotes or line breaks, double embedded quotes
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+}
@@ -0,0 +1,457 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.dto.BatchItemResultDTO;
+import com.vladproduction.fewster.dto.ImportJobDTO;
+import com.vladproduction.fewster.entity.ImportJob;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.exception.ImportQueueFullException;
+import com.vladproduction.fewster.mapper.ImportJobMapper;
+import com.vladproduction.fewster.repository.ImportJobRepository;
+import com.vladproduction.fewster.security.AuthService;
+import com.vladproduction.fewster.service.UrlImportService;
+import com.vladproduction.fewster.utility.GlobalUtility;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk import of "original_url[,custom_code]" CSV records (RFC 4180 quoting; a quoted field spanning lines
+ * is read as one record and reported as failed, since no url or short code contains a line break).
+ * The upload is read record by record by one job thread, fixed-size batches of records are normalized and validated
+ * on a worker pool, and the job thread writes them in order, one {@link UrlBatchCreator#createChunk} per batch.
+ * At most url.import.maxInFlightBatches parsed batches wait for the writer (reading stops until one is written),
+ * so heap use depends on the batch settings only, never on the file size.
+ * After every batch the job records the last committed line; re-uploading the same file with the job id
+ * skips everything up to it. The job keeps the size and SHA-256 of its file, a resume with any other file is rejected.
+ * A batch persisted right before a crash is replayed on resume and reported as existing,
+ * since creating a url the user already has is a no-op.
+ * At most url.import.maxConcurrentJobs imports run at once and url.import.maxQueuedJobs more wait as QUEUED,
+ * further uploads are rejected with {@link ImportQueueFullException} instead of piling up temp files.
+ */
+@Slf4j
+@Service
+public class UrlImportServiceImpl implements UrlImportService {
+
+    private static final Set<String> HEADER_NAMES = Set.of("url", "original_url", "originalurl");
+    private static final char BOM = '\uFEFF';
+    private static final int MAX_RECORD_LENGTH = 16 * 1024;
+
+    @Value("${url.import.batchSize}")
+    private int batchSize;
+
+    @Value("${url.import.maxInFlightBatches}")
+    private int maxInFlightBatches;
+
+    private final ImportJobRepository importJobRepository;
+    private final AuthService authService;
+    private final GlobalUtility globalUtility;
+    private final UrlBatchCreator urlBatchCreator;
+
+    private final ExecutorService parsePool;
+    private final ExecutorService jobExecutor;
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopping;
+
+    public UrlImportServiceImpl(ImportJobRepository importJobRepository, AuthService authService,
+                                GlobalUtility globalUtility, UrlBatchCreator urlBatchCreator,
+                                @Value("${url.import.workers}") int workers,
+                                @Value("${url.import.maxConcurrentJobs}") int maxConcurrentJobs,
+                                @Value("${url.import.maxQueuedJobs}") int maxQueuedJobs) {
+        this.importJobRepository = importJobRepository;
+        this.authService = authService;
+        this.globalUtility = globalUtility;
+        this.urlBatchCreator = urlBatchCreator;
+        this.parsePool = Executors.newFixedThreadPool(workers, namedThreads("url-import-parse-"));
+        // Bounded queue with the default abort policy: a full queue rejects the job, see startImport
+        this.jobExecutor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedJobs), namedThreads("url-import-job-"));
+    }
+
+    @Override
+    public ImportJobDTO startImport(MultipartFile file, Long resumeJobId) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Import file is empty");
+        }
+        User currentUser = authService.getCurrentUser();
+
+        ImportJob job;
+        ImportJob.Status previousStatus = null;
+        if (resumeJobId != null) {
+            job = importJobRepository.findByIdAndUserId(resumeJobId, currentUser.getId())
+                    .orElseThrow(() -> new RuntimeException("Import job not found or access denied for ID: " + resumeJobId));
+            if (job.getStatus() == ImportJob.Status.COMPLETED) {
+                throw new IllegalArgumentException("Import job is already completed: " + resumeJobId);
+            }
+            if (!runningJobs.add(job.getId())) {
+                throw new IllegalArgumentException("Import job is still running: " + resumeJobId);
+            }
+            previousStatus = job.getStatus();
+        } else {
+            job = new ImportJob();
+            job.setUser(currentUser);
+            job.setFilename(file.getOriginalFilename());
+        }
+
+        // The multipart temp file is removed when the request completes, keep our own copy for the job thread
+        Path upload;
+        byte[] sha256;
+        long size;
+        try {
+            upload = Files.createTempFile("fewster-import-", ".csv");
+        } catch (IOException e) {
+            if (job.getId() != null) {
+                runningJobs.remove(job.getId());
+            }
+            throw new IllegalStateException("Unable to store uploaded file: " + file.getOriginalFilename(), e);
+        }
+        try {
+            sha256 = copyWithDigest(file, upload);
+            size = Files.size(upload);
+        } catch (IOException e) {
+            deleteQuietly(upload);
+            if (job.getId() != null) {
+                runningJobs.remove(job.getId());
+            }
+            throw new IllegalStateException("Unable to store uploaded file: " + file.getOriginalFilename(), e);
+        }
+
+        // Resuming skips lines by number, which is only right for the very same file
+        if (job.getFileSha256() != null && (!Arrays.equals(job.getFileSha256(), sha256) || job.getFileSize() != size)) {
+            deleteQuietly(upload);
+            runningJobs.remove(job.getId());
+            throw new IllegalArgumentException("Uploaded file is not the file import job " + resumeJobId
+                    + " was started with, resume needs the same file or a new import");
+        }
+        if (job.getFileSha256() == null) {
+            // new job, or one started before fingerprints were recorded
+            job.setFileSize(size);
+            job.setFileSha256(sha256);
+        }
+
+        String previousError = job.getLastError();
+        job.setStatus(ImportJob.Status.QUEUED);
+        job.setLastError(null);
+        ImportJob savedJob = importJobRepository.save(job);
+        runningJobs.add(savedJob.getId());
+
+        long resumeAfterLine = savedJob.getLastCommittedLine();
+        try {
+            jobExecutor.execute(() -> runImport(savedJob, currentUser, upload, resumeAfterLine));
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(upload);
+            runningJobs.remove(savedJob.getId());
+            if (previousStatus == null) {
+                importJobRepository.delete(savedJob);
+            } else {
+                // Left as it was, the job can be resumed once the queue has room
+                savedJob.setStatus(previousStatus);
+                savedJob.setLastError(previousError);
+                importJobRepository.save(savedJob);
+            }
+            throw new ImportQueueFullException("Too many imports in progress, try again later");
+        }
+        log.info("Queued import job {} for user: {} from line {}", savedJob.getId(), currentUser.getUsername(), resumeAfterLine + 1);
+
+        return ImportJobMapper.toDTO(savedJob);
+    }
+
+    @Override
+    public ImportJobDTO getImportJob(Long id) {
+        User currentUser = authService.getCurrentUser();
+        return importJobRepository.findByIdAndUserId(id, currentUser.getId())
+                .map(ImportJobMapper::toDTO)
+                .orElseThrow(() -> new RuntimeException("Import job not found or access denied for ID: " + id));
+    }
+
+    private void runImport(ImportJob job, User user, Path upload, long resumeAfterLine) {
+        long start = System.currentTimeMillis();
+        Deque<Future<ParsedBatch>> inFlight = new ArrayDeque<>();
+
+        try {
+            job.setStatus(ImportJob.Status.RUNNING);
+            ImportJob running = importJobRepository.save(job);
+            job.setUpdatedAt(running.getUpdatedAt());
+        } catch (RuntimeException e) {
+            log.error("Import job {} could not be started", job.getId(), e);
+            deleteQuietly(upload);
+            runningJobs.remove(job.getId());
+            return;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8)) {
+            long lineNumber = 0;
+            List<CsvRecord> records = new ArrayList<>(batchSize);
+            String line;
+            while (!stopping && (line = reader.readLine()) != null) {
+                lineNumber++;
+                long recordLine = lineNumber;
+                // A quoted field may contain line breaks: the record goes on until its quotes are balanced
+                // (bounded, an unterminated quote must not pull the rest of the file into one record)
+                String next;
+                while (hasOpenQuote(line) && line.length() < MAX_RECORD_LENGTH && (next = reader.readLine()) != null) {
+                    lineNumber++;
+                    line = line + '\n' + next;
+                }
+                // Batches end on record boundaries, so the resume point never splits a record
+                if (lineNumber <= resumeAfterLine) {
+                    continue;
+                }
+                records.add(new CsvRecord(recordLine, line));
+
+                if (records.size() == batchSize) {
+                    inFlight.addLast(submitParse(records, lineNumber));
+                    records = new ArrayList<>(batchSize);
+                    // Backpressure: stop reading while the writer is maxInFlightBatches behind
+                    while (inFlight.size() >= maxInFlightBatches) {
+                        write(job, user, inFlight.removeFirst().get(), lineNumber);
+                    }
+                }
+            }
+            if (!records.isEmpty()) {
+                inFlight.addLast(submitParse(records, lineNumber));
+            }
+            while (!inFlight.isEmpty()) {
+                write(job, user, inFlight.removeFirst().get(), lineNumber);
+            }
+
+            job.setStatus(stopping ? ImportJob.Status.INTERRUPTED : ImportJob.Status.COMPLETED);
+        } catch (IOException | ExecutionException | RuntimeException e) {
+            log.error("Import job {} failed after line {}", job.getId(), job.getLastCommittedLine(), e);
+            job.setStatus(ImportJob.Status.FAILED);
+            job.setLastError(truncate(e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.setStatus(ImportJob.Status.INTERRUPTED);
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+            deleteQuietly(upload);
+            runningJobs.remove(job.getId());
+        }
+
+        ImportJob finished = importJobRepository.save(job);
+        log.info("Import job {} {}: created {}, existing {}, failed {}, last committed line {} in {} ms",
+                finished.getId(), finished.getStatus(), finished.getCreatedCount(), finished.getExistingCount(),
+                finished.getFailedCount(), finished.getLastCommittedLine(), System.currentTimeMillis() - start);
+    }
+
+    private Future<ParsedBatch> submitParse(List<CsvRecord> records, long lastLine) {
+        return parsePool.submit(() -> parse(records, lastLine));
+    }
+
+    // Worker side: normalize, validate and dedupe one batch of records, no database access
+    private ParsedBatch parse(List<CsvRecord> records, long lastLine) {
+        Map<ByteBuffer, BatchUrl> uniqueUrls = new LinkedHashMap<>();
+        int duplicates = 0;
+        int failed = 0;
+        String lastError = null;
+
+        for (CsvRecord record : records) {
+            long lineNumber = record.line();
+            String line = record.text();
+            if (lineNumber == 1 && !line.isEmpty() && line.charAt(0) == BOM) {
+                line = line.substring(1);
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            if (hasOpenQuote(line)) {
+                failed++;
+                lastError = "Line " + lineNumber + ": Unterminated quoted field";
+                continue;
+            }
+            if (line.indexOf('\n') >= 0) {
+                // read as one record, but no url or short code can contain a line break
+                failed++;
+                lastError = "Line " + lineNumber + ": Quoted field spans several lines, urls and short codes can not contain line breaks";
+                continue;
+            }
+
+            List<String> fields = parseCsvLine(line);
+            String urlText = fields.get(0).trim();
+            if (lineNumber == 1 && HEADER_NAMES.contains(urlText.toLowerCase())) {
+                continue;
+            }
+
+            String normalizedUrl = globalUtility.normalizeUrl(urlText);
+            if (globalUtility.isValidUrl(normalizedUrl)) {
+                failed++;
+                lastError = "Line " + lineNumber + ": Invalid Url format: " + urlText;
+                continue;
+            }
+            String customCode = fields.size() > 1 && !fields.get(1).isBlank() ? fields.get(1).trim() : null;
+            if (customCode != null && !globalUtility.isValidShortCode(customCode)) {
+                failed++;
+                lastError = "Line " + lineNumber + ": Invalid short code: " + customCode;
+                continue;
+            }
+
+            byte[] urlHash = globalUtility.hashUrl(normalizedUrl);
+            if (uniqueUrls.putIfAbsent(ByteBuffer.wrap(urlHash), new BatchUrl(normalizedUrl, urlHash, customCode)) != null) {
+                duplicates++;
+            }
+        }
+
+        return new ParsedBatch(lastLine, new ArrayList<>(uniqueUrls.values()), duplicates, failed, lastError);
+    }
+
+    // Job thread side: persist one parsed batch, then record it as committed
+    private void write(ImportJob job, User user, ParsedBatch batch, long linesRead) {
+        if (!batch.urls().isEmpty()) {
+            urlBatchCreator.createChunk(user, batch.urls());
+        }
+
+        long created = 0;
+        long existing = batch.duplicates();
+        long failed = batch.failed();
+        String lastError = batch.lastError();
+        for (BatchUrl batchUrl : batch.urls()) {
+            if (batchUrl.status == BatchItemResultDTO.Status.CREATED) {
+                created++;
+            } else if (batchUrl.status == BatchItemResultDTO.Status.EXISTING) {
+                existing++;
+            } else {
+                failed++;
+                lastError = batchUrl.error;
+            }
+        }
+
+        job.setCreatedCount(job.getCreatedCount() + created);
+        job.setExistingCount(job.getExistingCount() + existing);
+        job.setFailedCount(job.getFailedCount() + failed);
+        if (lastError != null) {
+            job.setLastError(truncate(lastError));
+        }
+        job.setLinesRead(linesRead);
+        job.setLastCommittedLine(batch.lastLine());
+        ImportJob saved = importJobRepository.save(job);
+        job.setUpdatedAt(saved.getUpdatedAt());
+    }
+
+    // Odd number of quotes: a quoted field is still open ("" inside a field counts twice)
+    static boolean hasOpenQuote(String line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return (quotes & 1) == 1;
+    }
+
+    // Fields separated by commas, double quoted fields may contain commas and "" for a quote
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>(2);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static byte[] copyWithDigest(MultipartFile file, Path target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM is required to support SHA-256
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return digest.digest();
+    }
+
+    private static String truncate(String message) {
+        return message == null || message.length() <= 1024 ? message : message.substring(0, 1024);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Unable to delete import file {}", path, e);
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // Running imports commit the batches already parsed and stop as INTERRUPTED, to be resumed later,
+    // queued ones start, read nothing and end INTERRUPTED as well
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        jobExecutor.shutdown();
+        if (!jobExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("Import jobs did not stop in time: {}", runningJobs);
+        }
+        parsePool.shutdownNow();
+    }
+
+    // One CSV record, line is where it starts (a quoted field may continue on the following lines)
+    private record CsvRecord(long line, String text) {
+    }
+
+    private record ParsedBatch(long lastLine, List<BatchUrl> urls, int duplicates, int failed, String lastError) {
+    }
+
+}
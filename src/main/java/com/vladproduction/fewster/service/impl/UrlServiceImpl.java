@@ -1,17 +1,39 @@
 package com.vladproduction.fewster.service.impl;
 
+import com.vladproduction.fewster.cache.RedirectCache;
+import com.vladproduction.fewster.cache.RedirectTarget;
+import com.vladproduction.fewster.cache.ShortCodeBloomFilter;
+import com.vladproduction.fewster.click.ClickCountBuffer;
+import com.vladproduction.fewster.click.ClickRecorder;
+import com.vladproduction.fewster.dto.BatchCreateResultDTO;
+import com.vladproduction.fewster.dto.BatchItemResultDTO;
 import com.vladproduction.fewster.dto.UrlDTO;
+import com.vladproduction.fewster.dto.UrlPageDTO;
+import com.vladproduction.fewster.dto.UrlSort;
 import com.vladproduction.fewster.entity.UrlEntity;
 import com.vladproduction.fewster.entity.User;
 import com.vladproduction.fewster.mapper.UrlMapper;
+import com.vladproduction.fewster.metrics.FewsterMetrics;
 import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UrlSummary;
 import com.vladproduction.fewster.security.AuthService;
 import com.vladproduction.fewster.service.UrlService;
 import com.vladproduction.fewster.utility.GlobalUtility;
+import com.vladproduction.fewster.utility.PageCursor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -19,64 +41,193 @@ import java.util.stream.Collectors;
 public class UrlServiceImpl implements UrlService {
 
     private final UrlRepository urlRepository;
+    private final UrlBatchCreator urlBatchCreator;
     private final AuthService authService;
     private final GlobalUtility globalUtility;
+    private final RedirectCache redirectCache;
+    private final ClickCountBuffer clickCountBuffer;
+    private final ClickRecorder clickRecorder;
+    private final ShortCodeBloomFilter shortCodeBloomFilter;
+    private final FewsterMetrics fewsterMetrics;
 
-    public UrlServiceImpl(UrlRepository urlRepository, AuthService authService, GlobalUtility globalUtility) {
+    @Value("${base.url.prefix}")
+    private String baseUrl;
+
+    @Value("${url.batch.maxSize}")
+    private int batchMaxSize;
+
+    @Value("${url.batch.chunkSize}")
+    private int batchChunkSize;
+
+    @Value("${url.page.defaultSize}")
+    private int defaultPageSize;
+
+    @Value("${url.page.maxSize}")
+    private int maxPageSize;
+
+    public UrlServiceImpl(UrlRepository urlRepository, UrlBatchCreator urlBatchCreator,
+                          AuthService authService, GlobalUtility globalUtility, RedirectCache redirectCache,
+                          ClickCountBuffer clickCountBuffer, ClickRecorder clickRecorder,
+                          ShortCodeBloomFilter shortCodeBloomFilter, FewsterMetrics fewsterMetrics) {
         this.urlRepository = urlRepository;
+        this.urlBatchCreator = urlBatchCreator;
         this.authService = authService;
         this.globalUtility = globalUtility;
+        this.redirectCache = redirectCache;
+        this.clickCountBuffer = clickCountBuffer;
+        this.clickRecorder = clickRecorder;
+        this.shortCodeBloomFilter = shortCodeBloomFilter;
+        this.fewsterMetrics = fewsterMetrics;
     }
 
     @Override
     public UrlDTO create(String urlText, boolean isDemo) {
-        log.info("Attempting to create and save url: {}", urlText);
-
-
-        // Get current authenticated user
-        User currentUser = isDemo ? authService.getDemoUser() : authService.getCurrentUser();
-
-        // Normalize the URL to prevent duplicates like "https://example.com" and "https://example.com/"
-        String normalizedUrl = globalUtility.normalizeUrl(urlText);
+        return create(urlText, isDemo, null);
+    }
 
-        // Validate URL format
-        if (globalUtility.isValidUrl(normalizedUrl)) {
-            throw new IllegalArgumentException("Invalid Url format: " + normalizedUrl);
+    @Override
+    public UrlDTO create(String urlText, boolean isDemo, LocalDateTime expiresAt) {
+        log.info("Attempting to create and save url: {}", urlText);
+        long start = System.nanoTime();
+        boolean success = false;
+
+        try {
+            // Get current authenticated user
+            User currentUser = isDemo ? authService.getDemoUser() : authService.getCurrentUser();
+
+            // Normalize the URL to prevent duplicates like "https://example.com" and "https://example.com/"
+            String normalizedUrl = globalUtility.normalizeUrl(urlText);
+
+            // Validate URL format
+            if (globalUtility.isValidUrl(normalizedUrl)) {
+                throw new IllegalArgumentException("Invalid Url format: " + normalizedUrl);
+            }
+
+            checkExpiry(expiresAt);
+
+            CreateOutcome outcome = urlBatchCreator.insertFirst(currentUser, normalizedUrl,
+                    globalUtility.hashUrl(normalizedUrl), expiresAt);
+            UrlEntity urlEntity = outcome.entity();
+            // An existing link takes the requested expiry like updateExpiry would, an expired one not reaped yet
+            // is revived even without one; a live link keeps its expiry when none is requested
+            if (!outcome.created() && (isExpired(urlEntity)
+                    || (expiresAt != null && !expiresAt.equals(urlEntity.getExpiresAt())))) {
+                urlEntity.setExpiresAt(expiresAt);
+                urlEntity = urlRepository.save(urlEntity);
+                redirectCache.invalidate(urlEntity.getShortCode());
+            }
+            UrlDTO created = toDTO(urlEntity);
+            success = true;
+            return created;
+        } finally {
+            fewsterMetrics.recordCreate(start, isDemo, success);
         }
+    }
 
-        // Check for duplicates for this specific user using the utility method
-        if (globalUtility.originalUrlExistsForUser(normalizedUrl, currentUser)) {
-            log.info("URL already exists for user {}, returning existing short URL", currentUser.getUsername());
-            UrlEntity existingUrl = urlRepository.findByOriginalUrlAndUser(normalizedUrl, currentUser).get();
-            return UrlMapper.toDTO(existingUrl);
+    @Override
+    public BatchCreateResultDTO createBatch(List<String> urlTexts) {
+        if (urlTexts == null || urlTexts.isEmpty()) {
+            throw new IllegalArgumentException("Batch should contain at least one url");
+        }
+        if (urlTexts.size() > batchMaxSize) {
+            throw new IllegalArgumentException("Batch is too large: " + urlTexts.size() + ", max is " + batchMaxSize);
         }
 
-        String shortUrl = globalUtility.generateUniqueShortUrl(normalizedUrl);
+        long start = System.nanoTime();
+        User currentUser = authService.getCurrentUser();
+        log.info("Attempting to create batch of {} urls for user: {}", urlTexts.size(), currentUser.getUsername());
+
+        BatchItemResultDTO[] items = new BatchItemResultDTO[urlTexts.size()];
+        // Dedupe within the batch by url digest, later occurrences share the result of the first one
+        Map<ByteBuffer, BatchUrl> uniqueUrls = new LinkedHashMap<>();
+        for (int i = 0; i < urlTexts.size(); i++) {
+            String normalizedUrl = globalUtility.normalizeUrl(urlTexts.get(i));
+            if (globalUtility.isValidUrl(normalizedUrl)) {
+                items[i] = failedItem(i, urlTexts.get(i), "Invalid Url format: " + normalizedUrl);
+                continue;
+            }
+            byte[] urlHash = globalUtility.hashUrl(normalizedUrl);
+            uniqueUrls.computeIfAbsent(ByteBuffer.wrap(urlHash), key -> new BatchUrl(normalizedUrl, urlHash, null))
+                    .indexes.add(i);
+        }
 
-        log.info("Creating URL Entity for user: {} where original Url: {} and short Url: {}",
-                currentUser.getUsername(), normalizedUrl, shortUrl);
+        // Chunks keep IN lists and insert transactions bounded
+        List<BatchUrl> batchUrls = new ArrayList<>(uniqueUrls.values());
+        for (int from = 0; from < batchUrls.size(); from += batchChunkSize) {
+            urlBatchCreator.createChunk(currentUser, batchUrls.subList(from, Math.min(from + batchChunkSize, batchUrls.size())));
+        }
 
-        UrlEntity urlEntity = new UrlEntity();
-        urlEntity.setOriginalUrl(normalizedUrl);
-        urlEntity.setShortUrl(shortUrl);
-        urlEntity.setUser(currentUser); // Associate with current user
+        BatchCreateResultDTO result = new BatchCreateResultDTO();
+        for (BatchUrl batchUrl : batchUrls) {
+            for (int index : batchUrl.indexes) {
+                items[index] = toItem(batchUrl, index, urlTexts.get(index));
+            }
+        }
+        for (BatchItemResultDTO item : items) {
+            switch (item.getStatus()) {
+                case CREATED -> result.setCreated(result.getCreated() + 1);
+                case EXISTING -> result.setExisting(result.getExisting() + 1);
+                case FAILED -> result.setFailed(result.getFailed() + 1);
+            }
+        }
 
-        log.info("Attempting to save url: {} ", urlEntity);
-        UrlEntity entity = urlRepository.save(urlEntity);
-        log.info("Saved successfully to database");
+        long elapsedNanos = System.nanoTime() - start;
+        result.setTotal(items.length);
+        result.setItems(Arrays.asList(items));
+        result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        result.setLinksPerSecond(items.length * 1_000_000_000.0 / Math.max(1, elapsedNanos));
 
-        return UrlMapper.toDTO(entity);
+        log.info("Created batch for user: {}, created: {}, existing: {}, failed: {} in {} ms ({} links/s)",
+                currentUser.getUsername(), result.getCreated(), result.getExisting(), result.getFailed(),
+                result.getElapsedMillis(), Math.round(result.getLinksPerSecond()));
+        return result;
     }
 
     @Override
-    public List<UrlDTO> getAllUrlsForCurrentUser() {
+    public UrlPageDTO getUrlsForCurrentUser(UrlSort sort, String cursor, Integer size) {
         User currentUser = authService.getCurrentUser();
-        log.info("Fetching all URLs for user: {}", currentUser.getUsername());
+        int pageSize = size == null ? defaultPageSize : size;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("Page size should be between 1 and " + maxPageSize + ": " + pageSize);
+        }
+        log.info("Fetching {} URLs page for user: {} sorted by {}", pageSize, currentUser.getUsername(), sort);
+
+        String sortName = sort.name().toLowerCase();
+        PageCursor after = cursor == null || cursor.isBlank() ? null : PageCursor.decode(cursor, sortName);
+
+        // One extra row tells whether there is a next page, no count query needed
+        Limit limit = Limit.of(pageSize + 1);
+        List<UrlSummary> rows = switch (sort) {
+            case CREATED -> after == null
+                    ? urlRepository.findPageByCreated(currentUser.getId(), limit)
+                    : urlRepository.findPageByCreatedAfter(currentUser.getId(),
+                            after.dateTimeValue(), after.id(), limit);
+            case CLICKS -> after == null
+                    ? urlRepository.findPageByClicks(currentUser.getId(), limit)
+                    : urlRepository.findPageByClicksAfter(currentUser.getId(),
+                            after.longValue(), after.id(), limit);
+        };
+
+        boolean hasNext = rows.size() > pageSize;
+        List<UrlSummary> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        UrlPageDTO page = new UrlPageDTO();
+        page.setSort(sortName);
+        page.setSize(pageSize);
+        page.setItems(pageRows.stream()
+                .map(row -> UrlMapper.toDTO(row, baseUrl, clickCountBuffer.pending(row.getId())))
+                .collect(Collectors.toList()));
+        if (hasNext) {
+            UrlSummary last = pageRows.get(pageRows.size() - 1);
+            String lastValue = sort == UrlSort.CREATED ? last.getCreatedAt().toString() : last.getClickCount().toString();
+            page.setNextCursor(new PageCursor(sortName, lastValue, last.getId()).encode());
+        }
+        return page;
+    }
 
-        List<UrlEntity> userUrls = urlRepository.findByUser(currentUser);
-        return userUrls.stream()
-                .map(UrlMapper::toDTO)
-                .collect(Collectors.toList());
+    @Override
+    public long countUrlsForCurrentUser() {
+        return urlRepository.countByUserId(authService.getCurrentUser().getId());
     }
 
     @Override
@@ -86,7 +237,7 @@ public class UrlServiceImpl implements UrlService {
         UrlEntity urlEntity = urlRepository.findByIdAndUser(id, currentUser)
                 .orElseThrow(() -> new RuntimeException("URL not found or access denied for ID: " + id));
 
-        return UrlMapper.toDTO(urlEntity);
+        return toDTO(urlEntity);
     }
 
     @Override
@@ -110,13 +261,31 @@ public class UrlServiceImpl implements UrlService {
         }
 
         urlEntity.setOriginalUrl(normalizedUrl);
+        urlEntity.setUrlHash(globalUtility.hashUrl(normalizedUrl));
         // Optionally regenerate short URL or keep the same one
-        // urlEntity.setShortUrl(globalUtility.generateUniqueShortUrl(normalizedUrl));
+        // urlEntity.setShortCode(globalUtility.generateUniqueShortCode(normalizedUrl));
 
         UrlEntity updatedEntity = urlRepository.save(urlEntity);
+        redirectCache.invalidate(updatedEntity.getShortCode());
         log.info("Updated URL with ID: {} for user: {}", id, currentUser.getUsername());
 
-        return UrlMapper.toDTO(updatedEntity);
+        return toDTO(updatedEntity);
+    }
+
+    @Override
+    public UrlDTO updateExpiry(Long id, LocalDateTime expiresAt) {
+        User currentUser = authService.getCurrentUser();
+        checkExpiry(expiresAt);
+
+        UrlEntity urlEntity = urlRepository.findByIdAndUser(id, currentUser)
+                .orElseThrow(() -> new RuntimeException("URL not found or access denied for ID: " + id));
+
+        urlEntity.setExpiresAt(expiresAt);
+        UrlEntity updatedEntity = urlRepository.save(urlEntity);
+        redirectCache.invalidate(updatedEntity.getShortCode());
+        log.info("Set expiry of URL with ID: {} for user: {} to {}", id, currentUser.getUsername(), expiresAt);
+
+        return toDTO(updatedEntity);
     }
 
     @Override
@@ -127,23 +296,98 @@ public class UrlServiceImpl implements UrlService {
                 .orElseThrow(() -> new RuntimeException("URL not found or access denied for ID: " + id));
 
         urlRepository.delete(urlEntity);
+        redirectCache.invalidate(urlEntity.getShortCode());
+        clickCountBuffer.discard(urlEntity.getId());
+        shortCodeBloomFilter.recordDelete();
         log.info("Deleted URL with ID: {} for user: {}", id, currentUser.getUsername());
     }
 
     // This method can be used for public redirection (no authentication required)
     @Override
-    public String getOriginalByShortUrl(String shortUrl) {
-        UrlEntity urlEntity = urlRepository.findByShortUrl(shortUrl)
-                .orElseThrow(() -> new RuntimeException("Original URL not found by short: " + shortUrl));
+    public String getOriginalByShortCode(String shortCode) {
+        return resolveRedirect(shortCode)
+                .orElseThrow(() -> new RuntimeException("Original URL not found by short: " + shortCode));
+    }
 
-        // Increment click count
-        urlEntity.incrementClickCount();
-        urlRepository.save(urlEntity);
+    @Override
+    public Optional<String> resolveRedirect(String shortCode) {
+        return resolveRedirect(shortCode, null, null, null);
+    }
+
+    @Override
+    public Optional<String> resolveRedirect(String shortCode, String referrer, String userAgent, String clientAddress) {
+        long start = System.nanoTime();
 
-        log.info("Redirecting short URL: {} to: {} (click count: {})",
-                shortUrl, urlEntity.getOriginalUrl(), urlEntity.getClickCount());
+        Optional<RedirectTarget> target = findLiveTarget(shortCode);
+        if (target.isEmpty()) {
+            fewsterMetrics.recordRedirect(start, false);
+            return Optional.empty();
+        }
+
+        clickRecorder.record(target.get().id(), shortCode, referrer, userAgent, clientAddress);
+
+        log.debug("Redirecting short code: {} to: {}", shortCode, target.get().originalUrl());
+        fewsterMetrics.recordRedirect(start, true);
+
+        return Optional.of(target.get().originalUrl());
+    }
+
+    @Override
+    public Optional<String> peekRedirect(String shortCode) {
+        return findLiveTarget(shortCode).map(RedirectTarget::originalUrl);
+    }
+
+    private Optional<RedirectTarget> findLiveTarget(String shortCode) {
+        // Longer codes are never issued, no need to look them up
+        if (shortCode == null || shortCode.isEmpty() || shortCode.length() > UrlEntity.SHORT_CODE_MAX_LENGTH) {
+            return Optional.empty();
+        }
+
+        // Scanned random codes stop here without a query; not cached as misses, a code created on another node
+        // is found once the filter synced it
+        if (shortCodeBloomFilter.isDefinitelyAbsent(shortCode)) {
+            return Optional.empty();
+        }
+
+        // Expiry comes with the target, no extra query; expired rows wait for UrlExpiryReaper
+        return redirectCache.get(shortCode, urlRepository::findRedirectTargetByShortCode)
+                .filter(target -> !target.isExpired());
+    }
+
+    private static void checkExpiry(LocalDateTime expiresAt) {
+        if (expiresAt != null && !expiresAt.isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Expiry should be in the future: " + expiresAt);
+        }
+    }
+
+    private static boolean isExpired(UrlEntity urlEntity) {
+        return urlEntity.getExpiresAt() != null && !urlEntity.getExpiresAt().isAfter(LocalDateTime.now());
+    }
+
+    private static BatchItemResultDTO failedItem(int index, String urlText, String error) {
+        BatchItemResultDTO item = new BatchItemResultDTO();
+        item.setIndex(index);
+        item.setUrlText(urlText);
+        item.setStatus(BatchItemResultDTO.Status.FAILED);
+        item.setError(error);
+        return item;
+    }
+
+    private BatchItemResultDTO toItem(BatchUrl batchUrl, int index, String urlText) {
+        if (batchUrl.status == null || batchUrl.status == BatchItemResultDTO.Status.FAILED) {
+            return failedItem(index, urlText, batchUrl.error != null ? batchUrl.error : "Url was not created");
+        }
+        BatchItemResultDTO item = new BatchItemResultDTO();
+        item.setIndex(index);
+        item.setUrlText(urlText);
+        item.setStatus(batchUrl.status);
+        item.setUrl(toDTO(batchUrl.entity));
+        return item;
+    }
 
-        return urlEntity.getOriginalUrl();
+    // Click count as persisted plus clicks still waiting in the write-behind buffer
+    private UrlDTO toDTO(UrlEntity entity) {
+        return UrlMapper.toDTO(entity, baseUrl, clickCountBuffer.pending(entity.getId()));
     }
 
 }
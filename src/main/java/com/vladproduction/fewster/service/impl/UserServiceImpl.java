@@ -1,5 +1,6 @@
 package com.vladproduction.fewster.service.impl;
 
+import com.vladproduction.fewster.cache.UserLookupCache;
 import com.vladproduction.fewster.entity.User;
 import com.vladproduction.fewster.repository.UserRepository;
 import com.vladproduction.fewster.service.UserService;
@@ -14,10 +15,12 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserLookupCache userLookupCache;
 
-    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, PasswordEncoder passwordEncoder, UserLookupCache userLookupCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userLookupCache = userLookupCache;
     }
 
     @Override
@@ -28,6 +31,7 @@ public class UserServiceImpl implements UserService {
         log.debug("Password: {} for user: {} has been successfully encoded.", user.getPassword(), user);
 
         userRepository.save(user);
+        userLookupCache.invalidate(user.getUsername());
         log.info("User: {} saved successfully.", user);
     }
 }
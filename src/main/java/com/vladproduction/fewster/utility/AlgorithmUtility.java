@@ -53,4 +53,28 @@ public class AlgorithmUtility {
         return shortCode.toString();
     }
 
+    /**
+     * method to encode a non-negative number with characters literal (base62),
+     * left padded with the zero character up to minLength
+     */
+    public String encodeBase62(long value, int minLength) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value to encode should be not negative: " + value);
+        }
+
+        int base = characters.length();
+        char[] buffer = new char[Math.max(minLength, 11)]; // 62^11 > Long.MAX_VALUE
+        int position = buffer.length;
+        do {
+            buffer[--position] = characters.charAt((int) (value % base));
+            value /= base;
+        } while (value > 0);
+
+        while (buffer.length - position < minLength) {
+            buffer[--position] = characters.charAt(0);
+        }
+
+        return new String(buffer, position, buffer.length - position);
+    }
+
 }
@@ -1,13 +1,23 @@
 package com.vladproduction.fewster.utility;
 
+import com.vladproduction.fewster.cache.ShortCodeBloomFilter;
+import com.vladproduction.fewster.entity.UrlEntity;
 import com.vladproduction.fewster.entity.User;
-import com.vladproduction.fewster.exception.ShortUrlGenerationException;
 import com.vladproduction.fewster.repository.UrlRepository;
 import com.vladproduction.fewster.service.ShortAlgorithmService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
 @Slf4j
 @Component
 public class GlobalUtility {
@@ -15,39 +25,93 @@ public class GlobalUtility {
     public static final String HTTP = "http://";
     public static final String HTTPS = "https://";
 
+    private static final Pattern CUSTOM_SHORT_CODE =
+            Pattern.compile("[A-Za-z0-9_-]{1," + UrlEntity.SHORT_CODE_MAX_LENGTH + "}");
+
     @Value("${generate.unique.short.url.maxAttempt}")
     private int maxAttempt;
 
+    @Value("${base.url.prefix}")
+    private String baseUrl;
+
     private final UrlRepository urlRepository;
     private final ShortAlgorithmService algorithmService;
+    private final ShortCodeBloomFilter shortCodeBloomFilter;
 
-    public GlobalUtility(UrlRepository urlRepository, ShortAlgorithmService algorithmService) {
+    public GlobalUtility(UrlRepository urlRepository, ShortAlgorithmService algorithmService,
+                         ShortCodeBloomFilter shortCodeBloomFilter) {
         this.urlRepository = urlRepository;
         this.algorithmService = algorithmService;
+        this.shortCodeBloomFilter = shortCodeBloomFilter;
     }
 
     /**
-     * Helper method to generate globally unique short URL
-     * Note: Short URLs must be unique across ALL users for redirection to work properly
+     * Helper method to get short code candidate for the given attempt (0 based)
+     * Note: Short codes must be unique across ALL users for redirection to work properly,
+     * uniqueness itself is enforced by the database (uk_url_short_code) when the candidate is inserted
      */
-    public String generateUniqueShortUrl(String originalUrl) {
-        String shortUrl = algorithmService.makeShort(originalUrl);
+    public String shortCodeCandidate(String originalUrl, int attempt) {
+        return attempt == 0
+                ? algorithmService.makeShort(originalUrl)
+                : algorithmService.makeShort(originalUrl + "_" + (attempt - 1));
+    }
 
-        int attempts = 0;
+    /**
+     * Helper method to check whether the candidate is worth inserting:
+     * false when the bloom filter already knows the code (it is most likely taken)
+     */
+    public boolean isShortCodeLikelyFree(String shortCode) {
+        return algorithmService.isUniqueByConstruction()
+                || !shortCodeBloomFilter.isReady()
+                || !shortCodeBloomFilter.mightContain(shortCode);
+    }
 
-        // Short URLs must be globally unique since they're used for public redirection
-        while (attempts < maxAttempt && urlRepository.existsByShortUrl(shortUrl)) {
-            log.warn("Short URL collision detected: {}, regenerating... (attempt {})", shortUrl, attempts + 1);
-            shortUrl = algorithmService.makeShort(originalUrl + "_" + attempts);
-            attempts++;
+    /**
+     * Helper method to find which of the candidates are already taken, with a single query:
+     * only codes the bloom filter might contain are looked up
+     */
+    public Set<String> findTakenShortCodes(Collection<String> shortCodes) {
+        if (algorithmService.isUniqueByConstruction()) {
+            return Set.of();
         }
+        return findIssuedShortCodes(shortCodes);
+    }
 
-        if (attempts >= maxAttempt) {
-            throw new ShortUrlGenerationException("Unable to generate unique short URL after " + maxAttempt + " attempts for URL: " + originalUrl);
-        }
+    /**
+     * Helper method to find which of the codes were already issued, whatever the strategy
+     * (custom codes can collide with generated ones)
+     */
+    public Set<String> findIssuedShortCodes(Collection<String> shortCodes) {
+        List<String> possiblyTaken = shortCodes.stream()
+                .filter(shortCodeBloomFilter::mightContain)
+                .toList();
+        return possiblyTaken.isEmpty() ? Set.of() : new HashSet<>(urlRepository.findExistingShortCodes(possiblyTaken));
+    }
 
-        log.info("Generated unique short URL: {} after {} attempts", shortUrl, attempts);
-        return shortUrl;
+    public int getMaxAttempt() {
+        return maxAttempt;
+    }
+
+    /**
+     * Helper method to build public short URL from stored short code
+     */
+    public String toShortUrl(String shortCode) {
+        return baseUrl + shortCode;
+    }
+
+    /**
+     * Helper method to get short code from a public short URL,
+     * bare short code is returned as is
+     */
+    public String extractShortCode(String shortUrl) {
+        if (shortUrl == null) {
+            return null;
+        }
+        String trimmed = shortUrl.trim();
+        if (trimmed.startsWith(baseUrl)) {
+            return trimmed.substring(baseUrl.length());
+        }
+        return trimmed.substring(trimmed.lastIndexOf('/') + 1);
     }
 
     /**
@@ -55,7 +119,7 @@ public class GlobalUtility {
      * This prevents users from creating duplicate entries for the same original URL
      */
     public boolean originalUrlExistsForUser(String originalUrl, User user) {
-        return urlRepository.findByOriginalUrlAndUser(originalUrl, user).isPresent();
+        return urlRepository.findByUserIdAndUrlHash(user.getId(), hashUrl(originalUrl)).isPresent();
     }
 
     /**
@@ -63,11 +127,31 @@ public class GlobalUtility {
      * Useful for update operations where we want to allow updating to the same URL
      */
     public boolean originalUrlExistsForUserExcluding(String originalUrl, User user, Long excludeUrlId) {
-        return urlRepository.findByOriginalUrlAndUser(originalUrl, user)
+        return urlRepository.findByUserIdAndUrlHash(user.getId(), hashUrl(originalUrl))
                 .filter(urlEntity -> !urlEntity.getId().equals(excludeUrlId))
                 .isPresent();
     }
 
+    /**
+     * Helper method to get fixed-width digest (SHA-256 of UTF-8 bytes) of a normalized URL,
+     * matches UNHEX(SHA2(original_url, 256)) used by the database backfill
+     */
+    public byte[] hashUrl(String normalizedUrl) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(normalizedUrl.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // every JVM is required to support SHA-256
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Helper method to check if a custom short code is acceptable: 1 to 16 of [A-Za-z0-9_-]
+     */
+    public boolean isValidShortCode(String shortCode) {
+        return shortCode != null && CUSTOM_SHORT_CODE.matcher(shortCode).matches();
+    }
+
     /**
      * Helper method to check if URL is valid
      */
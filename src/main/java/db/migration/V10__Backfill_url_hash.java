@@ -0,0 +1,59 @@
+package db.migration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Online backfill of url.url_hash: walks the table in primary key ranges and commits every chunk,
+ * so no long running transaction holds row locks while the application keeps serving traffic.
+ * Safe to re-run, rows that already have a hash are skipped.
+ */
+@Slf4j
+public class V10__Backfill_url_hash extends BaseJavaMigration {
+
+    private static final int CHUNK_SIZE = 5000;
+
+    private static final String BACKFILL_SQL =
+            "UPDATE url SET url_hash = UNHEX(SHA2(original_url, 256)) WHERE id > ? AND id <= ? AND url_hash IS NULL";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+
+        try {
+            long maxId;
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM url")) {
+                resultSet.next();
+                maxId = resultSet.getLong(1);
+            }
+
+            long updated = 0;
+            try (PreparedStatement backfill = connection.prepareStatement(BACKFILL_SQL)) {
+                for (long from = 0; from < maxId; from += CHUNK_SIZE) {
+                    backfill.setLong(1, from);
+                    backfill.setLong(2, from + CHUNK_SIZE);
+                    updated += backfill.executeUpdate();
+                }
+            }
+
+            log.info("Backfilled url_hash for {} rows (max id {})", updated, maxId);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+}
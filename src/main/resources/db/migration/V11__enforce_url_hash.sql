@@ -0,0 +1,23 @@
+-- Catch up rows created after the V10 backfill (e.g. by nodes still running the previous version)
+UPDATE url SET url_hash = UNHEX(SHA2(original_url, 256)) WHERE url_hash IS NULL;
+
+-- Concurrent creates could store the same url twice for one user. The short codes of all of them
+-- are published, so every row stays and keeps redirecting with its own clicks: only the oldest row
+-- keeps its digest and is what dedupe returns, the others are left without one (unique keys allow
+-- any number of NULLs) and are never matched by a digest lookup again.
+UPDATE url duplicate
+    JOIN (SELECT MIN(id) AS keep_id, user_id, url_hash
+          FROM url
+          GROUP BY user_id, url_hash
+          HAVING COUNT(*) > 1) duplicates
+        ON duplicate.user_id = duplicates.user_id
+        AND duplicate.url_hash = duplicates.url_hash
+        AND duplicate.id <> duplicates.keep_id
+SET duplicate.url_hash = NULL;
+
+-- Dedupe becomes a point lookup on (user_id, url_hash), the prefix index is no longer needed.
+-- The column stays nullable for the retired duplicates, the application always writes it.
+ALTER TABLE url
+    ADD CONSTRAINT uk_url_user_hash UNIQUE (user_id, url_hash),
+    DROP INDEX idx_url_original_user,
+    ALGORITHM=INPLACE, LOCK=NONE;
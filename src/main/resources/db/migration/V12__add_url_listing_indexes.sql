@@ -0,0 +1,4 @@
+-- Keyset pagination of a user's urls: WHERE user_id = ? AND (sort_value, id) < (?, ?) ORDER BY sort_value DESC, id DESC
+-- reads the next page straight from the index, whatever page is requested
+CREATE INDEX idx_url_user_created ON url (user_id, created_at, id) ALGORITHM=INPLACE LOCK=NONE;
+CREATE INDEX idx_url_user_clicks ON url (user_id, click_count, id) ALGORITHM=INPLACE LOCK=NONE;
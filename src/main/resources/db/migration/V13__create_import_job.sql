@@ -0,0 +1,16 @@
+-- Progress of CSV imports: last_committed_line is where a re-upload of the same file resumes
+CREATE TABLE IF NOT EXISTS import_job (
+    id                  BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id             BIGINT        NOT NULL,
+    filename            VARCHAR(255),
+    status              VARCHAR(16)   NOT NULL,
+    lines_read          BIGINT        NOT NULL DEFAULT 0,
+    last_committed_line BIGINT        NOT NULL DEFAULT 0,
+    created_count       BIGINT        NOT NULL DEFAULT 0,
+    existing_count      BIGINT        NOT NULL DEFAULT 0,
+    failed_count        BIGINT        NOT NULL DEFAULT 0,
+    last_error          VARCHAR(1024),
+    created_at          DATETIME(6)   NOT NULL,
+    updated_at          DATETIME(6)   NOT NULL,
+    CONSTRAINT fk_import_job_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
@@ -0,0 +1,10 @@
+-- Personal API tokens: only the HMAC-SHA256 of the token is stored, the raw token is shown once on creation
+CREATE TABLE IF NOT EXISTS api_token (
+    id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id    BIGINT       NOT NULL,
+    name       VARCHAR(64)  NOT NULL,
+    token_hash BINARY(32)   NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    CONSTRAINT uk_api_token_hash UNIQUE (token_hash),
+    CONSTRAINT fk_api_token_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
@@ -0,0 +1,18 @@
+-- One row per redirect for time based analytics (clicks per hour, top referrers),
+-- written in batches by ClickEventWriter.
+-- Partitioned by day so retention drops whole partitions; ClickEventPartitionManager splits
+-- daily partitions off p_future ahead of time and drops expired ones.
+-- Partitioned tables can not have foreign keys: rows of deleted urls stay until their partition expires.
+CREATE TABLE IF NOT EXISTS click_event (
+    id                BIGINT       NOT NULL AUTO_INCREMENT,
+    url_id            BIGINT       NOT NULL,
+    clicked_at        DATETIME(3)  NOT NULL,
+    referrer_host     VARCHAR(255) NULL,
+    user_agent_family VARCHAR(16)  NOT NULL,
+    -- the partitioning column must be part of every unique key
+    PRIMARY KEY (id, clicked_at),
+    KEY idx_click_event_url_clicked (url_id, clicked_at)
+)
+PARTITION BY RANGE (TO_DAYS(clicked_at)) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
@@ -0,0 +1,45 @@
+-- Click counts per hour and per day, per url and per user, folded in incrementally from click_event
+-- by ClickRollupJob; stats reads touch only these tables, one primary key range per query.
+-- bucket_start is the start of the hour / day in server local time, like click_event.clicked_at.
+CREATE TABLE IF NOT EXISTS click_rollup_url_hour (
+    url_id       BIGINT   NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    clicks       BIGINT   NOT NULL,
+    PRIMARY KEY (url_id, bucket_start),
+    CONSTRAINT fk_click_rollup_url_hour_url_id FOREIGN KEY (url_id) REFERENCES url(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS click_rollup_url_day (
+    url_id       BIGINT   NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    clicks       BIGINT   NOT NULL,
+    PRIMARY KEY (url_id, bucket_start),
+    CONSTRAINT fk_click_rollup_url_day_url_id FOREIGN KEY (url_id) REFERENCES url(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS click_rollup_user_hour (
+    user_id      BIGINT   NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    clicks       BIGINT   NOT NULL,
+    PRIMARY KEY (user_id, bucket_start),
+    CONSTRAINT fk_click_rollup_user_hour_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS click_rollup_user_day (
+    user_id      BIGINT   NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    clicks       BIGINT   NOT NULL,
+    PRIMARY KEY (user_id, bucket_start),
+    CONSTRAINT fk_click_rollup_user_day_user_id FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- High-water mark of the rollups: click_event rows with id <= last_event_id are folded in.
+-- seen_event_id is the highest id at the end of the previous run, the next run folds up to it,
+-- giving writes still in flight with lower ids one run interval to commit.
+CREATE TABLE IF NOT EXISTS click_rollup_checkpoint (
+    name          VARCHAR(64) NOT NULL PRIMARY KEY,
+    last_event_id BIGINT      NOT NULL,
+    seen_event_id BIGINT      NOT NULL
+);
+
+INSERT INTO click_rollup_checkpoint (name, last_event_id, seen_event_id) VALUES ('click_event', 0, 0);
@@ -0,0 +1,11 @@
+-- Unique visitors per url and day as a HyperLogLog sketch (2048 registers, see HyperLogLog.toBytes):
+-- sparse form while few visitors were seen, at most 2049 bytes once dense.
+-- VisitorSketchFlusher merges the sketches buffered in memory into these rows (register maximum),
+-- the visitors of a range of days are the merge of its rows.
+CREATE TABLE IF NOT EXISTS url_visitor_sketch (
+    url_id    BIGINT          NOT NULL,
+    visit_day DATE            NOT NULL,
+    registers VARBINARY(2049) NOT NULL,
+    PRIMARY KEY (url_id, visit_day),
+    CONSTRAINT fk_url_visitor_sketch_url_id FOREIGN KEY (url_id) REFERENCES url(id) ON DELETE CASCADE
+);
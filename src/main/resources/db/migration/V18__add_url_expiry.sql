@@ -0,0 +1,7 @@
+-- Optional expiry of a link: NULL never expires, expired links stop redirecting at once
+-- and are deleted in small batches by UrlExpiryReaper.
+ALTER TABLE url ADD COLUMN expires_at DATETIME(6) NULL, ALGORITHM=INSTANT;
+
+-- The reaper reads expired rows in (expires_at, id) order straight from the index:
+-- WHERE expires_at <= now AND (expires_at, id) > (?, ?), rows that never expire (NULL) are not visited
+CREATE INDEX idx_url_expires ON url (expires_at, id) ALGORITHM=INPLACE LOCK=NONE;
@@ -0,0 +1,7 @@
+-- Fingerprint of the file a job was started with: a resume must upload the same bytes,
+-- otherwise skipping the first last_committed_line lines would drop rows of a different file.
+-- NULL for jobs started before fingerprints were recorded, their next upload sets it.
+ALTER TABLE import_job
+    ADD COLUMN file_size   BIGINT     NULL,
+    ADD COLUMN file_sha256 BINARY(32) NULL,
+    ALGORITHM=INSTANT;
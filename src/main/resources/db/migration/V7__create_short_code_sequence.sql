@@ -0,0 +1,8 @@
+-- Allocator for sequence based short codes: every node leases a block of values
+-- by advancing next_value under a row lock, then hands them out from memory
+CREATE TABLE IF NOT EXISTS short_code_sequence (
+    name       VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_value BIGINT      NOT NULL
+);
+
+INSERT INTO short_code_sequence (name, next_value) VALUES ('short_url', 1);
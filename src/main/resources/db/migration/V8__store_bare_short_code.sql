@@ -0,0 +1,10 @@
+-- Keep only the code part of short urls (everything after the last '/'),
+-- the public prefix (base.url.prefix) is added when the url is returned by the API
+UPDATE url SET short_url = SUBSTRING_INDEX(short_url, '/', -1);
+
+-- Narrow, single byte, case-sensitive key column: smaller unique index and byte-wise comparisons.
+-- Note: previous column used a case-insensitive collation, so "abcDEF" and "ABCdef" were treated as duplicates
+ALTER TABLE url
+    DROP INDEX UKqj1hl3a9n83kqdax9ugtqacsd,
+    CHANGE COLUMN short_url short_code VARCHAR(16) CHARACTER SET ascii COLLATE ascii_bin NOT NULL,
+    ADD CONSTRAINT uk_url_short_code UNIQUE (short_code);
@@ -0,0 +1,4 @@
+-- Fixed-width digest (SHA-256) of the normalized original url, used for per-user duplicate checks
+-- instead of the 255 character prefix index on original_url.
+-- Nullable first so the column is added instantly, rows are filled by the chunked V10 backfill
+ALTER TABLE url ADD COLUMN url_hash BINARY(32) NULL, ALGORITHM=INSTANT;
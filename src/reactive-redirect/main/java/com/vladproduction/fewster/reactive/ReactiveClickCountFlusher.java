@@ -0,0 +1,95 @@
+package com.vladproduction.fewster.reactive;
+
+import com.vladproduction.fewster.click.ClickCountBuffer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Write-behind for {@link ClickCountBuffer} in the reactive redirect tier, same contract as
+ * ClickCountFlusher: relative updates in one transaction, restored into the buffer when they fail.
+ * Every chunk of rows is a single statement ({@code click_count + CASE id WHEN ... END WHERE id IN (...)}),
+ * the flush runs on the scheduler thread, never on an event loop.
+ */
+@Slf4j
+@Profile(ReactiveRedirectApplication.PROFILE)
+@Component
+public class ReactiveClickCountFlusher {
+
+    @Value("${click.buffer.batchSize}")
+    private int batchSize;
+
+    private final ClickCountBuffer clickCountBuffer;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveClickCountFlusher(ClickCountBuffer clickCountBuffer, DatabaseClient databaseClient,
+                                     TransactionalOperator transactionalOperator) {
+        this.clickCountBuffer = clickCountBuffer;
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+    }
+
+    @Scheduled(fixedDelayString = "${click.buffer.flushIntervalMillis}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = clickCountBuffer.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Ordered by id so concurrent flushes from several nodes lock rows in the same order
+        List<Map.Entry<Long, Long>> rows = new ArrayList<>(deltas.entrySet());
+        rows.sort(Map.Entry.comparingByKey());
+
+        List<List<Map.Entry<Long, Long>>> chunks = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            chunks.add(rows.subList(from, Math.min(from + batchSize, rows.size())));
+        }
+
+        try {
+            Flux.fromIterable(chunks)
+                    .concatMap(chunk -> incrementStatement(chunk).fetch().rowsUpdated())
+                    .as(transactionalOperator::transactional)
+                    .blockLast();
+            clickCountBuffer.commit();
+            log.debug("Flushed clicks for {} urls", rows.size());
+        } catch (RuntimeException e) {
+            clickCountBuffer.restore(deltas);
+            log.error("Failed to flush clicks for {} urls, will retry on next flush", rows.size(), e);
+        }
+    }
+
+    private DatabaseClient.GenericExecuteSpec incrementStatement(List<Map.Entry<Long, Long>> chunk) {
+        StringBuilder sql = new StringBuilder("UPDATE url SET click_count = click_count + CASE id");
+        List<Long> ids = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(" WHEN :id").append(i).append(" THEN :delta").append(i);
+            ids.add(chunk.get(i).getKey());
+        }
+        sql.append(" ELSE 0 END WHERE id IN (:ids)");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString()).bind("ids", ids);
+        for (int i = 0; i < chunk.size(); i++) {
+            spec = spec.bind("id" + i, chunk.get(i).getKey()).bind("delta" + i, chunk.get(i).getValue());
+        }
+        return spec;
+    }
+
+    // Persist whatever is still buffered when the application shuts down
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing buffered clicks before shutdown");
+        flush();
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.vladproduction.fewster.reactive;
+
+import com.vladproduction.fewster.cache.HotLinkTracker;
+import com.vladproduction.fewster.cache.RedirectCache;
+import com.vladproduction.fewster.click.ClickCountBuffer;
+import com.vladproduction.fewster.click.ClickEventBuffer;
+import com.vladproduction.fewster.click.ClickHistogramRegistry;
+import com.vladproduction.fewster.click.ClickRecorder;
+import com.vladproduction.fewster.click.VisitorSketchBuffer;
+import com.vladproduction.fewster.metrics.FewsterMetrics;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Separately deployable public redirect tier: WebFlux on a few event-loop threads, R2DBC to the same url table.
+ * Serves only GET /r/{shortCode}, with the same resolution (redirect cache with negative caching) and click
+ * recording ({@link ClickRecorder}: count, live histogram, hot links) as the main application.
+ * Built only by the reactive-redirect Maven profile (sources in src/reactive-redirect), which adds WebFlux and R2DBC:
+ * mvn -P reactive-redirect package, then java -jar target/Fewster-reactive-redirect-*.jar
+ * (configuration in application-reactive-redirect.properties).
+ * Only scans this package; the Spring profile keeps it out of the main application's component scan.
+ * The main application can not invalidate this tier's cache, so changes to a link (delete, new target, expiry)
+ * reach it only when the cached entry expires: redirect.cache.expireAfterWriteSeconds, short in the tier's profile.
+ */
+@Profile(ReactiveRedirectApplication.PROFILE)
+@SpringBootApplication
+@EnableScheduling
+@Import({RedirectCache.class, ClickRecorder.class, ClickCountBuffer.class, ClickEventBuffer.class,
+        ClickHistogramRegistry.class, HotLinkTracker.class, VisitorSketchBuffer.class, FewsterMetrics.class})
+public class ReactiveRedirectApplication {
+
+    public static final String PROFILE = "reactive-redirect";
+
+    // Tomcat is on the classpath for the main application and would otherwise be picked for WebFlux too
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveRedirectApplication.class)
+                .profiles(PROFILE)
+                .run(args);
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.vladproduction.fewster.reactive;
+
+import com.vladproduction.fewster.cache.RedirectCache;
+import com.vladproduction.fewster.cache.RedirectTarget;
+import com.vladproduction.fewster.click.ClickRecorder;
+import com.vladproduction.fewster.entity.UrlEntity;
+import com.vladproduction.fewster.metrics.FewsterMetrics;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.Optional;
+
+@Profile(ReactiveRedirectApplication.PROFILE)
+@Component
+public class ReactiveRedirectHandler {
+
+    private final ReactiveUrlRepository reactiveUrlRepository;
+    private final RedirectCache redirectCache;
+    private final ClickRecorder clickRecorder;
+    private final FewsterMetrics fewsterMetrics;
+
+    public ReactiveRedirectHandler(ReactiveUrlRepository reactiveUrlRepository, RedirectCache redirectCache,
+                                   ClickRecorder clickRecorder, FewsterMetrics fewsterMetrics) {
+        this.reactiveUrlRepository = reactiveUrlRepository;
+        this.redirectCache = redirectCache;
+        this.clickRecorder = clickRecorder;
+        this.fewsterMetrics = fewsterMetrics;
+    }
+
+    /**
+     * Redirect to original URL using short code, 404 when the code is unknown or expired.
+     * HEAD is answered the same way without counting a click
+     * GET: <a href="http://localhost:8081/r/{shortCode}">...</a>
+     */
+    public Mono<ServerResponse> redirect(ServerRequest request) {
+        String shortCode = request.pathVariable("shortCode");
+        long start = System.nanoTime();
+        if (!isShortCodeFormat(shortCode)) {
+            fewsterMetrics.recordRedirect(start, false);
+            return ServerResponse.notFound().build();
+        }
+
+        return Mono.fromFuture(() -> redirectCache.getAsync(shortCode, key -> reactiveUrlRepository
+                        .findRedirectTargetByShortCode(key)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .toFuture()))
+                .map(target -> target.filter(found -> !found.isExpired()))
+                .doOnNext(target -> fewsterMetrics.recordRedirect(start, target.isPresent()))
+                .flatMap(target -> target.map(live -> found(request, shortCode, live))
+                        .orElseGet(() -> ServerResponse.notFound().build()));
+    }
+
+    private Mono<ServerResponse> found(ServerRequest request, String shortCode, RedirectTarget target) {
+        if (!HttpMethod.HEAD.equals(request.method())) {
+            // Same recording as the servlet path, the count is persisted in batches by ReactiveClickCountFlusher
+            clickRecorder.record(target.id(), shortCode, request.headers().firstHeader(HttpHeaders.REFERER),
+                    request.headers().firstHeader(HttpHeaders.USER_AGENT),
+                    request.remoteAddress().map(InetSocketAddress::getHostString).orElse(null));
+        }
+        return ServerResponse.status(HttpStatus.FOUND)
+                .header(HttpHeaders.LOCATION, target.originalUrl())
+                .build();
+    }
+
+    // Codes are 1..SHORT_CODE_MAX_LENGTH of [A-Za-z0-9_-], anything else can not exist
+    private static boolean isShortCodeFormat(String shortCode) {
+        if (shortCode.isEmpty() || shortCode.length() > UrlEntity.SHORT_CODE_MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < shortCode.length(); i++) {
+            char c = shortCode.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
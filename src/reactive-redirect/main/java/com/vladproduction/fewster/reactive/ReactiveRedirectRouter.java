@@ -0,0 +1,22 @@
+package com.vladproduction.fewster.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RequestPredicates.HEAD;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+@Profile(ReactiveRedirectApplication.PROFILE)
+@Configuration
+public class ReactiveRedirectRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> redirectRoutes(ReactiveRedirectHandler handler) {
+        return route(GET("/r/{shortCode}").or(HEAD("/r/{shortCode}")), handler::redirect);
+    }
+
+}
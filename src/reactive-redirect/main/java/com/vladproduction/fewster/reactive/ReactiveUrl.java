@@ -0,0 +1,11 @@
+package com.vladproduction.fewster.reactive;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Read-only R2DBC mapping of the url table, only the columns the redirect tier touches
+ */
+@Table("url")
+public record ReactiveUrl(@Id Long id, String originalUrl, String shortCode, Long clickCount) {
+}
@@ -0,0 +1,16 @@
+package com.vladproduction.fewster.reactive;
+
+import com.vladproduction.fewster.cache.RedirectTarget;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of UrlRepository.findRedirectTargetByShortCode for the reactive redirect tier
+ */
+public interface ReactiveUrlRepository extends ReactiveCrudRepository<ReactiveUrl, Long> {
+
+    @Query("select id, original_url, expires_at from url where short_code = :shortCode")
+    Mono<RedirectTarget> findRedirectTargetByShortCode(String shortCode);
+
+}
@@ -0,0 +1,92 @@
+package com.vladproduction.fewster.reactive;
+
+import com.vladproduction.fewster.cache.HotLinkTracker;
+import com.vladproduction.fewster.click.ClickHistogramRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ReactiveRedirectApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.r2dbc.url=r2dbc:h2:mem:///reactive-redirect;DB_CLOSE_DELAY=-1")
+@ActiveProfiles({"test", ReactiveRedirectApplication.PROFILE})
+class ReactiveRedirectApplicationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ReactiveClickCountFlusher reactiveClickCountFlusher;
+
+    @Autowired
+    private ClickHistogramRegistry clickHistogramRegistry;
+
+    @Autowired
+    private HotLinkTracker hotLinkTracker;
+
+    @BeforeEach
+    void setUp() {
+        // Schema is owned by the main application, only the columns the redirect tier reads are needed here
+        databaseClient.sql("CREATE TABLE IF NOT EXISTS url (id BIGINT PRIMARY KEY, original_url VARCHAR(2048), "
+                + "short_code VARCHAR(20) UNIQUE, click_count BIGINT NOT NULL DEFAULT 0, expires_at TIMESTAMP NULL)").then().block();
+        databaseClient.sql("DELETE FROM url").then().block();
+        databaseClient.sql("INSERT INTO url (id, original_url, short_code, click_count) "
+                + "VALUES (1, 'https://example.com/reactive', 'react1', 0)").then().block();
+    }
+
+    @Test
+    void redirect_knownShortCode_returnsFoundAndRecordsClick() {
+        // Act
+        webTestClient.get().uri("/r/react1").exchange()
+                .expectStatus().isFound()
+                .expectHeader().valueEquals(HttpHeaders.LOCATION, "https://example.com/reactive");
+        webTestClient.get().uri("/r/react1").exchange()
+                .expectStatus().isFound();
+        reactiveClickCountFlusher.flush();
+
+        // Assert
+        Long clickCount = databaseClient.sql("SELECT click_count FROM url WHERE id = 1")
+                .map(row -> row.get("click_count", Long.class))
+                .one()
+                .block();
+        assertEquals(2L, clickCount);
+        assertTrue(clickHistogramRegistry.find(1L).isPresent());
+        assertTrue(hotLinkTracker.top(10).stream().anyMatch(link -> "react1".equals(link.getShortCode())));
+    }
+
+    @Test
+    void redirect_headRequest_returnsFoundWithoutCountingClick() {
+        // Act
+        webTestClient.head().uri("/r/react1").exchange()
+                .expectStatus().isFound()
+                .expectHeader().valueEquals(HttpHeaders.LOCATION, "https://example.com/reactive");
+        reactiveClickCountFlusher.flush();
+
+        // Assert
+        Long clickCount = databaseClient.sql("SELECT click_count FROM url WHERE id = 1")
+                .map(row -> row.get("click_count", Long.class))
+                .one()
+                .block();
+        assertEquals(0L, clickCount);
+    }
+
+    @Test
+    void redirect_unknownOrMalformedShortCode_returnsNotFound() {
+        // Act & Assert
+        webTestClient.get().uri("/r/missing").exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri("/r/bad.code").exchange()
+                .expectStatus().isNotFound();
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.vladproduction.fewster.benchmark;
+
+import com.vladproduction.fewster.FewsterApplication;
+import com.vladproduction.fewster.entity.UrlEntity;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.UrlService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Application instances for the benchmarks: test profile, random port and an own H2 database per variant,
+ * or the production configuration (Flyway migrations included) against an external MySQL compatible database
+ */
+final class BenchmarkApp {
+
+    private BenchmarkApp() {
+    }
+
+    static ConfigurableApplicationContext start(String name, List<String> profiles, String... properties) {
+        List<String> allProperties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:bench-" + name + ";DB_CLOSE_DELAY=-1",
+                "logging.level.root=WARN"));
+        allProperties.addAll(List.of(properties));
+
+        List<String> allProfiles = new ArrayList<>(List.of("test"));
+        allProfiles.addAll(profiles);
+
+        return new SpringApplicationBuilder(FewsterApplication.class)
+                .profiles(allProfiles.toArray(String[]::new))
+                .properties(allProperties.toArray(String[]::new))
+                .run();
+    }
+
+    /**
+     * Production profile against the given database, Flyway migrates it on startup
+     */
+    static ConfigurableApplicationContext startOnDatabase(String jdbcUrl, String username, String password,
+                                                          String... properties) {
+        List<String> allProperties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.url=" + jdbcUrl,
+                "spring.datasource.username=" + username,
+                "spring.datasource.password=" + password,
+                "api.token.secret=benchmark-secret",
+                "spring.jpa.show-sql=false",
+                // application.properties logs every request and statement at DEBUG
+                "logging.level.root=WARN",
+                "logging.level.com.vladproduction.fewster=WARN",
+                "logging.level.org.springframework.web=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        allProperties.addAll(List.of(properties));
+
+        // as command line arguments, default properties would lose against application.properties
+        return new SpringApplicationBuilder(FewsterApplication.class)
+                .run(allProperties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    static int port(ConfigurableApplicationContext context) {
+        return ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    /**
+     * Create the given number of urls for a fresh user and return their short codes
+     */
+    static List<String> seedUrls(ConfigurableApplicationContext context, String username, int urls) {
+        User user = context.getBean(UserRepository.class).save(new User(null, username, "benchpassword", "USER", null));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        try {
+            context.getBean(UrlService.class).createBatch(IntStream.range(0, urls)
+                    .mapToObj(i -> "https://example.com/bench/" + i)
+                    .toList());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return context.getBean(UrlRepository.class).findAll().stream().map(UrlEntity::getShortCode).toList();
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.vladproduction.fewster.benchmark;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Closed-loop HTTP load shared by the benchmarks: every thread sends the next request
+ * as soon as the previous one completed, latencies are recorded in an HdrHistogram (microseconds)
+ */
+final class ClosedLoopLoad {
+
+    // requests slower than this are recorded as this value
+    private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private ClosedLoopLoad() {
+    }
+
+    /**
+     * Every request is picked at random from the given list
+     */
+    static Result run(String name, HttpClient client, List<HttpRequest> requests, int expectedStatus,
+                      int threads, int seconds) throws Exception {
+        return run(name, client, random -> requests.get(random.nextInt(requests.size())), expectedStatus, threads, seconds);
+    }
+
+    /**
+     * Every request is built by nextRequest with the random of the sending thread
+     */
+    static Result run(String name, HttpClient client, Function<Random, HttpRequest> nextRequest, int expectedStatus,
+                      int threads, int seconds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        Histogram histogram = new Histogram(MAX_TRACKABLE_MICROS, 3);
+        long errors = 0;
+        try {
+            List<Future<ThreadResult>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    ThreadResult result = new ThreadResult();
+                    Random random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = nextRequest.apply(random);
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == expectedStatus;
+                        } catch (IOException e) {
+                            // includes request timeouts
+                            ok = false;
+                        }
+                        result.record((System.nanoTime() - start) / 1000, ok);
+                    }
+                    return result;
+                }));
+            }
+            for (Future<ThreadResult> future : futures) {
+                ThreadResult result = future.get();
+                histogram.add(result.histogram);
+                errors += result.errors;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return summarize(name, histogram, errors, seconds);
+    }
+
+    static void print(List<Result> results) {
+        System.out.printf("%n%-12s %12s %10s %10s %10s %8s%n", "variant", "requests/s", "p50 us", "p99 us", "max us", "errors");
+        for (Result result : results) {
+            System.out.printf("%-12s %12.0f %10d %10d %10d %8d%n", result.name(), result.requestsPerSecond(),
+                    result.p50Micros(), result.p99Micros(), result.maxMicros(), result.errors());
+        }
+    }
+
+    private static Result summarize(String name, Histogram histogram, long errors, int seconds) {
+        long count = histogram.getTotalCount();
+        if (count == 0) {
+            return new Result(name, 0, 0, 0, 0, errors, histogram);
+        }
+        return new Result(name, (double) (count - errors) / seconds, histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(99), histogram.getMaxValue(), errors, histogram);
+    }
+
+    record Result(String name, double requestsPerSecond, long p50Micros, long p99Micros, long maxMicros, long errors,
+                  Histogram histogram) {
+    }
+
+    private static final class ThreadResult {
+        private final Histogram histogram = new Histogram(MAX_TRACKABLE_MICROS, 3);
+        private long errors;
+
+        private void record(long latencyMicros, boolean ok) {
+            histogram.recordValue(Math.min(latencyMicros, MAX_TRACKABLE_MICROS));
+            if (!ok) {
+                errors++;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.vladproduction.fewster.benchmark;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+
+import java.nio.file.Path;
+
+/**
+ * MariaDB server from the binaries bundled with MariaDB4j, on a free port with a fresh data directory.
+ * MySQL compatible for the Flyway migrations and the MySQL driver, works without network.
+ */
+final class EmbeddedMariaDb implements AutoCloseable {
+
+    private static final String DATABASE = "fewster";
+
+    private final DB db;
+    private final int port;
+
+    private EmbeddedMariaDb(DB db, int port) {
+        this.db = db;
+        this.port = port;
+    }
+
+    static EmbeddedMariaDb start(Path directory, int bufferPoolMegabytes) throws ManagedProcessException {
+        DBConfigurationBuilder config = DBConfigurationBuilder.newBuilder()
+                .setPort(0) // free port
+                .setBaseDir(directory.resolve("base").toFile())
+                .setDataDir(directory.resolve("data").toFile())
+                .setDeletingTemporaryBaseAndDataDirsOnShutdown(true)
+                .addArg("--innodb-buffer-pool-size=" + bufferPoolMegabytes + "M")
+                // durability is not what is measured here
+                .addArg("--innodb-flush-log-at-trx-commit=2")
+                .addArg("--max-connections=500");
+        if ("root".equals(System.getProperty("user.name"))) {
+            // mysqld refuses to run as root unless told so (containers, CI)
+            config.addArg("--user=root");
+        }
+
+        DB db = DB.newEmbeddedDB(config.build());
+        db.start();
+        db.createDB(DATABASE);
+        return new EmbeddedMariaDb(db, db.getConfiguration().getPort());
+    }
+
+    String jdbcUrl() {
+        return "jdbc:mysql://localhost:" + port + "/" + DATABASE
+                + "?useSSL=false&allowPublicKeyRetrieval=true&rewriteBatchedStatements=true";
+    }
+
+    @Override
+    public void close() throws ManagedProcessException {
+        db.stop();
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.vladproduction.fewster.benchmark;
+
+import com.vladproduction.fewster.cache.ShortCodeBloomFilter;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.ApiTokenService;
+import com.vladproduction.fewster.utility.AlgorithmUtility;
+import com.vladproduction.fewster.utility.GlobalUtility;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk seeding for the load test: millions of links are inserted with plain JDBC batches
+ * (creating them through the service would take longer than the test itself).
+ * Link i has the short code {@link #shortCode(int)}, so the load can pick codes without keeping them in memory.
+ */
+final class LinkSeeder {
+
+    private static final String INSERT_SQL = "INSERT INTO url (original_url, url_hash, short_code, click_count, "
+            + "created_at, updated_at, user_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final int CHUNK = 10_000;
+    // longer than generated codes (short.url.length), seeded codes never collide with created ones
+    private static final int CODE_LENGTH = 8;
+
+    private final AlgorithmUtility algorithmUtility;
+
+    private LinkSeeder(AlgorithmUtility algorithmUtility) {
+        this.algorithmUtility = algorithmUtility;
+    }
+
+    /**
+     * Insert the links for a new user and return an API token of that user
+     */
+    static SeededLinks seed(ConfigurableApplicationContext context, String username, int links) {
+        LinkSeeder seeder = new LinkSeeder(context.getBean(AlgorithmUtility.class));
+        GlobalUtility globalUtility = context.getBean(GlobalUtility.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        User user = context.getBean(UserRepository.class).save(new User(null, username, "loadtestpassword", "USER", null));
+
+        long start = System.currentTimeMillis();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < links; from += CHUNK) {
+            List<Object[]> rows = new ArrayList<>(CHUNK);
+            for (int i = from; i < Math.min(from + CHUNK, links); i++) {
+                String originalUrl = originalUrl(i);
+                rows.add(new Object[]{originalUrl, globalUtility.hashUrl(originalUrl), seeder.shortCode(i), 0L, now, now, user.getId()});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+        // codes inserted behind the application's back, the startup build of the filter does not know them
+        context.getBean(ShortCodeBloomFilter.class).rebuild();
+        System.out.printf("Seeded %d links in %d ms%n", links, System.currentTimeMillis() - start);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        try {
+            String apiToken = context.getBean(ApiTokenService.class).issueToken("load-test").getToken();
+            return new SeededLinks(seeder, links, apiToken);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    String shortCode(int link) {
+        return algorithmUtility.encodeBase62(link, CODE_LENGTH);
+    }
+
+    private static String originalUrl(int link) {
+        return "https://example.com/load/" + (link % 1000) + "/item-" + link + "?utm_source=loadtest";
+    }
+
+    record SeededLinks(LinkSeeder seeder, int links, String apiToken) {
+
+        String shortCode(int link) {
+            return seeder.shortCode(link);
+        }
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.vladproduction.fewster.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Redirect throughput and latency of the servlet filter fast path against the MVC controller behind
+ * the security chain. Each variant runs in its own application (own H2 database) on a random port.
+ * Excluded from the regular build, run with: mvn -P loadtest test
+ * Tunables (system properties): bench.threads, bench.urls, bench.warmupSeconds, bench.seconds
+ */
+@Tag("benchmark")
+class RedirectBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final int URLS = Integer.getInteger("bench.urls", 5000);
+    private static final int WARMUP_SECONDS = Integer.getInteger("bench.warmupSeconds", 5);
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 15);
+
+    @Test
+    void redirect_FastPathAgainstController() throws Exception {
+        // Arrange & Act
+        ClosedLoopLoad.Result controller = run("controller", false);
+        ClosedLoopLoad.Result fastPath = run("fast-path", true);
+
+        // Assert
+        ClosedLoopLoad.print(List.of(controller, fastPath));
+        System.out.printf("fast path: %.2fx requests/s, p99 %.2fx%n%n",
+                fastPath.requestsPerSecond() / controller.requestsPerSecond(),
+                (double) fastPath.p99Micros() / controller.p99Micros());
+
+        assertEquals(0, controller.errors());
+        assertEquals(0, fastPath.errors());
+    }
+
+    private ClosedLoopLoad.Result run(String name, boolean fastPath) throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkApp.start(name, List.of(),
+                "redirect.fastPath.enabled=" + fastPath)) {
+            String baseUrl = "http://localhost:" + BenchmarkApp.port(context) + "/r/";
+            List<HttpRequest> requests = BenchmarkApp.seedUrls(context, "benchuser", URLS).stream()
+                    .map(shortCode -> HttpRequest.newBuilder(URI.create(baseUrl + shortCode)).GET().build())
+                    .toList();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+
+            ClosedLoopLoad.run(name, client, requests, 302, THREADS, WARMUP_SECONDS);
+            return ClosedLoopLoad.run(name, client, requests, 302, THREADS, SECONDS);
+        }
+    }
+
+}
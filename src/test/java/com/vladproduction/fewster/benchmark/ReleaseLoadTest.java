@@ -0,0 +1,131 @@
+package com.vladproduction.fewster.benchmark;
+
+import com.vladproduction.fewster.support.ZipfSampler;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Release load test of the full application: FewsterApplication with its production configuration
+ * against an embedded MariaDB migrated by Flyway, seeded with load.links links, then each workload
+ * is driven closed-loop for load.seconds after a warmup:
+ * redirect (GET /r/{code}, keys picked uniform or Zipfian), create (POST /api/v1/url with an API token),
+ * demo-create (POST /api/v1/demo-url).
+ * Writes summary.txt and one HdrHistogram percentile distribution (.hgrm, milliseconds) per workload
+ * to target/loadtest/{timestamp}. Runs offline, the MariaDB binaries come with the test dependencies.
+ * Run with: mvn -P loadtest test -Dtest=ReleaseLoadTest [-Dload.links=5000000 -Dload.threads=64 ...]
+ * Tunables (system properties): load.links, load.threads, load.warmupSeconds, load.seconds, load.skew (zipf|uniform),
+ * load.zipfExponent, load.workloads, load.bufferPoolMb, load.reportDir
+ */
+@Tag("benchmark")
+class ReleaseLoadTest {
+
+    private static final int LINKS = Integer.getInteger("load.links", 1_000_000);
+    private static final int THREADS = Integer.getInteger("load.threads", 32);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmupSeconds", 10);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 30);
+    private static final String SKEW = System.getProperty("load.skew", "zipf");
+    private static final double ZIPF_EXPONENT = Double.parseDouble(System.getProperty("load.zipfExponent", "0.99"));
+    private static final List<String> WORKLOADS = List.of(System.getProperty("load.workloads", "redirect,create,demo-create").split(","));
+    private static final int BUFFER_POOL_MB = Integer.getInteger("load.bufferPoolMb", 512);
+    private static final Path REPORT_DIR = Path.of(System.getProperty("load.reportDir", "target/loadtest"));
+
+    // Spreads the popular ranks over the id range, so hot links are not all neighbours on the same pages
+    private static final long SCRAMBLE = 2_654_435_761L;
+
+    @Test
+    void release_RedirectAndCreateLoad() throws Exception {
+        // Arrange
+        Path runDir = REPORT_DIR.resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        Files.createDirectories(runDir);
+        List<ClosedLoopLoad.Result> results = new ArrayList<>();
+
+        try (EmbeddedMariaDb db = EmbeddedMariaDb.start(REPORT_DIR.resolve("db"), BUFFER_POOL_MB);
+             ConfigurableApplicationContext context = BenchmarkApp.startOnDatabase(db.jdbcUrl(), "root", "",
+                     "spring.datasource.hikari.maximum-pool-size=" + Math.max(10, THREADS))) {
+            LinkSeeder.SeededLinks links = LinkSeeder.seed(context, "loaduser", LINKS);
+            String baseUrl = "http://localhost:" + BenchmarkApp.port(context);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+
+            // Act
+            for (String workload : WORKLOADS) {
+                Function<Random, HttpRequest> nextRequest = requests(workload, baseUrl, links);
+                int expectedStatus = "redirect".equals(workload) ? 302 : 201;
+                ClosedLoopLoad.run(workload, client, nextRequest, expectedStatus, THREADS, WARMUP_SECONDS);
+                results.add(ClosedLoopLoad.run(workload, client, nextRequest, expectedStatus, THREADS, SECONDS));
+            }
+        }
+
+        // Assert
+        writeReport(runDir, results);
+        ClosedLoopLoad.print(results);
+        System.out.printf("Report written to %s%n%n", runDir.toAbsolutePath());
+        for (ClosedLoopLoad.Result result : results) {
+            assertEquals(0, result.errors(), "errors in workload " + result.name());
+        }
+    }
+
+    private static Function<Random, HttpRequest> requests(String workload, String baseUrl, LinkSeeder.SeededLinks links) {
+        AtomicLong created = new AtomicLong();
+        return switch (workload) {
+            case "redirect" -> {
+                ZipfSampler zipf = new ZipfSampler(links.links(), ZIPF_EXPONENT);
+                yield random -> {
+                    int link = "uniform".equals(SKEW)
+                            ? random.nextInt(links.links())
+                            : (int) ((zipf.sample(random) - 1) * SCRAMBLE % links.links());
+                    return HttpRequest.newBuilder(URI.create(baseUrl + "/r/" + links.shortCode(link))).GET().build();
+                };
+            }
+            case "create" -> random -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/url"))
+                    .header("Authorization", "Bearer " + links.apiToken())
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("urlText=https://example.com/created/" + created.incrementAndGet()))
+                    .build();
+            case "demo-create" -> random -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/demo-url"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("urlText=https://example.com/demo/" + created.incrementAndGet()))
+                    .build();
+            default -> throw new IllegalArgumentException("Unknown workload: " + workload);
+        };
+    }
+
+    private static void writeReport(Path runDir, List<ClosedLoopLoad.Result> results) throws Exception {
+        try (PrintStream summary = new PrintStream(Files.newOutputStream(runDir.resolve("summary.txt")))) {
+            summary.printf("links=%d threads=%d warmupSeconds=%d seconds=%d skew=%s zipfExponent=%s%n%n",
+                    LINKS, THREADS, WARMUP_SECONDS, SECONDS, SKEW, ZIPF_EXPONENT);
+            summary.printf("%-12s %12s %10s %10s %10s %10s %10s %8s%n",
+                    "workload", "requests/s", "p50 us", "p90 us", "p99 us", "p99.9 us", "max us", "errors");
+            for (ClosedLoopLoad.Result result : results) {
+                summary.printf("%-12s %12.0f %10d %10d %10d %10d %10d %8d%n", result.name(), result.requestsPerSecond(),
+                        result.p50Micros(), result.histogram().getValueAtPercentile(90), result.p99Micros(),
+                        result.histogram().getValueAtPercentile(99.9), result.maxMicros(), result.errors());
+
+                try (PrintStream hgrm = new PrintStream(Files.newOutputStream(runDir.resolve(result.name() + ".hgrm")))) {
+                    // recorded in microseconds, reported in milliseconds
+                    result.histogram().outputPercentileDistribution(hgrm, 1000.0);
+                }
+            }
+        }
+    }
+
+}
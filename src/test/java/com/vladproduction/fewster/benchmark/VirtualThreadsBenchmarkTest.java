@@ -0,0 +1,140 @@
+package com.vladproduction.fewster.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Redirect throughput and tail latency while many slow clients hold requests open, on Tomcat's platform
+ * thread pool and with the virtual-threads profile. Slow clients trickle the body of a demo create one byte
+ * at a time, so each one keeps its request thread blocked in a read for the whole run.
+ * With more slow clients than pool threads (server.tomcat.threads.max, 200 by default) the platform pool
+ * is exhausted and redirects queue behind them; with virtual threads a blocked request only parks
+ * (on Java 21 it holds a carrier while blocked in Tomcat's socket read, the loadtest profile raises
+ * jdk.virtualThreadScheduler.maxPoolSize accordingly).
+ * Excluded from the regular build, run with: mvn -P loadtest test
+ * Tunables (system properties): bench.threads, bench.slowClients, bench.platformThreads, bench.urls,
+ * bench.warmupSeconds, bench.seconds, bench.timeoutSeconds
+ */
+@Tag("benchmark")
+class VirtualThreadsBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final int SLOW_CLIENTS = Integer.getInteger("bench.slowClients", 400);
+    private static final int PLATFORM_THREADS = Integer.getInteger("bench.platformThreads", 200);
+    private static final int URLS = Integer.getInteger("bench.urls", 5000);
+    private static final int WARMUP_SECONDS = Integer.getInteger("bench.warmupSeconds", 5);
+    private static final int SECONDS = Integer.getInteger("bench.seconds", 15);
+    private static final int TIMEOUT_SECONDS = Integer.getInteger("bench.timeoutSeconds", 5);
+
+    @Test
+    void redirect_WithSlowClients_PlatformAgainstVirtualThreads() throws Exception {
+        // Arrange & Act
+        ClosedLoopLoad.Result platform = run("platform", false);
+        ClosedLoopLoad.Result virtual = run("virtual", true);
+
+        // Assert
+        System.out.printf("%n%d slow clients, %d platform threads%n", SLOW_CLIENTS, PLATFORM_THREADS);
+        ClosedLoopLoad.print(List.of(platform, virtual));
+        System.out.println();
+
+        assertEquals(0, virtual.errors());
+        assertTrue(virtual.requestsPerSecond() > 0);
+    }
+
+    private ClosedLoopLoad.Result run(String name, boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = BenchmarkApp.start("vt-" + name,
+                virtualThreads ? List.of("virtual-threads") : List.of(),
+                "server.tomcat.threads.max=" + PLATFORM_THREADS)) {
+            int port = BenchmarkApp.port(context);
+            BenchmarkApp.seedUrls(context, "demouser", 1);
+            List<HttpRequest> requests = BenchmarkApp.seedUrls(context, "benchuser", URLS).stream()
+                    .map(shortCode -> HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/r/" + shortCode))
+                            .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
+                            .GET()
+                            .build())
+                    .toList();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .build();
+
+            try (SlowClients ignored = new SlowClients(port, SLOW_CLIENTS, Duration.ofSeconds(WARMUP_SECONDS + SECONDS + 10))) {
+                ClosedLoopLoad.run(name, client, requests, 302, THREADS, WARMUP_SECONDS);
+                return ClosedLoopLoad.run(name, client, requests, 302, THREADS, SECONDS);
+            }
+        }
+    }
+
+    /**
+     * Connections posting a form body so slowly that it is not complete before the given duration
+     */
+    private static final class SlowClients implements AutoCloseable {
+
+        private final List<Socket> sockets = new ArrayList<>();
+        private final List<byte[]> bodies = new ArrayList<>();
+        private final ScheduledExecutorService trickler = Executors.newSingleThreadScheduledExecutor();
+        private int written;
+
+        private SlowClients(int port, int clients, Duration duration) throws IOException {
+            int bodyLength = 0;
+            for (int i = 0; i < clients; i++) {
+                byte[] body = String.format("urlText=https://example.com/slow/%06d", i).getBytes(StandardCharsets.US_ASCII);
+                String headers = "POST /api/v1/demo-url HTTP/1.1\r\n"
+                        + "Host: localhost:" + port + "\r\n"
+                        + "Content-Type: application/x-www-form-urlencoded\r\n"
+                        + "Content-Length: " + body.length + "\r\n\r\n";
+                Socket socket = new Socket("localhost", port);
+                socket.getOutputStream().write(headers.getBytes(StandardCharsets.US_ASCII));
+                socket.getOutputStream().flush();
+                sockets.add(socket);
+                bodies.add(body);
+                bodyLength = body.length;
+            }
+            long intervalMillis = duration.toMillis() / bodyLength;
+            trickler.scheduleAtFixedRate(this::writeNextByte, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        private void writeNextByte() {
+            for (int i = 0; i < sockets.size(); i++) {
+                byte[] body = bodies.get(i);
+                if (written >= body.length) {
+                    continue;
+                }
+                try {
+                    OutputStream out = sockets.get(i).getOutputStream();
+                    out.write(body[written]);
+                    out.flush();
+                } catch (IOException e) {
+                    // server gave up on this one
+                }
+            }
+            written++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            trickler.shutdownNow();
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.vladproduction.fewster.benchmark.jmh;
+
+import com.vladproduction.fewster.utility.AlgorithmUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Short code generation per url of the corpus.
+ * Run with: mvn -P jmh verify
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShortCodeBenchmark {
+
+    private static final int CORPUS_SIZE = 4096; // power of two, see next()
+
+    @Param({"typical", "long"})
+    private String corpus;
+
+    private AlgorithmUtility algorithmUtility;
+    private String[] urls;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        // same values as application.properties
+        algorithmUtility = new AlgorithmUtility();
+        ReflectionTestUtils.setField(algorithmUtility, "shortUrlLength", 6);
+        ReflectionTestUtils.setField(algorithmUtility, "characters",
+                "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789");
+        urls = UrlCorpus.generate(corpus, CORPUS_SIZE, 42);
+    }
+
+    @Benchmark
+    public String generateShortCode() {
+        return algorithmUtility.generateShortCode(next());
+    }
+
+    @Benchmark
+    public String generateSimpleShortCode() {
+        return algorithmUtility.generateSimpleShortCode(next());
+    }
+
+    private String next() {
+        return urls[index++ & (CORPUS_SIZE - 1)];
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.vladproduction.fewster.benchmark.jmh;
+
+import java.util.Random;
+
+/**
+ * Deterministic URL corpora for the microbenchmarks, shaped like what users paste:
+ * mostly https, a few path segments, often a query with tracking parameters,
+ * sometimes a trailing slash or surrounding whitespace, and a small share of invalid input.
+ */
+final class UrlCorpus {
+
+    private static final String[] HOSTS = {
+            "example.com", "www.github.com", "docs.spring.io", "en.wikipedia.org", "news.ycombinator.com",
+            "www.youtube.com", "shop.example-store.co.uk", "api.service.internal.example.net", "medium.com", "t.co"
+    };
+    private static final String[] SEGMENTS = {
+            "blog", "2025", "10", "articles", "how-to-shorten-urls", "products", "item", "search", "users",
+            "vladproduction", "fewster", "watch", "wiki", "Java_(programming_language)", "docs", "reference", "index.html"
+    };
+    private static final String[] PARAMS = {
+            "utm_source=newsletter", "utm_medium=email", "utm_campaign=autumn_sale", "ref=homepage", "page=2",
+            "q=spring+boot+virtual+threads", "v=dQw4w9WgXcQ", "sessionid=8f14e45fceea167a5a36dedd4bea2543", "lang=en"
+    };
+
+    private UrlCorpus() {
+    }
+
+    /**
+     * @param kind "typical" (short to medium urls) or "long" (deep paths and long query strings)
+     */
+    static String[] generate(String kind, int size, long seed) {
+        Random random = new Random(seed);
+        boolean longUrls = "long".equals(kind);
+        String[] urls = new String[size];
+        for (int i = 0; i < size; i++) {
+            urls[i] = url(random, longUrls);
+        }
+        return urls;
+    }
+
+    private static String url(Random random, boolean longUrls) {
+        int roll = random.nextInt(100);
+        if (roll < 2) {
+            return "   ";
+        }
+        if (roll < 5) {
+            return "ftp://" + HOSTS[random.nextInt(HOSTS.length)] + "/file.zip";
+        }
+
+        StringBuilder url = new StringBuilder(roll < 15 ? "http://" : "https://");
+        url.append(HOSTS[random.nextInt(HOSTS.length)]);
+
+        int segments = longUrls ? 4 + random.nextInt(8) : random.nextInt(4);
+        for (int i = 0; i < segments; i++) {
+            url.append('/').append(SEGMENTS[random.nextInt(SEGMENTS.length)]);
+        }
+
+        int params = longUrls ? 3 + random.nextInt(PARAMS.length) : (random.nextBoolean() ? random.nextInt(3) : 0);
+        for (int i = 0; i < params; i++) {
+            url.append(i == 0 ? '?' : '&').append(PARAMS[random.nextInt(PARAMS.length)]);
+        }
+        if (params == 0 && random.nextInt(4) == 0) {
+            url.append('/');
+        }
+
+        return random.nextInt(10) == 0 ? " " + url + " " : url.toString();
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.vladproduction.fewster.benchmark.jmh;
+
+import com.vladproduction.fewster.dto.UrlDTO;
+import com.vladproduction.fewster.entity.UrlEntity;
+import com.vladproduction.fewster.mapper.UrlMapper;
+import com.vladproduction.fewster.utility.GlobalUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request url handling: validation and normalization of the submitted url, entity to DTO mapping.
+ * Run with: mvn -P jmh verify
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlHandlingBenchmark {
+
+    private static final int CORPUS_SIZE = 4096; // power of two, see next()
+    private static final String BASE_URL = "http://localhost:8080/r/";
+
+    @Param({"typical", "long"})
+    private String corpus;
+
+    private GlobalUtility globalUtility;
+    private String[] urls;
+    private UrlEntity[] entities;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        // normalizeUrl and isValidUrl do not touch the repository, algorithm service or bloom filter
+        globalUtility = new GlobalUtility(null, null, null);
+        urls = UrlCorpus.generate(corpus, CORPUS_SIZE, 42);
+
+        entities = new UrlEntity[CORPUS_SIZE];
+        for (int i = 0; i < CORPUS_SIZE; i++) {
+            UrlEntity entity = new UrlEntity();
+            entity.setId((long) i + 1);
+            entity.setOriginalUrl(urls[i].trim());
+            entity.setShortCode(Long.toString(i + 100_000L, 36));
+            entity.setClickCount((long) i);
+            entities[i] = entity;
+        }
+    }
+
+    @Benchmark
+    public String normalizeUrl() {
+        return globalUtility.normalizeUrl(urls[next()]);
+    }
+
+    @Benchmark
+    public boolean isValidUrl() {
+        return globalUtility.isValidUrl(urls[next()]);
+    }
+
+    @Benchmark
+    public UrlDTO toDTO() {
+        return UrlMapper.toDTO(entities[next()], BASE_URL);
+    }
+
+    private int next() {
+        return index++ & (CORPUS_SIZE - 1);
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.vladproduction.fewster.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BloomFilterTest {
+
+    @Test
+    void mightContain_ForInsertedValues_NeverReturnsFalse() {
+        // Arrange
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("code" + i);
+        }
+
+        // Assert
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloomFilter.mightContain("code" + i));
+        }
+        assertEquals(10_000, bloomFilter.getInsertions());
+    }
+
+    @Test
+    void mightContain_ForUnknownValues_StaysNearConfiguredFalsePositiveRate() {
+        // Arrange
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("code" + i);
+        }
+
+        // Act
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (bloomFilter.mightContain("unknown" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        double observedRate = (double) falsePositives / probes;
+        assertTrue(observedRate < 0.02, "observed false positive rate " + observedRate);
+        assertEquals(0.01, bloomFilter.estimatedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    void getMemoryBytes_MatchesBitSize() {
+        // Act
+        BloomFilter bloomFilter = new BloomFilter(1_000_000, 0.01);
+
+        // Assert: ~9.6 bits per element for 1%
+        assertEquals(bloomFilter.getBitSize() / 8, bloomFilter.getMemoryBytes());
+        assertTrue(bloomFilter.getMemoryBytes() < 1_300_000);
+        assertEquals(7, bloomFilter.getHashFunctions());
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.vladproduction.fewster.cache;
+
+import com.vladproduction.fewster.dto.HotLinkDTO;
+import com.vladproduction.fewster.dto.HotLinksDTO;
+import com.vladproduction.fewster.support.ZipfSampler;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HotLinkTrackerTest {
+
+    private static final int CODES = 100_000;
+    private static final int CLICKS = 1_000_000;
+
+    @Test
+    void top_UnderZipfTraffic_StaysWithinSketchErrorBound() {
+        // Arrange
+        HotLinkTracker tracker = new HotLinkTracker(true, 50, 0.001, 0.01);
+        long[] trueCounts = new long[CODES];
+        ZipfSampler zipf = new ZipfSampler(CODES, 1.1);
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < CLICKS; i++) {
+            int rank = zipf.sample(random) - 1;
+            trueCounts[rank]++;
+            tracker.record(code(rank));
+        }
+        HotLinksDTO hotLinks = tracker.getHotLinks(50);
+
+        // Assert
+        assertEquals(CLICKS, hotLinks.getTotalClicks());
+        // epsilon = e / 4096 after rounding the width up to a power of two
+        assertTrue(hotLinks.getMaxOverestimate() <= Math.ceil(0.001 * CLICKS));
+        assertEquals(50, hotLinks.getLinks().size());
+        for (HotLinkDTO hotLink : hotLinks.getLinks()) {
+            long trueCount = trueCounts[rank(hotLink.getShortCode())];
+            assertTrue(hotLink.getEstimatedClicks() >= trueCount, "sketch never undercounts");
+            assertTrue(hotLink.getEstimatedClicks() - trueCount <= hotLinks.getMaxOverestimate(),
+                    "overestimate of " + hotLink.getShortCode() + " exceeds the bound");
+        }
+
+        // The 20 truly hottest codes are all reported
+        Set<String> reported = hotLinks.getLinks().stream().map(HotLinkDTO::getShortCode).collect(Collectors.toSet());
+        IntStream.range(0, CODES).boxed()
+                .sorted(Comparator.comparingLong((Integer rank) -> trueCounts[rank]).reversed())
+                .limit(20)
+                .forEach(rank -> assertTrue(reported.contains(code(rank)), "missing hot code " + code(rank)));
+        // Ranked hottest first
+        List<Long> estimates = hotLinks.getLinks().stream().map(HotLinkDTO::getEstimatedClicks).toList();
+        assertEquals(estimates.stream().sorted(Comparator.reverseOrder()).toList(), estimates);
+    }
+
+    @Test
+    void decay_LetsNewlyHotCodeOvertakeFormerlyHotOne() {
+        // Arrange
+        HotLinkTracker tracker = new HotLinkTracker(true, 10, 0.001, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            tracker.record("old");
+        }
+
+        // Act
+        tracker.decay();
+        tracker.decay();
+        tracker.decay();
+        for (int i = 0; i < 200; i++) {
+            tracker.record("new");
+        }
+
+        // Assert
+        List<HotLinkDTO> top = tracker.top(10);
+        assertEquals("new", top.get(0).getShortCode());
+        assertEquals(200, top.get(0).getEstimatedClicks());
+        assertEquals(125, top.get(1).getEstimatedClicks());
+    }
+
+    @Test
+    void record_WhenDisabled_TracksNothing() {
+        // Arrange
+        HotLinkTracker tracker = new HotLinkTracker(false, 10, 0.001, 0.01);
+
+        // Act
+        tracker.record("code");
+
+        // Assert
+        assertTrue(tracker.top(10).isEmpty());
+    }
+
+    private static String code(int rank) {
+        return "c" + rank;
+    }
+
+    private static int rank(String code) {
+        return Integer.parseInt(code.substring(1));
+    }
+
+}
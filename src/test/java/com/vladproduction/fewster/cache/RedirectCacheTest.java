@@ -0,0 +1,130 @@
+package com.vladproduction.fewster.cache;
+
+import com.vladproduction.fewster.dto.CacheStatsDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RedirectCacheTest {
+
+    private RedirectCache redirectCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        redirectCache = new RedirectCache(100, 600, 100, 30);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_WhenCalledTwice_LoadsOnlyOnce() {
+        // Act
+        Optional<RedirectTarget> first = redirectCache.get("abc123", key -> load(new RedirectTarget(1L, "https://example.com")));
+        Optional<RedirectTarget> second = redirectCache.get("abc123", key -> load(new RedirectTarget(1L, "https://example.com")));
+
+        // Assert
+        assertEquals("https://example.com", first.orElseThrow().originalUrl());
+        assertEquals("https://example.com", second.orElseThrow().originalUrl());
+        assertEquals(1, loads.get());
+
+        CacheStatsDTO stats = redirectCache.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+    }
+
+    @Test
+    void refresh_ReplacesCachedTargetWithReloadedOne() {
+        // Arrange
+        redirectCache.get("hot123", key -> load(new RedirectTarget(1L, "https://old.example.com")));
+
+        // Act
+        redirectCache.refresh("hot123", key -> load(new RedirectTarget(1L, "https://new.example.com")));
+        Optional<RedirectTarget> cached = redirectCache.get("hot123", key -> load(null));
+
+        // Assert
+        assertEquals("https://new.example.com", cached.orElseThrow().originalUrl());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_WhenUnknown_CachesNegativeResult() {
+        // Act
+        Optional<RedirectTarget> first = redirectCache.get("nope00", key -> load(null));
+        Optional<RedirectTarget> second = redirectCache.get("nope00", key -> load(null));
+
+        // Assert
+        assertTrue(first.isEmpty());
+        assertTrue(second.isEmpty());
+        assertEquals(1, loads.get());
+        assertEquals(1, redirectCache.getStats().getNegativeHitCount());
+    }
+
+    @Test
+    void invalidate_RemovesPositiveAndNegativeEntries() {
+        // Arrange
+        redirectCache.get("abc123", key -> load(new RedirectTarget(1L, "https://example.com")));
+        redirectCache.get("nope00", key -> load(null));
+
+        // Act
+        redirectCache.invalidate("abc123");
+        redirectCache.invalidate("nope00");
+        Optional<RedirectTarget> changed = redirectCache.get("abc123", key -> load(new RedirectTarget(1L, "https://changed.com")));
+        Optional<RedirectTarget> created = redirectCache.get("nope00", key -> load(new RedirectTarget(2L, "https://created.com")));
+
+        // Assert
+        assertEquals("https://changed.com", changed.orElseThrow().originalUrl());
+        assertEquals("https://created.com", created.orElseThrow().originalUrl());
+        assertEquals(4, loads.get());
+    }
+
+    private Optional<RedirectTarget> load(RedirectTarget target) {
+        loads.incrementAndGet();
+        return Optional.ofNullable(target);
+    }
+
+    @Test
+    void get_WhenInvalidatedDuringLoad_CachesNothing() {
+        // Arrange: the loader reads the old state, then the change commits and invalidates the key
+        redirectCache.get("race00", key -> {
+            redirectCache.invalidate(key);
+            return load(null);
+        });
+        redirectCache.get("race01", key -> {
+            redirectCache.invalidate(key);
+            return load(new RedirectTarget(1L, "https://old.example.com"));
+        });
+
+        // Act
+        Optional<RedirectTarget> created = redirectCache.get("race00", key -> load(new RedirectTarget(2L, "https://created.com")));
+        Optional<RedirectTarget> changed = redirectCache.get("race01", key -> load(new RedirectTarget(1L, "https://new.example.com")));
+
+        // Assert
+        assertEquals("https://created.com", created.orElseThrow().originalUrl());
+        assertEquals("https://new.example.com", changed.orElseThrow().originalUrl());
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void getAsync_WhenInvalidatedDuringLoad_CachesNothing() {
+        // Arrange: the lookup is still running when the key is invalidated
+        CompletableFuture<Optional<RedirectTarget>> lookup = new CompletableFuture<>();
+        CompletableFuture<Optional<RedirectTarget>> first = redirectCache.getAsync("race02", key -> lookup);
+        redirectCache.invalidate("race02");
+        lookup.complete(load(null));
+        first.join();
+
+        // Act
+        Optional<RedirectTarget> created = redirectCache.getAsync("race02",
+                key -> CompletableFuture.completedFuture(load(new RedirectTarget(3L, "https://created.com")))).join();
+
+        // Assert
+        assertEquals("https://created.com", created.orElseThrow().originalUrl());
+        assertEquals(2, loads.get());
+    }
+
+}
@@ -0,0 +1,85 @@
+package com.vladproduction.fewster.cache;
+
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"bloom.filter.redirect.enabled=true", "bloom.filter.sync.commitMarginMillis=0"})
+@ActiveProfiles("test")
+class ShortCodeBloomFilterTest {
+
+    @Autowired
+    private ShortCodeBloomFilter shortCodeBloomFilter;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("bloomuser")
+                .orElseGet(() -> userRepository.save(new User(null, "bloomuser", "bloompassword", "USER", null)));
+        shortCodeBloomFilter.rebuild();
+        shortCodeBloomFilter.sync();
+    }
+
+    @AfterEach
+    void tearDown() {
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void resolveRedirect_OfNeverIssuedCode_IsAnsweredByTheFilter() {
+        // Arrange
+        String unknown = "zzNeverIssued";
+
+        // Act
+        boolean absent = shortCodeBloomFilter.isDefinitelyAbsent(unknown);
+
+        // Assert
+        assertTrue(absent);
+        assertTrue(urlService.resolveRedirect(unknown).isEmpty());
+    }
+
+    @Test
+    void sync_AddsCodesCreatedByAnotherNode() {
+        // Arrange
+        // Inserted behind the service's back, like a create served by another node
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO url (original_url, short_code, click_count, created_at, updated_at, user_id) "
+                        + "VALUES (?, ?, 0, ?, ?, ?)",
+                "https://example.com/elsewhere", "otherNode1", Timestamp.valueOf(now), Timestamp.valueOf(now),
+                user.getId());
+
+        // Act
+        shortCodeBloomFilter.sync();
+
+        // Assert
+        assertFalse(shortCodeBloomFilter.isDefinitelyAbsent("otherNode1"));
+        assertEquals("https://example.com/elsewhere", urlService.resolveRedirect("otherNode1").orElseThrow());
+    }
+
+}
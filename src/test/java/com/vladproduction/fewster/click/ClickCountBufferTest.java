@@ -0,0 +1,160 @@
+package com.vladproduction.fewster.click;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClickCountBufferTest {
+
+    private ClickCountBuffer clickCountBuffer;
+
+    @BeforeEach
+    void setUp() {
+        clickCountBuffer = new ClickCountBuffer();
+    }
+
+    @Test
+    void increment_WhenConcurrent_DoesNotLoseClicks() throws InterruptedException {
+        // Arrange
+        int threads = 8;
+        int clicksPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] drained = new long[1];
+
+        // Act
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < clicksPerThread; j++) {
+                    clickCountBuffer.increment(1L);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        // drain concurrently with the writers
+        for (int i = 0; i < 50; i++) {
+            drained[0] += clickCountBuffer.drain().getOrDefault(1L, 0L);
+            clickCountBuffer.commit();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        drained[0] += clickCountBuffer.drain().getOrDefault(1L, 0L);
+
+        // Assert
+        assertEquals((long) threads * clicksPerThread, drained[0]);
+    }
+
+    @Test
+    void drain_UnderConcurrentClicksOnManyUrls_FlushesEveryClickExactlyOnce() throws Exception {
+        // Arrange
+        int threads = 16;
+        int clicksPerThread = 200_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean clicking = new AtomicBoolean(true);
+        Map<Long, Long> flushed = new HashMap<>();
+
+        // Act
+        List<Future<Map<Long, Long>>> clicked = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            clicked.add(executor.submit(() -> {
+                Map<Long, Long> counts = new HashMap<>();
+                start.await();
+                for (int j = 0; j < clicksPerThread; j++) {
+                    long urlId = ThreadLocalRandom.current().nextLong(1_000);
+                    clickCountBuffer.increment(urlId);
+                    counts.merge(urlId, 1L, Long::sum);
+                }
+                return counts;
+            }));
+        }
+        Future<?> flusher = Executors.newSingleThreadExecutor().submit(() -> {
+            int flushes = 0;
+            while (clicking.get()) {
+                Map<Long, Long> deltas = clickCountBuffer.drain();
+                // every third flush fails and is retried with the next one
+                if (++flushes % 3 == 0) {
+                    clickCountBuffer.restore(deltas);
+                } else {
+                    deltas.forEach((urlId, delta) -> flushed.merge(urlId, delta, Long::sum));
+                    clickCountBuffer.commit();
+                }
+            }
+        });
+        start.countDown();
+        Map<Long, Long> expected = new HashMap<>();
+        for (Future<Map<Long, Long>> counts : clicked) {
+            counts.get(60, TimeUnit.SECONDS).forEach((urlId, count) -> expected.merge(urlId, count, Long::sum));
+        }
+        clicking.set(false);
+        flusher.get(30, TimeUnit.SECONDS);
+        executor.shutdown();
+        clickCountBuffer.drain().forEach((urlId, delta) -> flushed.merge(urlId, delta, Long::sum));
+
+        // Assert
+        assertEquals((long) threads * clicksPerThread, flushed.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(expected, flushed);
+    }
+
+    @Test
+    void pending_IncludesInFlightUntilCommit() {
+        // Arrange
+        clickCountBuffer.increment(1L);
+        clickCountBuffer.increment(1L);
+
+        // Act
+        Map<Long, Long> deltas = clickCountBuffer.drain();
+        clickCountBuffer.increment(1L);
+
+        // Assert
+        assertEquals(2L, deltas.get(1L));
+        assertEquals(3L, clickCountBuffer.pending(1L));
+        clickCountBuffer.commit();
+        assertEquals(1L, clickCountBuffer.pending(1L));
+    }
+
+    @Test
+    void restore_PutsDeltasBackForNextFlush() {
+        // Arrange
+        clickCountBuffer.increment(7L);
+        Map<Long, Long> deltas = clickCountBuffer.drain();
+
+        // Act
+        clickCountBuffer.restore(deltas);
+
+        // Assert
+        assertEquals(1L, clickCountBuffer.pending(7L));
+        assertEquals(Map.of(7L, 1L), clickCountBuffer.drain());
+    }
+
+    @Test
+    void drain_RemovesIdleCounters() {
+        // Arrange
+        clickCountBuffer.increment(3L);
+        clickCountBuffer.drain();
+        clickCountBuffer.commit();
+
+        // Act
+        clickCountBuffer.drain();
+        clickCountBuffer.drain();
+
+        // Assert
+        assertEquals(0, clickCountBuffer.depth());
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.vladproduction.fewster.click;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ClickEventBufferTest {
+
+    @Test
+    void drainTo_ReturnsEventsInOfferOrder() {
+        // Arrange
+        ClickEventBuffer buffer = new ClickEventBuffer(true, 8, ClickEventOverflowPolicy.DROP_NEWEST, 0.75, 10);
+        for (long i = 0; i < 5; i++) {
+            assertTrue(buffer.offer(event(i)));
+        }
+        List<ClickEvent> drained = new ArrayList<>();
+
+        // Act
+        int first = buffer.drainTo(drained, 3);
+        int second = buffer.drainTo(drained, 10);
+
+        // Assert
+        assertEquals(3, first);
+        assertEquals(2, second);
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L), drained.stream().map(ClickEvent::urlId).toList());
+        assertEquals(0, buffer.depth());
+    }
+
+    @Test
+    void offer_WhenFull_DropsNewestUntilDrained() {
+        // Arrange
+        ClickEventBuffer buffer = new ClickEventBuffer(true, 4, ClickEventOverflowPolicy.DROP_NEWEST, 0.75, 10);
+        for (long i = 0; i < 4; i++) {
+            buffer.offer(event(i));
+        }
+
+        // Act
+        boolean whenFull = buffer.offer(event(4));
+        buffer.drainTo(new ArrayList<>(), 1);
+        boolean afterDrain = buffer.offer(event(5));
+
+        // Assert
+        assertFalse(whenFull);
+        assertTrue(afterDrain);
+        assertEquals(1, buffer.getDroppedFull());
+        List<ClickEvent> rest = new ArrayList<>();
+        buffer.drainTo(rest, 10);
+        assertEquals(List.of(1L, 2L, 3L, 5L), rest.stream().map(ClickEvent::urlId).toList());
+    }
+
+    @Test
+    void offer_WhenSamplingAboveHighWatermark_KeepsOnlySomeEvents() {
+        // Arrange: above 16 of 1024 events only about 1 in 10 is kept
+        ClickEventBuffer buffer = new ClickEventBuffer(true, 1024, ClickEventOverflowPolicy.SAMPLE, 16 / 1024.0, 10);
+
+        // Act
+        int accepted = 0;
+        for (long i = 0; i < 1016; i++) {
+            if (buffer.offer(event(i))) {
+                accepted++;
+            }
+        }
+
+        // Assert
+        assertTrue(accepted > 16 + 40 && accepted < 16 + 200, "accepted " + accepted);
+        assertEquals(0, buffer.getDroppedFull());
+        assertEquals(1016 - accepted, buffer.getDroppedSampled());
+    }
+
+    @Test
+    void offer_WhenConcurrentWithDrain_DeliversEveryEventOnce() throws Exception {
+        // Arrange
+        int producers = 4;
+        int eventsPerProducer = 50_000;
+        ClickEventBuffer buffer = new ClickEventBuffer(true, 256, ClickEventOverflowPolicy.DROP_NEWEST, 0.75, 10);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean producing = new AtomicBoolean(true);
+
+        // Act: producers spin on a full buffer, so every event gets in eventually
+        List<Future<?>> futures = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * eventsPerProducer;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (long i = 0; i < eventsPerProducer; i++) {
+                    while (!buffer.offer(event(base + i))) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            }));
+        }
+        Set<Long> seen = new HashSet<>();
+        List<ClickEvent> batch = new ArrayList<>();
+        start.countDown();
+        executor.submit(() -> {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            producing.set(false);
+            return null;
+        });
+        while (producing.get() || buffer.depth() > 0) {
+            buffer.drainTo(batch, 100);
+            for (ClickEvent event : batch) {
+                assertTrue(seen.add(event.urlId()), "duplicate event " + event.urlId());
+            }
+            batch.clear();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(producers * eventsPerProducer, seen.size());
+    }
+
+    private static ClickEvent event(long urlId) {
+        return new ClickEvent(urlId, System.currentTimeMillis(), null, null);
+    }
+
+}
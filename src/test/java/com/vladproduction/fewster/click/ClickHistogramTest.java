@@ -0,0 +1,73 @@
+package com.vladproduction.fewster.click;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClickHistogramTest {
+
+    private static final long MINUTE = 29_000_000L;
+
+    @Test
+    void increment_CountsPerMinute() {
+        // Arrange
+        ClickHistogram histogram = new ClickHistogram();
+
+        // Act
+        histogram.increment(MINUTE);
+        histogram.increment(MINUTE);
+        histogram.increment(MINUTE + 1);
+
+        // Assert
+        assertEquals(2, histogram.count(MINUTE));
+        assertEquals(1, histogram.count(MINUTE + 1));
+        assertEquals(0, histogram.count(MINUTE + 2));
+    }
+
+    @Test
+    void increment_SameMinuteNextDayReplacesOldCount() {
+        // Arrange
+        ClickHistogram histogram = new ClickHistogram();
+        histogram.increment(MINUTE);
+        histogram.increment(MINUTE);
+
+        // Act
+        histogram.increment(MINUTE + ClickHistogram.MINUTES);
+
+        // Assert
+        assertEquals(0, histogram.count(MINUTE));
+        assertEquals(1, histogram.count(MINUTE + ClickHistogram.MINUTES));
+    }
+
+    @Test
+    void increment_ConcurrentClicksAreNotLost() throws Exception {
+        // Arrange
+        ClickHistogram histogram = new ClickHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.increment(MINUTE + (i % 2));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(20_000, histogram.count(MINUTE));
+        assertEquals(20_000, histogram.count(MINUTE + 1));
+    }
+
+}
@@ -0,0 +1,158 @@
+package com.vladproduction.fewster.click;
+
+import com.vladproduction.fewster.dto.ClickStatsDTO;
+import com.vladproduction.fewster.dto.StatsGranularity;
+import com.vladproduction.fewster.dto.UrlDTO;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.ClickStatsService;
+import com.vladproduction.fewster.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "click.rollup.enabled=true")
+@ActiveProfiles("test")
+@Sql("/sql/click-tables.sql")
+class ClickRollupJobTest {
+
+    @Autowired
+    private ClickRollupJob clickRollupJob;
+
+    @Autowired
+    private ClickStatsService clickStatsService;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("rollupuser")
+                .orElseGet(() -> userRepository.save(new User(null, "rollupuser", "rolluppassword", "USER", null)));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void rollUp_FoldsEventsOnceIntoHourAndDayBuckets() {
+        // Arrange
+        UrlDTO first = urlService.create("https://example.com/rollup/first", false);
+        UrlDTO second = urlService.create("https://example.com/rollup/second", false);
+        LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        insertEvents(first.getId(), today.plusHours(1).plusMinutes(5), 2);
+        insertEvents(first.getId(), today.plusHours(1).plusMinutes(55), 1);
+        insertEvents(first.getId(), today.minusDays(1).plusHours(23), 4);
+        insertEvents(second.getId(), today.plusHours(1), 3);
+
+        // Act
+        // The first run only records the highest event id, the second folds up to it
+        clickRollupJob.rollUp();
+        assertEquals(0L, count("click_rollup_url_hour"));
+        clickRollupJob.rollUp();
+        clickRollupJob.rollUp();
+
+        // Assert
+        assertEquals(3L, clicks("click_rollup_url_hour", "url_id", first.getId(), today.plusHours(1)));
+        assertEquals(4L, clicks("click_rollup_url_hour", "url_id", first.getId(), today.minusDays(1).plusHours(23)));
+        assertEquals(3L, clicks("click_rollup_url_day", "url_id", first.getId(), today));
+        assertEquals(4L, clicks("click_rollup_url_day", "url_id", first.getId(), today.minusDays(1)));
+        assertEquals(6L, clicks("click_rollup_user_hour", "user_id", user.getId(), today.plusHours(1)));
+        assertEquals(6L, clicks("click_rollup_user_day", "user_id", user.getId(), today));
+        assertEquals(4L, clicks("click_rollup_user_day", "user_id", user.getId(), today.minusDays(1)));
+    }
+
+    @Test
+    void rollUp_AddsNewEventsToExistingBuckets() {
+        // Arrange
+        UrlDTO url = urlService.create("https://example.com/rollup/incremental", false);
+        LocalDateTime hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        insertEvents(url.getId(), hour, 2);
+        clickRollupJob.rollUp();
+        clickRollupJob.rollUp();
+
+        // Act
+        insertEvents(url.getId(), hour.plusMinutes(1), 5);
+        clickRollupJob.rollUp();
+        clickRollupJob.rollUp();
+
+        // Assert
+        assertEquals(7L, clicks("click_rollup_url_hour", "url_id", url.getId(), hour));
+        assertEquals(1L, count("click_rollup_url_hour"));
+    }
+
+    @Test
+    void getUrlStats_ReturnsEveryDayOfTheRangeFromRollups() {
+        // Arrange
+        UrlDTO url = urlService.create("https://example.com/rollup/stats", false);
+        LocalDateTime today = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS);
+        insertEvents(url.getId(), today, 2);
+        insertEvents(url.getId(), today.minusDays(2), 1);
+        insertEvents(url.getId(), today.minusDays(10), 8);
+        clickRollupJob.rollUp();
+        clickRollupJob.rollUp();
+
+        // Act
+        ClickStatsDTO stats = clickStatsService.getUrlStats(url.getId(), StatsGranularity.DAY, 7);
+
+        // Assert
+        assertEquals("day", stats.getGranularity());
+        assertEquals(7, stats.getPoints().size());
+        assertEquals(3L, stats.getTotalClicks());
+        assertEquals(today.minusDays(6), stats.getFrom());
+        assertEquals(2L, stats.getPoints().get(6).getClicks());
+        assertEquals(1L, stats.getPoints().get(4).getClicks());
+        assertEquals(0L, stats.getPoints().get(5).getClicks());
+        assertThrows(IllegalArgumentException.class,
+                () -> clickStatsService.getUrlStats(url.getId(), StatsGranularity.HOUR, 60));
+    }
+
+    private void insertEvents(long urlId, LocalDateTime clickedAt, int count) {
+        for (int i = 0; i < count; i++) {
+            jdbcTemplate.update("INSERT INTO click_event (url_id, clicked_at, referrer_host, user_agent_family) "
+                    + "VALUES (?, ?, NULL, 'OTHER')", urlId, Timestamp.valueOf(clickedAt));
+        }
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private long clicks(String table, String keyColumn, long id, LocalDateTime bucketStart) {
+        return jdbcTemplate.queryForObject("SELECT clicks FROM " + table + " WHERE " + keyColumn + " = ? AND bucket_start = ?",
+                Long.class, id, Timestamp.valueOf(bucketStart));
+    }
+
+}
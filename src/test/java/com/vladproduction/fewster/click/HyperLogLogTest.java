@@ -0,0 +1,91 @@
+package com.vladproduction.fewster.click;
+
+import com.vladproduction.fewster.cache.BloomFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HyperLogLogTest {
+
+    @Test
+    void estimate_OfManyDistinctVisitors_StaysWithinThreeStandardErrors() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog();
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(BloomFilter.hash64("10.0." + i + "|Mozilla/5.0"));
+            // Repeat visits never change the estimate
+            sketch.add(BloomFilter.hash64("10.0." + i + "|Mozilla/5.0"));
+        }
+
+        // Assert
+        assertEquals(100_000, sketch.estimate(), 100_000 * 3 * HyperLogLog.RELATIVE_STANDARD_ERROR);
+    }
+
+    @Test
+    void estimate_OfFewVisitors_IsNearlyExact() {
+        // Arrange
+        HyperLogLog sketch = new HyperLogLog();
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            sketch.add(BloomFilter.hash64("visitor-" + i));
+        }
+
+        // Assert
+        assertEquals(50, sketch.estimate(), 1);
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+
+    @Test
+    void merge_OfOverlappingDays_EstimatesTheUnion() {
+        // Arrange
+        HyperLogLog monday = new HyperLogLog();
+        HyperLogLog tuesday = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (int i = 0; i < 30_000; i++) {
+            monday.add(BloomFilter.hash64("visitor-" + i));
+            union.add(BloomFilter.hash64("visitor-" + i));
+        }
+        for (int i = 20_000; i < 50_000; i++) {
+            tuesday.add(BloomFilter.hash64("visitor-" + i));
+            union.add(BloomFilter.hash64("visitor-" + i));
+        }
+
+        // Act
+        HyperLogLog merged = new HyperLogLog();
+        merged.merge(monday);
+        merged.merge(tuesday);
+        merged.merge(tuesday);
+
+        // Assert
+        assertArrayEquals(union.toBytes(), merged.toBytes());
+        assertEquals(50_000, merged.estimate(), 50_000 * 3 * HyperLogLog.RELATIVE_STANDARD_ERROR);
+    }
+
+    @Test
+    void toBytes_RoundTripsSparseAndDenseSketches() {
+        // Arrange
+        HyperLogLog sparse = new HyperLogLog();
+        HyperLogLog dense = new HyperLogLog();
+        for (int i = 0; i < 100; i++) {
+            sparse.add(BloomFilter.hash64("visitor-" + i));
+        }
+        for (int i = 0; i < 100_000; i++) {
+            dense.add(BloomFilter.hash64("visitor-" + i));
+        }
+
+        // Act
+        byte[] sparseBytes = sparse.toBytes();
+        byte[] denseBytes = dense.toBytes();
+
+        // Assert
+        assertTrue(sparseBytes.length < 400);
+        assertEquals(1 + HyperLogLog.REGISTERS, denseBytes.length);
+        assertEquals(sparse.estimate(), HyperLogLog.fromBytes(sparseBytes).estimate());
+        assertArrayEquals(denseBytes, HyperLogLog.fromBytes(denseBytes).toBytes());
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{0, 1, 2}));
+    }
+
+}
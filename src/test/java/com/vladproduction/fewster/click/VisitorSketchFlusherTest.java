@@ -0,0 +1,112 @@
+package com.vladproduction.fewster.click;
+
+import com.vladproduction.fewster.dto.UniqueVisitorsDTO;
+import com.vladproduction.fewster.dto.UrlDTO;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.ClickStatsService;
+import com.vladproduction.fewster.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Sql("/sql/click-tables.sql")
+class VisitorSketchFlusherTest {
+
+    @Autowired
+    private VisitorSketchFlusher visitorSketchFlusher;
+
+    @Autowired
+    private VisitorSketchBuffer visitorSketchBuffer;
+
+    @Autowired
+    private ClickStatsService clickStatsService;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.findByUsername("visitoruser")
+                .orElseGet(() -> userRepository.save(new User(null, "visitoruser", "visitorpassword", "USER", null)));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+        visitorSketchBuffer.drain();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void flush_MergesVisitorsIntoOneRowPerUrlDay() {
+        // Arrange
+        UrlDTO url = urlService.create("https://example.com/visitors", false);
+        redirect(url, 0, 300);
+
+        // Act
+        visitorSketchFlusher.flush();
+        // Returning visitors plus new ones, merged into the stored sketch
+        redirect(url, 200, 500);
+        visitorSketchFlusher.flush();
+        visitorSketchFlusher.flush();
+
+        // Assert
+        UniqueVisitorsDTO visitors = clickStatsService.getUniqueVisitors(url.getId(), 7);
+        assertEquals(500, visitors.getUniqueVisitors(), 500 * 3 * visitors.getRelativeStandardError());
+        assertEquals(visitors.getTo().minusDays(6), visitors.getFrom());
+        assertEquals(1L, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM url_visitor_sketch", Long.class));
+    }
+
+    @Test
+    void flush_OfSketchWrittenTwice_DoesNotCountVisitorsTwice() {
+        // Arrange
+        UrlDTO url = urlService.create("https://example.com/visitors/retry", false);
+        redirect(url, 0, 200);
+        List<VisitorSketchBuffer.Pending> pending = visitorSketchBuffer.drain();
+        visitorSketchBuffer.restore(pending);
+        visitorSketchFlusher.flush();
+
+        // Act
+        // As after a write reported as failed although it was committed
+        visitorSketchBuffer.restore(pending);
+        visitorSketchFlusher.flush();
+
+        // Assert
+        assertEquals(200, clickStatsService.getUniqueVisitors(url.getId(), 1).getUniqueVisitors(), 200 * 0.05);
+        assertThrows(IllegalArgumentException.class, () -> clickStatsService.getUniqueVisitors(url.getId(), 400));
+    }
+
+    private void redirect(UrlDTO url, int firstVisitor, int lastVisitor) {
+        for (int i = firstVisitor; i < lastVisitor; i++) {
+            urlService.resolveRedirect(url.getShortCode(), null, "Mozilla/5.0", "10.0." + (i / 256) + "." + (i % 256));
+        }
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.vladproduction.fewster.metrics;
+
+import com.vladproduction.fewster.dto.UrlDTO;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.UrlService;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Metrics export (Prometheus registry) is replaced by a simple registry in tests unless asked for
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest
+@ActiveProfiles("test")
+class FewsterMetricsTest {
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.findByUsername("metricsuser")
+                .orElseGet(() -> userRepository.save(new User(null, "metricsuser", "metricspassword", "USER", null)));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void createAndRedirect_RecordTimersWithoutShortCodeTags() {
+        // Arrange
+        long createdBefore = timerCount(FewsterMetrics.CREATE, "type", "user", "outcome", "success");
+        long foundBefore = timerCount(FewsterMetrics.REDIRECT, "outcome", "found");
+        long notFoundBefore = timerCount(FewsterMetrics.REDIRECT, "outcome", "not_found");
+
+        // Act
+        UrlDTO created = urlService.create("https://example.com/metrics", false);
+        urlService.resolveRedirect(created.getShortCode());
+        urlService.resolveRedirect(created.getShortCode());
+        urlService.resolveRedirect("missing");
+
+        // Assert
+        assertEquals(createdBefore + 1, timerCount(FewsterMetrics.CREATE, "type", "user", "outcome", "success"));
+        assertEquals(foundBefore + 2, timerCount(FewsterMetrics.REDIRECT, "outcome", "found"));
+        assertEquals(notFoundBefore + 1, timerCount(FewsterMetrics.REDIRECT, "outcome", "not_found"));
+        for (Meter meter : meterRegistry.getMeters()) {
+            for (Tag tag : meter.getId().getTags()) {
+                assertNotEquals(created.getShortCode(), tag.getValue(), "short code used as tag of " + meter.getId());
+            }
+        }
+    }
+
+    @Test
+    void prometheusScrape_ContainsHotPathMeters() {
+        // Act
+        String scrape = prometheusMeterRegistry.scrape();
+
+        // Assert
+        assertTrue(scrape.contains("fewster_redirect_seconds_bucket"));
+        assertTrue(scrape.contains("fewster_url_create_seconds_count"));
+        assertTrue(scrape.contains("fewster_click_buffer_depth"));
+        assertTrue(scrape.contains("cache=\"redirect\",result=\"hit\""));
+        assertTrue(scrape.contains("hikaricp_connections_pending"));
+    }
+
+    private long timerCount(String name, String... tags) {
+        return meterRegistry.get(name).tags(tags).timer().count();
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.vladproduction.fewster.redirect;
+
+import com.vladproduction.fewster.service.UrlService;
+import com.vladproduction.fewster.utility.GlobalUtility;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RedirectFilterTest {
+
+    @Mock
+    private UrlService urlService;
+
+    @Mock
+    private GlobalUtility globalUtility;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private RedirectFilter redirectFilter;
+
+    @BeforeEach
+    void setUp() {
+        redirectFilter = new RedirectFilter(urlService, globalUtility);
+    }
+
+    @Test
+    void doFilter_WithKnownShortCode_Redirects() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/r/abc123");
+        request.addHeader("Referer", "https://news.example.org/item");
+        request.addHeader("User-Agent", "curl/8.5.0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(globalUtility.isValidShortCode("abc123")).thenReturn(true);
+        when(urlService.resolveRedirect("abc123", "https://news.example.org/item", "curl/8.5.0", "127.0.0.1"))
+                .thenReturn(Optional.of("https://example.com/page"));
+
+        // Act
+        redirectFilter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertEquals(302, response.getStatus());
+        assertEquals("https://example.com/page", response.getHeader("Location"));
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void doFilter_WithHeadRequest_RedirectsWithoutRecordingClick() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/r/abc123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(globalUtility.isValidShortCode("abc123")).thenReturn(true);
+        when(urlService.peekRedirect("abc123")).thenReturn(Optional.of("https://example.com/page"));
+
+        // Act
+        redirectFilter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertEquals(302, response.getStatus());
+        assertEquals("https://example.com/page", response.getHeader("Location"));
+        verify(urlService, never()).resolveRedirect(anyString(), any(), any(), any());
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void doFilter_WithInvalidShortCode_Returns404WithoutLookup() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/r/%27or%201=1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(globalUtility.isValidShortCode("%27or%201=1")).thenReturn(false);
+
+        // Act
+        redirectFilter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertEquals(404, response.getStatus());
+        assertEquals("text/plain;charset=UTF-8", response.getContentType());
+        assertEquals("Short URL not found", response.getContentAsString());
+        verifyNoInteractions(urlService, filterChain);
+    }
+
+    @Test
+    void doFilter_WithNestedPathOrPost_PassesThrough() throws Exception {
+        // Arrange
+        MockHttpServletRequest nested = new MockHttpServletRequest("GET", "/r/abc/def");
+        MockHttpServletRequest post = new MockHttpServletRequest("POST", "/r/abc123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        redirectFilter.doFilter(nested, response, filterChain);
+        redirectFilter.doFilter(post, response, filterChain);
+
+        // Assert
+        verify(filterChain).doFilter(nested, response);
+        verify(filterChain).doFilter(post, response);
+        verifyNoInteractions(urlService);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.vladproduction.fewster.security;
+
+import com.vladproduction.fewster.cache.UserAccount;
+import com.vladproduction.fewster.service.ApiTokenService;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ApiTokenAuthenticationFilterTest {
+
+    private static final String TOKEN = "fwt_" + "a".repeat(43);
+
+    @Mock
+    private ApiTokenService apiTokenService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private ApiTokenAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ApiTokenAuthenticationFilter(apiTokenService);
+    }
+
+    @Test
+    void doFilter_WithValidToken_AuthenticatesRequest() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/url/my-urls");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(apiTokenService.authenticate(TOKEN)).thenReturn(Optional.of(new UserAccount(1L, "testuser", null, "USER")));
+        AtomicReference<Authentication> seen = new AtomicReference<>();
+        doAnswer(invocation -> {
+            seen.set(SecurityContextHolder.getContext().getAuthentication());
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertNotNull(seen.get());
+        assertTrue(seen.get().getPrincipal() instanceof AuthenticatedUser);
+        assertEquals(1L, ((AuthenticatedUser) seen.get().getPrincipal()).getId());
+        assertTrue(seen.get().getAuthorities().stream().anyMatch(authority -> "ROLE_USER".equals(authority.getAuthority())));
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void doFilter_WithUnknownToken_Returns401() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/url/my-urls");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(apiTokenService.authenticate(TOKEN)).thenReturn(Optional.empty());
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+
+        // Assert
+        assertEquals(401, response.getStatus());
+        verifyNoInteractions(filterChain);
+    }
+
+    @Test
+    void doFilter_WithoutBearerToken_PassesThrough() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/url/my-urls");
+        request.addHeader("Authorization", "Basic dGVzdDp0ZXN0");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request, response, filterChain);
+
+        // Assert
+        verify(filterChain).doFilter(request, response);
+        verifyNoInteractions(apiTokenService);
+    }
+
+}
@@ -1,5 +1,7 @@
 package com.vladproduction.fewster.security;
 
+import com.vladproduction.fewster.cache.UserAccount;
+import com.vladproduction.fewster.cache.UserLookupCache;
 import com.vladproduction.fewster.entity.User;
 import com.vladproduction.fewster.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,7 +39,7 @@ public class AuthServiceTest {
 
     @BeforeEach
     void setUp() {
-        authService = new AuthService(userRepository);
+        authService = new AuthService(new UserLookupCache(userRepository, 100, 300));
 
         testUser = new User();
         testUser.setId(1L);
@@ -166,4 +168,42 @@ public class AuthServiceTest {
         assertEquals("demouser", result.getUsername());
     }
 
+    @Test
+    void getCurrentUser_WithAuthenticatedUserPrincipal_DoesNotQueryRepository() {
+        // Arrange
+        AuthenticatedUser principal = new AuthenticatedUser(UserAccount.of(testUser));
+        when(securityContext.getAuthentication()).thenReturn(authentication);
+        when(authentication.isAuthenticated()).thenReturn(true);
+        when(authentication.getPrincipal()).thenReturn(principal);
+        SecurityContextHolder.setContext(securityContext);
+
+        // Act
+        User result = authService.getCurrentUser();
+
+        // Assert
+        assertEquals(1L, result.getId());
+        assertEquals("testuser", result.getUsername());
+        assertEquals("USER", result.getRole());
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getDemoUser_WhenCalledRepeatedly_QueriesRepositoryOnce() {
+        // Arrange
+        User demoUser = new User();
+        demoUser.setId(2L);
+        demoUser.setUsername("demouser");
+        demoUser.setRole("USER");
+        when(userRepository.findByUsername("demouser")).thenReturn(Optional.of(demoUser));
+
+        // Act
+        User first = authService.getDemoUser();
+        User second = authService.getDemoUser();
+
+        // Assert
+        assertEquals(2L, first.getId());
+        assertEquals(2L, second.getId());
+        verify(userRepository, times(1)).findByUsername("demouser");
+    }
+
 }
@@ -0,0 +1,122 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.cache.UserAccount;
+import com.vladproduction.fewster.dto.ApiTokenDTO;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.ApiTokenRepository;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.ApiTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ApiTokenServiceImplTest {
+
+    @Autowired
+    private ApiTokenService apiTokenService;
+
+    @Autowired
+    private ApiTokenRepository apiTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("tokenuser")
+                .orElseGet(() -> userRepository.save(new User(null, "tokenuser", "tokenpassword", "USER", null)));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        apiTokenRepository.deleteAll();
+    }
+
+    @Test
+    void authenticate_WithIssuedToken_ReturnsOwner() {
+        // Arrange
+        ApiTokenDTO issued = apiTokenService.issueToken("ci");
+
+        // Act
+        Optional<UserAccount> account = apiTokenService.authenticate(issued.getToken());
+
+        // Assert
+        assertTrue(account.isPresent());
+        assertEquals(user.getId(), account.get().id());
+        assertEquals("tokenuser", account.get().username());
+        assertNull(account.get().password());
+        assertTrue(apiTokenService.getTokensForCurrentUser().stream().allMatch(token -> token.getToken() == null));
+    }
+
+    @Test
+    void authenticate_AfterRevoke_ReturnsEmpty() {
+        // Arrange
+        ApiTokenDTO issued = apiTokenService.issueToken("ci");
+        assertTrue(apiTokenService.authenticate(issued.getToken()).isPresent());
+
+        // Act
+        apiTokenService.revokeToken(issued.getId());
+
+        // Assert
+        assertTrue(apiTokenService.authenticate(issued.getToken()).isEmpty());
+        assertTrue(apiTokenService.getTokensForCurrentUser().isEmpty());
+    }
+
+    @Test
+    void authenticate_WithUnknownOrMalformedToken_ReturnsEmpty() {
+        // Arrange
+        String issued = apiTokenService.issueToken("ci").getToken();
+        String tampered = issued.substring(0, issued.length() - 1) + (issued.endsWith("A") ? "B" : "A");
+
+        // Act & Assert
+        assertTrue(apiTokenService.authenticate(tampered).isEmpty());
+        assertTrue(apiTokenService.authenticate("fwt_short").isEmpty());
+        assertTrue(apiTokenService.authenticate(null).isEmpty());
+    }
+
+    @Test
+    void issueToken_WhenLimitReached_ThrowsException() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            apiTokenService.issueToken("token-" + i);
+        }
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> apiTokenService.issueToken("one-too-many"));
+    }
+
+    @Test
+    void constructor_WithPlaceholderSecret_FailsFast() {
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new ApiTokenServiceImpl(null, null, "change-me-in-production", 10, 60));
+    }
+
+    @Test
+    void authenticate_WithoutSecret_IsDisabled() {
+        // Arrange
+        ApiTokenServiceImpl disabled = new ApiTokenServiceImpl(null, null, "", 10, 60);
+
+        // Act & Assert
+        assertTrue(disabled.authenticate(apiTokenService.issueToken("disabled").getToken()).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> disabled.issueToken("new-token"));
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.repository.ShortCodeSequenceRepository;
+import com.vladproduction.fewster.service.ShortAlgorithmService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"short.url.strategy=sequence", "short.url.sequence.blockSize=3"})
+@ActiveProfiles("test")
+class SequenceShortAlgorithmServiceImplTest {
+
+    @Autowired
+    private ShortAlgorithmService algorithmService;
+
+    @Autowired
+    private ShortCodeSequenceRepository sequenceRepository;
+
+    @Test
+    void makeShort_AcrossSeveralLeases_ReturnsUniqueCodes() {
+        // Act
+        Set<String> shortCodes = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            shortCodes.add(algorithmService.makeShort("https://example.com"));
+        }
+
+        // Assert
+        assertInstanceOf(SequenceShortAlgorithmServiceImpl.class, algorithmService);
+        assertTrue(algorithmService.isUniqueByConstruction());
+        assertEquals(10, shortCodes.size());
+        shortCodes.forEach(shortCode -> assertEquals(7, shortCode.length()));
+        // 10 values need 4 blocks of 3
+        assertEquals(13L, sequenceRepository.findById(SequenceShortAlgorithmServiceImpl.SEQUENCE_NAME)
+                .orElseThrow().getNextValue());
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.cache.RedirectCache;
+import com.vladproduction.fewster.dto.UrlDTO;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"url.expiry.reaper.enabled=true", "url.expiry.reaper.batchSize=3"})
+@ActiveProfiles("test")
+class UrlExpiryReaperTest {
+
+    @Autowired
+    private UrlExpiryReaper urlExpiryReaper;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RedirectCache redirectCache;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.findByUsername("expiryuser")
+                .orElseGet(() -> userRepository.save(new User(null, "expiryuser", "expirypassword", "USER", null)));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void reap_DeletesOnlyExpiredUrlsAcrossBatches() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 8; i++) {
+            UrlDTO url = urlService.create("https://example.com/expired/" + i, false, now.plusDays(1));
+            expire(url, now.minusMinutes(i % 3));
+        }
+        UrlDTO future = urlService.create("https://example.com/future", false, now.plusDays(1));
+        UrlDTO permanent = urlService.create("https://example.com/permanent", false);
+
+        // Act
+        long purged = urlExpiryReaper.reap();
+
+        // Assert
+        assertEquals(8, purged);
+        assertEquals(List.of(future.getId(), permanent.getId()),
+                urlRepository.findAll().stream().map(url -> url.getId()).sorted().toList());
+        assertEquals(0, urlExpiryReaper.reap());
+    }
+
+    @Test
+    void resolveRedirect_OfExpiredUrl_IsEmptyBeforeItIsReaped() {
+        // Arrange
+        UrlDTO url = urlService.create("https://example.com/soon", false, LocalDateTime.now().plusDays(1));
+        assertTrue(urlService.resolveRedirect(url.getShortCode()).isPresent());
+
+        // Act
+        // Cached target carries the old expiry; the direct update bypasses the service, so drop it like the service does
+        expire(url, LocalDateTime.now().minusMinutes(1));
+        redirectCache.invalidate(url.getShortCode());
+
+        // Assert
+        assertTrue(urlService.resolveRedirect(url.getShortCode()).isEmpty());
+        UrlDTO revived = urlService.create("https://example.com/soon", false);
+        assertEquals(url.getId(), revived.getId());
+        assertNull(revived.getExpiresAt());
+        assertTrue(urlService.resolveRedirect(url.getShortCode()).isPresent());
+        assertThrows(IllegalArgumentException.class,
+                () -> urlService.updateExpiry(url.getId(), LocalDateTime.now().minusDays(1)));
+    }
+
+    @Test
+    void create_OfLiveUrlWithExpiry_AppliesTheRequestedExpiry() {
+        // Arrange
+        LocalDateTime later = LocalDateTime.now().plusDays(7).withNano(0);
+        UrlDTO url = urlService.create("https://example.com/renewed", false, LocalDateTime.now().plusDays(1));
+
+        // Act
+        UrlDTO renewed = urlService.create("https://example.com/renewed", false, later);
+        UrlDTO again = urlService.create("https://example.com/renewed", false);
+
+        // Assert
+        assertEquals(url.getId(), renewed.getId());
+        assertEquals(later, renewed.getExpiresAt());
+        assertEquals(later, again.getExpiresAt());
+        assertEquals(later, urlRepository.findById(url.getId()).orElseThrow().getExpiresAt());
+    }
+
+    private void expire(UrlDTO url, LocalDateTime expiresAt) {
+        jdbcTemplate.update("UPDATE url SET expires_at = ? WHERE id = ?", Timestamp.valueOf(expiresAt), url.getId());
+    }
+
+}
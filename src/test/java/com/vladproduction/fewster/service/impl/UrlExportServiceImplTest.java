@@ -0,0 +1,121 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vladproduction.fewster.dto.ExportFormat;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.UrlExportService;
+import com.vladproduction.fewster.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UrlExportServiceImplTest {
+
+    private static final int URLS = 1500;
+
+    @Autowired
+    private UrlExportService urlExportService;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("exportuser")
+                .orElseGet(() -> userRepository.save(new User(null, "exportuser", "exportpassword", "USER", null)));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        List<String> urlTexts = new ArrayList<>();
+        urlTexts.add("https://example.com/search?q=\"a,b\"");
+        for (int i = 1; i < URLS; i++) {
+            urlTexts.add("https://example.com/export/" + i);
+        }
+        urlService.createBatch(urlTexts);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void exportUrls_AsNdjson_WritesOneJsonObjectPerLine() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = urlExportService.exportUrls(user.getId(), ExportFormat.NDJSON, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(URLS, rows);
+        assertEquals(URLS, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("https://example.com/search?q=\"a,b\"", first.get("originalUrl").asText());
+        assertTrue(first.get("shortUrl").asText().endsWith(first.get("shortCode").asText()));
+        assertEquals(0, first.get("clickCount").asLong());
+        assertTrue(first.hasNonNull("createdAt"));
+    }
+
+    @Test
+    void exportUrls_AsCsv_WritesHeaderAndEscapedRows() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = urlExportService.exportUrls(user.getId(), ExportFormat.CSV, out);
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(URLS, rows);
+        assertEquals(URLS + 1, lines.length);
+        assertEquals("id,originalUrl,shortCode,shortUrl,clickCount,createdAt", lines[0]);
+        assertTrue(lines[1].contains(",\"https://example.com/search?q=\"\"a,b\"\"\","));
+        assertEquals(6, lines[2].split(",").length);
+    }
+
+    @Test
+    void exportUrls_ForUserWithoutUrls_WritesNothing() throws Exception {
+        // Arrange
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        long rows = urlExportService.exportUrls(-1L, ExportFormat.NDJSON, out);
+
+        // Assert
+        assertEquals(0, rows);
+        assertEquals(0, out.size());
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.dto.ImportJobDTO;
+import com.vladproduction.fewster.entity.ImportJob;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.exception.ImportQueueFullException;
+import com.vladproduction.fewster.repository.ImportJobRepository;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.UrlImportService;
+import com.vladproduction.fewster.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UrlImportServiceImplTest {
+
+    // Batches of 3 lines in the test profile
+    private static final String CSV = String.join("\n",
+            "original_url,custom_code",
+            "https://example.com/import/1",
+            "https://example.com/import/2,import-two",
+            "not a url",
+            "https://example.com/import/1",
+            "\"https://example.com/import/3?q=a,b\",",
+            "https://example.com/import/4,taken-code",
+            "https://example.com/import/5,bad code!",
+            "",
+            "https://example.com/import/6");
+
+    @Autowired
+    private UrlImportService urlImportService;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("importuser")
+                .orElseGet(() -> userRepository.save(new User(null, "importuser", "importpassword", "USER", null)));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        importJobRepository.deleteAll();
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void startImport_WithMixedLines_CountsEveryOutcome() throws Exception {
+        // Arrange
+        urlService.createBatch(List.of("https://example.com/taken"));
+        String takenCode = urlRepository.findAll().get(0).getShortCode();
+        MockMultipartFile file = csvFile(CSV.replace("taken-code", takenCode));
+
+        // Act
+        ImportJobDTO started = urlImportService.startImport(file, null);
+        ImportJobDTO finished = awaitFinished(started.getId());
+
+        // Assert
+        assertEquals("COMPLETED", finished.getStatus());
+        assertEquals(10, finished.getLastCommittedLine());
+        assertEquals(4, finished.getCreated());
+        assertEquals(1, finished.getExisting());
+        assertEquals(3, finished.getFailed());
+        assertEquals(5, urlRepository.count());
+        assertTrue(urlRepository.findAll().stream().anyMatch(url -> "import-two".equals(url.getShortCode())));
+        assertTrue(urlRepository.findAll().stream().anyMatch(url -> "https://example.com/import/3?q=a,b".equals(url.getOriginalUrl())));
+    }
+
+    @Test
+    void startImport_ResumingInterruptedJob_SkipsCommittedLines() throws Exception {
+        // Arrange
+        ImportJob interrupted = new ImportJob();
+        interrupted.setUser(user);
+        interrupted.setFilename("urls.csv");
+        interrupted.setStatus(ImportJob.Status.INTERRUPTED);
+        interrupted.setLinesRead(3);
+        interrupted.setLastCommittedLine(3);
+        interrupted.setCreatedCount(2);
+        interrupted = importJobRepository.save(interrupted);
+
+        // Act
+        urlImportService.startImport(csvFile(CSV), interrupted.getId());
+        ImportJobDTO finished = awaitFinished(interrupted.getId());
+
+        // Assert
+        assertEquals("COMPLETED", finished.getStatus());
+        assertEquals(10, finished.getLastCommittedLine());
+        assertEquals(6, finished.getCreated());
+        assertEquals(0, finished.getExisting());
+        assertEquals(2, finished.getFailed());
+        assertEquals(4, urlRepository.count());
+        assertTrue(urlRepository.findAll().stream().noneMatch(url -> "import-two".equals(url.getShortCode())));
+    }
+
+    @Test
+    void startImport_WithQuotedFieldSpanningLines_FailsThatRecordOnly() throws Exception {
+        // Arrange: the quoted field of line 2 goes on over lines 3 and 4
+        String csv = String.join("\n",
+                "https://example.com/multi/1",
+                "\"https://example.com/multi/2",
+                "https://example.com/multi/3",
+                "\",multi-code",
+                "https://example.com/multi/4");
+
+        // Act
+        ImportJobDTO started = urlImportService.startImport(csvFile(csv), null);
+        ImportJobDTO finished = awaitFinished(started.getId());
+
+        // Assert
+        assertEquals("COMPLETED", finished.getStatus());
+        assertEquals(5, finished.getLastCommittedLine());
+        assertEquals(2, finished.getCreated());
+        assertEquals(1, finished.getFailed());
+        assertTrue(finished.getLastError().startsWith("Line 2: Quoted field spans several lines"));
+        assertEquals(2, urlRepository.count());
+    }
+
+    @Test
+    void startImport_ResumingWithDifferentFile_IsRejected() throws Exception {
+        // Arrange
+        ImportJobDTO started = urlImportService.startImport(csvFile(CSV), null);
+        awaitFinished(started.getId());
+        ImportJob job = importJobRepository.findById(started.getId()).orElseThrow();
+        job.setStatus(ImportJob.Status.INTERRUPTED);
+        importJobRepository.save(job);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> urlImportService.startImport(csvFile(CSV.replace("import/6", "import/7")), started.getId()));
+        assertEquals("INTERRUPTED", urlImportService.getImportJob(started.getId()).getStatus());
+        ImportJobDTO resumed = urlImportService.startImport(csvFile(CSV), started.getId());
+        assertEquals("COMPLETED", awaitFinished(resumed.getId()).getStatus());
+    }
+
+    @Test
+    void startImport_WhenQueueIsFull_RejectsTheUpload() throws Exception {
+        // Arrange: one job thread and one queue slot in the test profile, the first import keeps the thread busy
+        String longCsv = IntStream.rangeClosed(1, 1000)
+                .mapToObj(i -> "https://example.com/import/long/" + i)
+                .collect(Collectors.joining("\n"));
+        ImportJobDTO running = urlImportService.startImport(csvFile(longCsv), null);
+
+        // Act
+        ImportJobDTO queued = urlImportService.startImport(csvFile(CSV), null);
+        ImportQueueFullException rejected = assertThrows(ImportQueueFullException.class,
+                () -> urlImportService.startImport(csvFile(CSV), null));
+
+        // Assert
+        assertEquals("QUEUED", queued.getStatus());
+        assertNotNull(rejected.getMessage());
+        assertEquals(2, importJobRepository.count());
+        assertEquals("COMPLETED", awaitFinished(running.getId()).getStatus());
+        assertEquals("COMPLETED", awaitFinished(queued.getId()).getStatus());
+    }
+
+    private static MockMultipartFile csvFile(String content) {
+        return new MockMultipartFile("file", "urls.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ImportJobDTO awaitFinished(Long jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        ImportJobDTO job = urlImportService.getImportJob(jobId);
+        while (("QUEUED".equals(job.getStatus()) || "RUNNING".equals(job.getStatus()))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = urlImportService.getImportJob(jobId);
+        }
+        return job;
+    }
+
+}
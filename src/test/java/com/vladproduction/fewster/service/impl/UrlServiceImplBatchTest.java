@@ -0,0 +1,139 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.dto.BatchCreateResultDTO;
+import com.vladproduction.fewster.dto.BatchItemResultDTO;
+import com.vladproduction.fewster.dto.UrlDTO;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.UrlService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UrlServiceImplBatchTest {
+
+    // Acceptance floor on the in-memory database of the test profile (cold JVM, H2 scans the IN list per row);
+    // MySQL resolves the IN list through uk_url_user_hash and sends each JDBC batch as one multi-row INSERT
+    private static final double MIN_LINKS_PER_SECOND = 500;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.findByUsername("batchuser")
+                .orElseGet(() -> userRepository.save(new User(null, "batchuser", "batchpassword", "USER", null)));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void createBatch_WithDuplicatesExistingAndInvalidUrls_ReturnsPerItemResults() {
+        // Arrange
+        UrlDTO existing = urlService.create("https://example.com/existing", false);
+        List<String> urlTexts = List.of(
+                "https://example.com/a",
+                "https://example.com/a/",   // same as the first one after normalization
+                "https://example.com/existing",
+                "not-a-url",
+                "https://example.com/b");
+
+        // Act
+        BatchCreateResultDTO result = urlService.createBatch(urlTexts);
+
+        // Assert
+        List<BatchItemResultDTO> items = result.getItems();
+        assertEquals(5, result.getTotal());
+        assertEquals(3, result.getCreated());
+        assertEquals(1, result.getExisting());
+        assertEquals(1, result.getFailed());
+        assertEquals(BatchItemResultDTO.Status.CREATED, items.get(0).getStatus());
+        assertEquals(items.get(0).getUrl().getId(), items.get(1).getUrl().getId());
+        assertEquals(existing.getId(), items.get(2).getUrl().getId());
+        assertEquals(BatchItemResultDTO.Status.EXISTING, items.get(2).getStatus());
+        assertEquals(BatchItemResultDTO.Status.FAILED, items.get(3).getStatus());
+        assertNotNull(items.get(3).getError());
+        assertNotNull(items.get(4).getUrl().getShortCode());
+        assertEquals(3, urlRepository.count());
+    }
+
+    @Test
+    void createBatch_WhenRepeated_ReturnsSameLinksWithoutInserting() {
+        // Arrange
+        List<String> urlTexts = List.of("https://example.com/1", "https://example.com/2");
+        BatchCreateResultDTO first = urlService.createBatch(urlTexts);
+
+        // Act
+        BatchCreateResultDTO second = urlService.createBatch(urlTexts);
+
+        // Assert
+        assertEquals(0, second.getCreated());
+        assertEquals(2, second.getExisting());
+        assertEquals(first.getItems().get(1).getUrl().getShortCode(), second.getItems().get(1).getUrl().getShortCode());
+        assertEquals(2, urlRepository.count());
+    }
+
+    @Test
+    void createBatch_WithThousandsOfUrls_CreatesAllWithinThroughputFloor() {
+        // Arrange
+        int size = 5000;
+        List<String> urlTexts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            urlTexts.add("https://example.com/import/" + i);
+        }
+
+        // Act
+        BatchCreateResultDTO result = urlService.createBatch(urlTexts);
+
+        // Assert
+        Set<String> shortCodes = result.getItems().stream()
+                .map(item -> item.getUrl().getShortCode())
+                .collect(Collectors.toSet());
+        assertEquals(size, result.getCreated());
+        assertEquals(size, shortCodes.size());
+        assertEquals(size, urlRepository.count());
+        assertTrue(result.getLinksPerSecond() >= MIN_LINKS_PER_SECOND,
+                "Throughput too low: " + result.getLinksPerSecond() + " links/s");
+    }
+
+    @Test
+    void createBatch_WhenTooLarge_ThrowsIllegalArgumentException() {
+        // Arrange
+        List<String> urlTexts = new ArrayList<>();
+        for (int i = 0; i <= 10000; i++) {
+            urlTexts.add("https://example.com/" + i);
+        }
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> urlService.createBatch(urlTexts));
+    }
+
+}
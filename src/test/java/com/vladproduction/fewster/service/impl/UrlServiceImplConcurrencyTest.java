@@ -0,0 +1,113 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.dto.UrlDTO;
+import com.vladproduction.fewster.entity.UrlEntity;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.UrlService;
+import com.vladproduction.fewster.utility.AlgorithmUtility;
+import com.vladproduction.fewster.utility.GlobalUtility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UrlServiceImplConcurrencyTest {
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AlgorithmUtility algorithmUtility;
+
+    @Autowired
+    private GlobalUtility globalUtility;
+
+    private User demoUser;
+
+    @BeforeEach
+    void setUp() {
+        demoUser = userRepository.findByUsername("demouser")
+                .orElseGet(() -> userRepository.save(new User(null, "demouser", "demopassword", "USER", null)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void create_WhenSameUrlCreatedInParallel_ReturnsSingleRowWithoutErrors() throws Exception {
+        // Arrange
+        int threads = 16;
+        String url = "https://example.com/concurrent/create";
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<UrlDTO>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < threads; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return urlService.create(url, true);
+            }));
+        }
+        start.countDown();
+
+        List<UrlDTO> created = new ArrayList<>();
+        for (Future<UrlDTO> result : results) {
+            created.add(result.get()); // rethrows any exception from create
+        }
+        executor.shutdown();
+
+        // Assert
+        Set<Long> ids = created.stream().map(UrlDTO::getId).collect(Collectors.toSet());
+        Set<String> shortCodes = created.stream().map(UrlDTO::getShortCode).collect(Collectors.toSet());
+        assertEquals(1, ids.size());
+        assertEquals(1, shortCodes.size());
+        assertEquals(1, urlRepository.count());
+    }
+
+    @Test
+    void create_WhenShortCodeTakenByAnotherUrl_UsesNextCandidate() {
+        // Arrange: first candidate of the url is already used by some other url
+        String url = "https://example.com/collision";
+        UrlEntity other = new UrlEntity();
+        other.setOriginalUrl("https://example.com/other");
+        other.setUrlHash(globalUtility.hashUrl("https://example.com/other"));
+        other.setShortCode(algorithmUtility.generateShortCode(url));
+        other.setUser(demoUser);
+        urlRepository.save(other);
+
+        // Act
+        UrlDTO created = urlService.create(url, true);
+
+        // Assert
+        assertNotEquals(other.getShortCode(), created.getShortCode());
+        assertEquals(algorithmUtility.generateShortCode(url + "_0"), created.getShortCode());
+        assertEquals(2, urlRepository.count());
+    }
+
+}
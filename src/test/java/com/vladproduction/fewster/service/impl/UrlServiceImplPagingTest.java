@@ -0,0 +1,137 @@
+package com.vladproduction.fewster.service.impl;
+
+import com.vladproduction.fewster.dto.UrlDTO;
+import com.vladproduction.fewster.dto.UrlPageDTO;
+import com.vladproduction.fewster.dto.UrlSort;
+import com.vladproduction.fewster.entity.User;
+import com.vladproduction.fewster.repository.UrlRepository;
+import com.vladproduction.fewster.repository.UserRepository;
+import com.vladproduction.fewster.service.UrlService;
+import com.vladproduction.fewster.utility.PageCursor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UrlServiceImplPagingTest {
+
+    private static final int URLS = 45;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlRepository urlRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.findByUsername("pageuser")
+                .orElseGet(() -> userRepository.save(new User(null, "pageuser", "pagepassword", "USER", null)));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                user.getUsername(), null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+        List<String> urlTexts = new ArrayList<>();
+        for (int i = 0; i < URLS; i++) {
+            urlTexts.add("https://example.com/page/" + i);
+        }
+        // batch create stores one created_at for all rows, so paging relies on the id tie-breaker
+        urlService.createBatch(urlTexts);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        urlRepository.deleteAll();
+    }
+
+    @Test
+    void getUrlsForCurrentUser_WhenPagingByCreated_ReturnsEveryUrlOnceNewestFirst() {
+        // Act
+        List<UrlDTO> all = readAllPages(UrlSort.CREATED, 20);
+
+        // Assert
+        assertEquals(URLS, all.size());
+        assertEquals(URLS, all.stream().map(UrlDTO::getId).distinct().count());
+        List<UrlDTO> expected = new ArrayList<>(all);
+        expected.sort(Comparator.comparing(UrlDTO::getId).reversed());
+        assertEquals(expected, all);
+        assertEquals(URLS, urlService.countUrlsForCurrentUser());
+    }
+
+    @Test
+    void getUrlsForCurrentUser_WhenPagingByClicks_ReturnsMostClickedFirst() {
+        // Arrange: every third url gets clicks, the rest keeps 0 and is ordered by id only
+        jdbcTemplate.update("UPDATE url SET click_count = MOD(id, 7) WHERE MOD(id, 3) = 0");
+
+        // Act
+        List<UrlDTO> all = readAllPages(UrlSort.CLICKS, 7);
+
+        // Assert
+        assertEquals(URLS, all.size());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            assertTrue(ids.add(all.get(i).getId()));
+            if (i > 0) {
+                UrlDTO previous = all.get(i - 1);
+                UrlDTO current = all.get(i);
+                assertTrue(previous.getClickCount() > current.getClickCount()
+                        || (previous.getClickCount().equals(current.getClickCount()) && previous.getId() > current.getId()));
+            }
+        }
+    }
+
+    @Test
+    void getUrlsForCurrentUser_WhenCursorOfOtherSortOrGarbage_ThrowsIllegalArgumentException() {
+        // Arrange
+        String createdCursor = urlService.getUrlsForCurrentUser(UrlSort.CREATED, null, 10).getNextCursor();
+
+        // Act & Assert
+        assertNotNull(createdCursor);
+        assertThrows(IllegalArgumentException.class,
+                () -> urlService.getUrlsForCurrentUser(UrlSort.CLICKS, createdCursor, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> urlService.getUrlsForCurrentUser(UrlSort.CREATED, "not-a-cursor", 10));
+        // Well formed cursors with tampered sort values
+        assertThrows(IllegalArgumentException.class, () -> urlService.getUrlsForCurrentUser(UrlSort.CREATED,
+                new PageCursor("created", "yesterday", 1L).encode(), 10));
+        assertThrows(IllegalArgumentException.class, () -> urlService.getUrlsForCurrentUser(UrlSort.CLICKS,
+                new PageCursor("clicks", "many", 1L).encode(), 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> urlService.getUrlsForCurrentUser(UrlSort.CREATED, null, 0));
+    }
+
+    private List<UrlDTO> readAllPages(UrlSort sort, int size) {
+        List<UrlDTO> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            UrlPageDTO page = urlService.getUrlsForCurrentUser(sort, cursor, size);
+            assertTrue(page.getItems().size() <= size);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return all;
+    }
+
+}